@@ -0,0 +1,153 @@
+package com.denticheck.api.domain.ai_check.service;
+
+import com.denticheck.api.domain.ai_check.dto.BBox;
+import com.denticheck.api.domain.ai_check.dto.DetectionItem;
+import com.denticheck.api.infrastructure.external.ai.dto.AiDetectResponse;
+import com.denticheck.api.infrastructure.external.ai.dto.AiInspectResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AI 서버 /v1/inspect 응답을 DetectionItem 목록으로 바꾸는 비용 비교 (검출 150건 기준).
+ * <p>
+ * - mapBased: 기존 방식. 응답을 Map 으로 읽고 asMap 으로 quality/detect/bbox 를 한 번씩 복사한 뒤,
+ * run 응답용 DTO 를 만들고 analyze 응답용 DTO 로 한 번 더 옮긴다.
+ * - typed: 응답을 AiInspectResponse 레코드로 바로 읽고 공용 DetectionItem 으로 한 번만 옮긴다.
+ * <p>
+ * 실행: ./gradlew jmh -Pjmh.includes=AiResponseParsingBenchmark
+ * gc 프로파일러의 gc.alloc.rate.norm(B/op)이 응답 1건당 할당량이다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class AiResponseParsingBenchmark {
+
+    private static final String[] LABELS = {"caries", "tartar", "oral_cancer", "normal"};
+
+    @Param({"150"})
+    private int detectionCount;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private byte[] body;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Random random = new Random(42);
+        List<Map<String, Object>> detections = new ArrayList<>();
+        for (int i = 0; i < detectionCount; i++) {
+            detections.add(Map.of(
+                    "label", LABELS[i % LABELS.length],
+                    "confidence", random.nextDouble(),
+                    "bbox", Map.of("x", random.nextDouble(), "y", random.nextDouble(),
+                            "w", random.nextDouble() / 4, "h", random.nextDouble() / 4)));
+        }
+        Map<String, Object> response = Map.of(
+                "quality", Map.of("pass_", true, "reasons", List.of(), "score", 0.93),
+                "detect", Map.of("detections", detections, "summary", Map.of("caries", 38, "tartar", 37)));
+        body = objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public List<DetectionItem> mapBased() throws IOException {
+        Map<String, Object> fused = asMap(objectMapper.readValue(body, Map.class));
+        Map<String, Object> quality = asMap(fused.get("quality"));
+        Map<String, Object> detect = asMap(fused.get("detect"));
+        if (!Boolean.TRUE.equals(quality.get("pass_"))) {
+            return Collections.emptyList();
+        }
+
+        List<DetectionItem> runDetections = new ArrayList<>();
+        if (detect.get("detections") instanceof List<?> list) {
+            for (Object item : list) {
+                if (!(item instanceof Map<?, ?> m)) {
+                    continue;
+                }
+                Map<String, Object> bbox = asMap(m.get("bbox"));
+                runDetections.add(DetectionItem.builder()
+                        .label(String.valueOf(m.get("label")))
+                        .confidence(asDouble(m.get("confidence")))
+                        .bbox(BBox.builder()
+                                .x(asDouble(bbox.get("x")))
+                                .y(asDouble(bbox.get("y")))
+                                .w(asDouble(bbox.get("w")))
+                                .h(asDouble(bbox.get("h")))
+                                .build())
+                        .build());
+            }
+        }
+
+        List<DetectionItem> analyzeDetections = new ArrayList<>();
+        for (DetectionItem d : runDetections) {
+            analyzeDetections.add(DetectionItem.builder()
+                    .label(d.getLabel())
+                    .confidence(d.getConfidence())
+                    .bbox(BBox.builder()
+                            .x(d.getBbox().getX())
+                            .y(d.getBbox().getY())
+                            .w(d.getBbox().getW())
+                            .h(d.getBbox().getH())
+                            .build())
+                    .build());
+        }
+        return analyzeDetections;
+    }
+
+    @Benchmark
+    public List<DetectionItem> typed() throws IOException {
+        AiInspectResponse response = objectMapper.readValue(body, AiInspectResponse.class);
+        if (response.quality() == null || !response.quality().isPass()) {
+            return Collections.emptyList();
+        }
+
+        List<AiDetectResponse.Detection> raw = response.detect().detections();
+        List<DetectionItem> out = new ArrayList<>(raw.size());
+        for (AiDetectResponse.Detection d : raw) {
+            AiDetectResponse.Box b = d.bbox();
+            out.add(DetectionItem.builder()
+                    .label(d.label())
+                    .confidence(d.confidence())
+                    .bbox(BBox.builder().x(b.x()).y(b.y()).w(b.w()).h(b.h()).build())
+                    .build());
+        }
+        return out;
+    }
+
+    private static double asDouble(Object v) {
+        return v instanceof Number n ? n.doubleValue() : 0.0;
+    }
+
+    private static Map<String, Object> asMap(Object v) {
+        if (v instanceof Map<?, ?> m) {
+            Map<String, Object> out = new LinkedHashMap<>();
+            for (Map.Entry<?, ?> e : m.entrySet()) {
+                out.put(String.valueOf(e.getKey()), e.getValue());
+            }
+            return out;
+        }
+        return Collections.emptyMap();
+    }
+}
@@ -0,0 +1,124 @@
+package com.denticheck.api.domain.ai_check.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.FormHttpMessageConverter;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AI 서버로 이미지를 넘길 때의 요청당 할당량 비교 (5MB 사진 기준).
+ * <p>
+ * - byteArrayPerCall: 기존 방식. /v1/quality, /v1/detect 호출마다 getBytes()로 전체 이미지를 읽어 ByteArrayResource로 감싼다.
+ * - spooledStream: 업로드를 한 번만 스풀 파일로 옮기고 두 호출 모두 그 파일을 스트리밍한다.
+ * <p>
+ * 실행: ./gradlew jmh -Pjmh.includes=AiUploadForwardingBenchmark
+ * gc 프로파일러의 gc.alloc.rate.norm(B/op)이 요청 1건당 할당량이다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx512m")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class AiUploadForwardingBenchmark {
+
+    private static final int PHOTO_BYTES = 5 * 1024 * 1024;
+    private static final List<String> STAGES = List.of("/v1/quality", "/v1/detect");
+
+    private final FormHttpMessageConverter converter = new FormHttpMessageConverter();
+
+    private Path uploadedPart;
+    private Path spoolPath;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        byte[] photo = new byte[PHOTO_BYTES];
+        new Random(42).nextBytes(photo);
+        uploadedPart = Files.createTempFile("bench-upload-", ".jpg");
+        spoolPath = Files.createTempFile("bench-spool-", ".img");
+        Files.write(uploadedPart, photo);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(uploadedPart);
+        Files.deleteIfExists(spoolPath);
+    }
+
+    @Benchmark
+    public void byteArrayPerCall() throws IOException {
+        for (String ignored : STAGES) {
+            byte[] bytes = Files.readAllBytes(uploadedPart);
+            Resource resource = new ByteArrayResource(bytes) {
+                @Override
+                public String getFilename() {
+                    return "photo.jpg";
+                }
+            };
+            writeMultipart(resource, "photo.jpg");
+        }
+    }
+
+    @Benchmark
+    public void spooledStream() throws IOException {
+        Files.copy(uploadedPart, spoolPath, StandardCopyOption.REPLACE_EXISTING);
+        SpooledUpload upload = new SpooledUpload(spoolPath, "photo.jpg", "image/jpeg", PHOTO_BYTES, null);
+        for (String ignored : STAGES) {
+            writeMultipart(upload.asResource(), upload.getFilename());
+        }
+    }
+
+    private void writeMultipart(Resource resource, String filename) throws IOException {
+        HttpHeaders partHeaders = new HttpHeaders();
+        partHeaders.setContentDisposition(ContentDisposition.builder("form-data")
+                .name("file")
+                .filename(filename)
+                .build());
+        partHeaders.setContentType(MediaType.IMAGE_JPEG);
+
+        MultiValueMap<String, Object> body = new LinkedMultiValueMap<>();
+        body.add("file", new HttpEntity<>(resource, partHeaders));
+        converter.write(body, MediaType.MULTIPART_FORM_DATA, new DiscardingOutputMessage());
+    }
+
+    private static final class DiscardingOutputMessage implements HttpOutputMessage {
+        private final HttpHeaders headers = new HttpHeaders();
+
+        @Override
+        public OutputStream getBody() {
+            return OutputStream.nullOutputStream();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.denticheck.api.domain.ai_check.service;
+
+import com.denticheck.api.domain.ai_check.dto.AiCheckRunResponse;
+import com.denticheck.api.domain.ai_check.dto.BBox;
+import com.denticheck.api.domain.ai_check.dto.DetectionItem;
+import com.denticheck.api.domain.ai_check.dto.PdfViewModel;
+import org.apache.fontbox.ttf.TTFParser;
+import org.apache.fontbox.ttf.TrueTypeFont;
+import org.apache.pdfbox.io.RandomAccessReadBuffer;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType0Font;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.Color;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PdfReportService.generateAnalyzeReport 처리량(reports/s).
+ * <p>
+ * baseline* 은 이전 구현처럼 리포트마다 폰트 원본을 PDType0Font.load 로 파싱해 임베딩하고 머리글/바닥글을 직접 그린다.
+ * 본문은 PdfReportService.drawBody 를 그대로 써서, 두 변형의 차이는 폰트 재사용과 미리 만든 머리글/바닥글뿐이다.
+ * <p>
+ * 폰트 파싱/서브셋 비용을 재는 벤치마크이므로 REPORT_FONT_PATH 환경 변수로 TrueType 폰트(malgun.ttf 등)를 꼭 지정한다.
+ * 지정하지 않거나 읽을 수 없으면 Helvetica 로 조용히 재지 않고 바로 실패하며, 한글 글리프가 없는 폰트면 경고를 남긴다.
+ * 리포트 문구는 영문으로 두어 어떤 폰트로 재도 같은 입력이 된다.
+ * <p>
+ * 실행: REPORT_FONT_PATH=/path/to/malgun.ttf ./gradlew jmh -Pjmh.includes=PdfReportBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+public class PdfReportBenchmark {
+
+    private static final float PAGE_MARGIN = 40f;
+    private static final DateTimeFormatter GENERATED_AT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private PdfReportService pdfReportService;
+    private byte[] fontBytes;
+    private PdfViewModel viewModel;
+    private List<DetectionItem> detections;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        String fontPath = System.getenv().getOrDefault("REPORT_FONT_PATH", "");
+        if (fontPath.isBlank() || !Files.isReadable(Path.of(fontPath))) {
+            throw new IllegalStateException("REPORT_FONT_PATH must point to a readable TrueType font (e.g. malgun.ttf); "
+                    + "without it the benchmark would only measure Helvetica. Got: '" + fontPath + "'");
+        }
+        fontBytes = Files.readAllBytes(Path.of(fontPath));
+        try (TrueTypeFont font = new TTFParser().parse(new RandomAccessReadBuffer(fontBytes))) {
+            if (font.getUnicodeCmapLookup().getGlyphId('가') == 0) {
+                System.err.println("WARNING: " + fontPath + " has no Hangul glyphs. "
+                        + "Numbers will not reflect the Korean font used in production.");
+            }
+        }
+        pdfReportService = new PdfReportService(fontPath, 0);
+
+        viewModel = PdfViewModel.builder()
+                .riskSummary(PdfViewModel.RiskSummary.builder()
+                        .levelText("MEDIUM")
+                        .oneLineSummary("Two suspected caries and tartar were observed. A dental checkup within 2 weeks is recommended.")
+                        .build())
+                .problems(List.of(
+                        PdfViewModel.Problem.builder()
+                                .title("Suspected caries")
+                                .reason("Dark discoloration on the occlusal surface of a molar.")
+                                .action("Get a detailed examination at a dental clinic.")
+                                .build(),
+                        PdfViewModel.Problem.builder()
+                                .title("Tartar")
+                                .reason("Tartar is visible behind the lower front teeth.")
+                                .action("Scaling is recommended.")
+                                .build()))
+                .actions(List.of(
+                        "Brush gently for 2 minutes, 2-3 times per day.",
+                        "Use interdental cleaners or floss once daily.",
+                        "Limit sugary snacks and rinse with water after meals."))
+                .visit(PdfViewModel.Visit.builder()
+                        .level("Recommended")
+                        .reason("If symptoms persist, consult a dentist.")
+                        .build())
+                .build();
+
+        detections = List.of(
+                detection("caries", 0.87, 0.31, 0.42, 0.08, 0.06),
+                detection("caries", 0.64, 0.55, 0.47, 0.07, 0.05),
+                detection("tartar", 0.72, 0.48, 0.71, 0.20, 0.07));
+    }
+
+    @Benchmark
+    public byte[] generateAnalyzeReport() {
+        return pdfReportService.generateAnalyzeReport("bench-session", viewModel, detections);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public byte[] generateAnalyzeReportConcurrent() {
+        return pdfReportService.generateAnalyzeReport("bench-session", viewModel, detections);
+    }
+
+    @Benchmark
+    public byte[] baselineGenerateAnalyzeReport() throws IOException {
+        return baselineReport();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public byte[] baselineGenerateAnalyzeReportConcurrent() throws IOException {
+        return baselineReport();
+    }
+
+    /** 이전 구현의 리포트 한 장: 폰트를 매번 파싱해 임베딩하고, 머리글/바닥글을 매번 그린다. */
+    private byte[] baselineReport() throws IOException {
+        try (PDDocument document = new PDDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            PDPage page = new PDPage(PDRectangle.A4);
+            document.addPage(page);
+
+            PDFont bodyFont = PDType0Font.load(document, new ByteArrayInputStream(fontBytes));
+            PDFont fallbackBold = new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD);
+
+            float contentWidth = page.getMediaBox().getWidth() - (PAGE_MARGIN * 2);
+            float y = page.getMediaBox().getHeight() - PAGE_MARGIN;
+
+            try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                fillRect(content, PAGE_MARGIN, y - 78f, contentWidth, 78f, new Color(27, 58, 114), null);
+                y = writeLine(content, bodyFont, 18f, "DentiCheck AI Dental Report", y - 26f, Color.WHITE);
+                y = writeLine(content, bodyFont, 10.5f, "Generated: " + LocalDateTime.now().format(GENERATED_AT),
+                        y - 8f, new Color(231, 237, 247));
+                writeLine(content, bodyFont, 10.5f, "Session ID: bench-session", y - 6f, new Color(231, 237, 247));
+                y -= 22f + 16f;
+
+                y = pdfReportService.drawBody(content, bodyFont, bodyFont, fallbackBold, viewModel, detections,
+                        contentWidth, y);
+
+                float footerY = Math.max(y, PAGE_MARGIN + 30f);
+                fillRect(content, PAGE_MARGIN, footerY - 26f, contentWidth, 26f, new Color(250, 250, 250),
+                        new Color(217, 222, 230));
+                content.beginText();
+                content.setFont(bodyFont, 9f);
+                content.setNonStrokingColor(new Color(85, 91, 110));
+                content.newLineAtOffset(PAGE_MARGIN + 8f, footerY - 16f);
+                content.showText("This report is for guidance only and does not replace professional diagnosis.");
+                content.endText();
+            }
+
+            document.save(out);
+            return out.toByteArray();
+        }
+    }
+
+    private static void fillRect(PDPageContentStream content, float x, float y, float width, float height,
+            Color fill, Color stroke) throws IOException {
+        content.setNonStrokingColor(fill);
+        content.addRect(x, y, width, height);
+        content.fill();
+        if (stroke != null) {
+            content.setStrokingColor(stroke);
+            content.addRect(x, y, width, height);
+            content.stroke();
+        }
+    }
+
+    private static float writeLine(PDPageContentStream content, PDFont font, float fontSize, String text, float y,
+            Color color) throws IOException {
+        content.beginText();
+        content.setFont(font, fontSize);
+        content.setNonStrokingColor(color);
+        content.newLineAtOffset(PAGE_MARGIN + 14f, y);
+        content.showText(text);
+        content.endText();
+        return y;
+    }
+
+    private static DetectionItem detection(String label, double confidence,
+            double x, double y, double w, double h) {
+        return DetectionItem.builder()
+                .label(label)
+                .confidence(confidence)
+                .bbox(BBox.builder().x(x).y(y).w(w).h(h).build())
+                .build();
+    }
+}
@@ -0,0 +1,239 @@
+package com.denticheck.api.domain.dental.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 주변 치과 검색: 메모리 격자(DentalGrid) vs SQL(GiST earthdistance) 경로. 점 2만/10만/100만 건.
+ * <p>
+ * - gridWithin / sqlWithin: searchDentals 기본값(반경 5km, 첫 페이지 20건). SQL 은 목록 + count 두 쿼리다.
+ * - gridNearest / sqlNearest: 반경 없이 가장 가까운 20건.
+ * 점은 전국 범위(위도 33.0~38.6, 경도 124.6~131.0)에 고르게 뿌리고, 검색 중심은 점들 가운데서 돌아가며 고른다.
+ * 실제 치과는 도시에 몰려 있어 도심 검색은 반경 안 건수가 더 많다.
+ * <p>
+ * SQL 쪽은 로컬 Postgres(V29 까지 마이그레이션되어 cube/earthdistance 가 있는 DB)에 임시 테이블을 만들어 잰다.
+ * 접속 정보는 JMH_JDBC_URL / JMH_JDBC_USER / JMH_JDBC_PASSWORD 환경 변수, 없으면 application-local.yml 의 값이다.
+ * DB 가 없으면 sql* 만 실패하고 grid* 는 그대로 돈다.
+ * <p>
+ * 실행: ./gradlew jmh -Pjmh.includes=NearbyDentalSearchBenchmark
+ * <p>
+ * 측정값(µs/op, 1 CPU, 같은 머신의 Postgres 16 + V29, shared_buffers 512MB):
+ * <pre>
+ *                  20k          100k          1M
+ * gridWithin      15.3 ± 2.4    41.2 ± 1.1    147.5 ± 25.1
+ * sqlWithin     1196.8 ± 364  1861.0 ± 977  8899.2 ± 3146
+ * gridNearest     82.6 ± 22.4   61.2 ± 11.4    36.7 ± 11.6
+ * sqlNearest     450.5 ± 184   573.3 ± 247   574.9 ± 334
+ * </pre>
+ * SQL 쪽은 JDBC 왕복이 포함된 값이며, DB 가 다른 호스트에 있으면 그만큼 더 벌어진다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class NearbyDentalSearchBenchmark {
+
+    private static final double RADIUS_KM = 5.0;
+    private static final int PAGE_SIZE = 20;
+    private static final int CENTER_COUNT = 1024;
+
+    @Param({"20000", "100000", "1000000"})
+    private int points;
+
+    private UUID[] ids;
+    private double[] lats;
+    private double[] lngs;
+    private double[][] centers;
+    private int next;
+
+    private DentalGrid grid;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        ids = new UUID[points];
+        lats = new double[points];
+        lngs = new double[points];
+        grid = new DentalGrid(0.01);
+        for (int i = 0; i < points; i++) {
+            ids[i] = new UUID(random.nextLong(), random.nextLong());
+            // DB 컬럼(numeric(10,7))과 같은 자릿수로 맞춰 두 경로가 같은 좌표를 보게 한다
+            lats[i] = round7(33.0 + random.nextDouble() * 5.6);
+            lngs[i] = round7(124.6 + random.nextDouble() * 6.4);
+            grid.add(ids[i], lats[i], lngs[i]);
+        }
+        centers = new double[CENTER_COUNT][];
+        for (int i = 0; i < CENTER_COUNT; i++) {
+            int p = random.nextInt(points);
+            centers[i] = new double[]{lats[p], lngs[p]};
+        }
+    }
+
+    @Benchmark
+    public List<DentalGrid.Hit> gridWithin() {
+        double[] c = nextCenter();
+        List<DentalGrid.Hit> hits = grid.within(c[0], c[1], RADIUS_KM);
+        return hits.subList(0, Math.min(PAGE_SIZE, hits.size()));
+    }
+
+    @Benchmark
+    public List<DentalGrid.Hit> gridNearest() {
+        double[] c = nextCenter();
+        return grid.nearest(c[0], c[1], PAGE_SIZE);
+    }
+
+    @Benchmark
+    public long sqlWithin(Sql sql) throws SQLException {
+        double[] c = nextCenter();
+        List<UUID> page = sql.query(sql.within, c, RADIUS_KM);
+        return sql.count(c, RADIUS_KM) + page.size();
+    }
+
+    @Benchmark
+    public List<UUID> sqlNearest(Sql sql) throws SQLException {
+        double[] c = nextCenter();
+        sql.nearest.setDouble(1, c[0]);
+        sql.nearest.setDouble(2, c[1]);
+        return Sql.ids(sql.nearest);
+    }
+
+    private double[] nextCenter() {
+        double[] c = centers[next];
+        next = (next + 1) & (CENTER_COUNT - 1);
+        return c;
+    }
+
+    private static double round7(double v) {
+        return BigDecimal.valueOf(v).setScale(7, RoundingMode.HALF_UP).doubleValue();
+    }
+
+    /** DentalRepository.findNearbyDentals 와 같은 식과 인덱스를 임시 테이블에 만들어 둔 연결. */
+    @State(Scope.Benchmark)
+    public static class Sql {
+
+        private static final String POINT = "ll_to_earth(CAST(d.lat AS float8), CAST(d.lng AS float8))";
+        private static final String CENTER = "ll_to_earth(?, ?)";
+        private static final String WITHIN_RADIUS = "earth_box(" + CENTER + ", ? * 1000) @> " + POINT
+                + " AND earth_distance(" + CENTER + ", " + POINT + ") < ? * 1000";
+
+        private Connection connection;
+        private PreparedStatement within;
+        private PreparedStatement count;
+        private PreparedStatement nearest;
+
+        @Setup(Level.Trial)
+        public void setUp(NearbyDentalSearchBenchmark data) throws SQLException {
+            Properties props = new Properties();
+            props.setProperty("user", env("JMH_JDBC_USER", "admin"));
+            props.setProperty("password", env("JMH_JDBC_PASSWORD", "admin_password"));
+            props.setProperty("reWriteBatchedInserts", "true");
+            connection = DriverManager.getConnection(
+                    env("JMH_JDBC_URL", "jdbc:postgresql://localhost:5432/denticheck"), props);
+
+            try (Statement st = connection.createStatement()) {
+                st.execute("CREATE TEMP TABLE bench_dentals (id uuid PRIMARY KEY,"
+                        + " lat numeric(10, 7) NOT NULL, lng numeric(10, 7) NOT NULL)");
+            }
+            connection.setAutoCommit(false);
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO bench_dentals (id, lat, lng) VALUES (?, ?, ?)")) {
+                for (int i = 0; i < data.points; i++) {
+                    insert.setObject(1, data.ids[i]);
+                    insert.setDouble(2, data.lats[i]);
+                    insert.setDouble(3, data.lngs[i]);
+                    insert.addBatch();
+                    if (i % 5000 == 4999) {
+                        insert.executeBatch();
+                    }
+                }
+                insert.executeBatch();
+            }
+            connection.commit();
+            connection.setAutoCommit(true);
+            try (Statement st = connection.createStatement()) {
+                st.execute("CREATE INDEX ON bench_dentals USING gist (ll_to_earth(lat::float8, lng::float8))");
+                st.execute("ANALYZE bench_dentals");
+            }
+
+            within = connection.prepareStatement("SELECT d.id FROM bench_dentals d WHERE " + WITHIN_RADIUS
+                    + " ORDER BY " + POINT + " <-> " + CENTER + " LIMIT " + PAGE_SIZE);
+            count = connection.prepareStatement("SELECT count(*) FROM bench_dentals d WHERE " + WITHIN_RADIUS);
+            nearest = connection.prepareStatement("SELECT d.id FROM bench_dentals d ORDER BY " + POINT + " <-> "
+                    + CENTER + " LIMIT " + PAGE_SIZE);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws SQLException {
+            if (connection != null) {
+                connection.close();
+            }
+        }
+
+        private List<UUID> query(PreparedStatement statement, double[] c, double radiusKm) throws SQLException {
+            bindWithin(statement, c, radiusKm);
+            statement.setDouble(7, c[0]);
+            statement.setDouble(8, c[1]);
+            return ids(statement);
+        }
+
+        private long count(double[] c, double radiusKm) throws SQLException {
+            bindWithin(count, c, radiusKm);
+            try (ResultSet rs = count.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+
+        private static void bindWithin(PreparedStatement statement, double[] c, double radiusKm) throws SQLException {
+            statement.setDouble(1, c[0]);
+            statement.setDouble(2, c[1]);
+            statement.setDouble(3, radiusKm);
+            statement.setDouble(4, c[0]);
+            statement.setDouble(5, c[1]);
+            statement.setDouble(6, radiusKm);
+        }
+
+        private static List<UUID> ids(PreparedStatement statement) throws SQLException {
+            List<UUID> out = new ArrayList<>(PAGE_SIZE);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    out.add(rs.getObject(1, UUID.class));
+                }
+            }
+            return out;
+        }
+
+        private static String env(String name, String fallback) {
+            String value = System.getenv(name);
+            return value == null || value.isBlank() ? fallback : value;
+        }
+    }
+}
@@ -9,7 +9,11 @@ import org.springframework.http.HttpStatus;
 @RequiredArgsConstructor
 public enum AiCheckErrorCode implements ErrorCode {
     // 4000번대: AI 검진 관련
-    AI_ANALYSIS_FAILED(HttpStatus.INTERNAL_SERVER_ERROR, 4000, "AI 분석 중 오류가 발생했습니다.");
+    AI_ANALYSIS_FAILED(HttpStatus.INTERNAL_SERVER_ERROR, 4000, "AI 분석 중 오류가 발생했습니다."),
+    AI_ANALYZE_BUSY(HttpStatus.SERVICE_UNAVAILABLE, 4001, "AI 분석 요청이 많습니다. 잠시 후 다시 시도해 주세요."),
+    AI_JOB_NOT_FOUND(HttpStatus.NOT_FOUND, 4002, "AI 검진 작업을 찾을 수 없습니다."),
+    AI_REPORT_NOT_FOUND(HttpStatus.NOT_FOUND, 4003, "검진 리포트를 찾을 수 없습니다."),
+    AI_REPORT_FAILED(HttpStatus.INTERNAL_SERVER_ERROR, 4004, "검진 리포트 생성 중 오류가 발생했습니다.");
 
     private final HttpStatus httpStatus;
     private final int code;
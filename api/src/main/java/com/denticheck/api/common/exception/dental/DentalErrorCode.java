@@ -9,7 +9,8 @@ import org.springframework.http.HttpStatus;
 @RequiredArgsConstructor
 public enum DentalErrorCode implements ErrorCode {
     // 3000번대: 치과 관련 (기존 병원 코드 3000 유지)
-    DENTAL_NOT_FOUND(HttpStatus.NOT_FOUND, 3000, "치과를 찾을 수 없습니다.");
+    DENTAL_NOT_FOUND(HttpStatus.NOT_FOUND, 3000, "치과를 찾을 수 없습니다."),
+    INVALID_CURSOR(HttpStatus.BAD_REQUEST, 3001, "잘못된 페이지 커서입니다.");
 
     private final HttpStatus httpStatus;
     private final int code;
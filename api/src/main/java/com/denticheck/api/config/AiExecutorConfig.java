@@ -0,0 +1,109 @@
+package com.denticheck.api.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AI 검진 파이프라인 전용 스레드 풀.
+ * JVM 공용 ForkJoinPool에 블로킹 HTTP 호출을 올리지 않도록 별도로 둔다.
+ */
+@Slf4j
+@Configuration
+public class AiExecutorConfig {
+
+    @Value("${ai.pipeline.stage-executor.core-size:8}")
+    private int stageCoreSize;
+
+    @Value("${ai.pipeline.stage-executor.max-size:32}")
+    private int stageMaxSize;
+
+    @Value("${ai.pipeline.stage-executor.queue-capacity:100}")
+    private int stageQueueCapacity;
+
+    @Value("${ai.analyze.executor.concurrency:16}")
+    private int analyzeConcurrency;
+
+    @Value("${ai.analyze.executor.queue-capacity:32}")
+    private int analyzeQueueCapacity;
+
+    @Value("${ai.analyze.executor.virtual-threads:false}")
+    private boolean analyzeVirtualThreads;
+
+    @Value("${ollama.pool.max-per-route:4}")
+    private int ollamaCallCoreSize;
+
+    @Value("${ollama.call-executor.max-size:16}")
+    private int ollamaCallMaxSize;
+
+    /** quality와 병렬로 미리 시작하는 detect 호출 등, 파이프라인 단계 단위 작업용 */
+    @Bean
+    public ThreadPoolTaskExecutor aiStageExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("ai-stage-");
+        executor.setCorePoolSize(stageCoreSize);
+        executor.setMaxPoolSize(stageMaxSize);
+        executor.setQueueCapacity(stageQueueCapacity);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+
+    /**
+     * Ollama 생성 호출용. 요청 스레드는 hedge SLO 까지만 기다리고, 늦은 호출은 이 풀에서 끝까지 진행되어 메모에 남는다.
+     * 대기열 없이 동작하며, 풀이 차면 거절되어 호출 측이 바로 규칙 기반 결과를 쓴다.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor ollamaCallExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("ollama-call-");
+        executor.setCorePoolSize(ollamaCallCoreSize);
+        executor.setMaxPoolSize(Math.max(ollamaCallCoreSize, ollamaCallMaxSize));
+        executor.setQueueCapacity(0);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+
+    /**
+     * /api/ai-check/analyze 요청 전체를 실행하는 풀.
+     * 동시 실행 수와 대기열을 모두 제한하고, 대기열이 차면 RejectedExecutionException으로 즉시 거절한다.
+     * 대기 시간(executor.idle)과 대기열 길이(executor.queued)는 name=ai.analyze 태그로 노출된다.
+     */
+    @Bean
+    public ExecutorService aiAnalyzeExecutor(MeterRegistry meterRegistry) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                analyzeConcurrency,
+                analyzeConcurrency,
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(analyzeQueueCapacity),
+                analyzeThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return ExecutorServiceMetrics.monitor(meterRegistry, executor, "ai.analyze");
+    }
+
+    private ThreadFactory analyzeThreadFactory() {
+        if (analyzeVirtualThreads) {
+            try {
+                // 동시 실행 수는 풀 크기로 제한되므로 가상 스레드를 써도 AI 서버로 나가는 요청 수는 그대로다
+                return new VirtualThreadTaskExecutor("ai-analyze-").getVirtualThreadFactory();
+            } catch (UnsupportedOperationException e) {
+                log.warn("Virtual threads are not available on this JVM. Using platform threads for ai-analyze");
+            }
+        }
+        return new CustomizableThreadFactory("ai-analyze-");
+    }
+}
@@ -0,0 +1,159 @@
+package com.denticheck.api.config;
+
+import com.denticheck.api.infrastructure.external.ai.AdaptiveConcurrencyLimiter;
+import com.denticheck.api.infrastructure.external.ai.AiCallScope;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.concurrent.Cancellable;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.time.Duration;
+
+/**
+ * AI 서버(/v1/quality, /v1/detect)와 Ollama 호출이 함께 쓰는 HTTP 전송 계층.
+ * 요청마다 커넥션을 새로 열지 않도록 keep-alive 커넥션 풀 하나를 공유하고,
+ * 풀 상태(leased/available/pending)는 Micrometer로 노출한다.
+ */
+@Configuration
+public class AiHttpClientConfig {
+
+    @Value("${ai.client.timeout:5000}")
+    private int aiClientTimeoutMs;
+
+    @Value("${ai.client.pool.max-total:64}")
+    private int maxTotal;
+
+    @Value("${ai.client.pool.max-per-route:32}")
+    private int maxPerRoute;
+
+    @Value("${ai.client.pool.acquire-timeout-ms:2000}")
+    private int acquireTimeoutMs;
+
+    @Value("${ai.client.pool.keep-alive:30s}")
+    private Duration keepAlive;
+
+    @Value("${ai.client.pool.idle-evict:60s}")
+    private Duration idleEvict;
+
+    @Value("${ollama.base-url:http://localhost:11434}")
+    private String ollamaBaseUrl;
+
+    @Value("${ollama.pool.max-per-route:4}")
+    private int ollamaMaxPerRoute;
+
+    @Value("${ollama.generate.timeout-ms:18000}")
+    private int ollamaGenerateTimeoutMs;
+
+    @Value("${ollama.limiter.initial-limit:2}")
+    private int ollamaInitialLimit;
+
+    @Value("${ollama.limiter.min-limit:1}")
+    private int ollamaMinLimit;
+
+    @Value("${ollama.limiter.latency-target:10s}")
+    private Duration ollamaLatencyTarget;
+
+    @Value("${ollama.limiter.backoff-ratio:0.9}")
+    private double ollamaBackoffRatio;
+
+    @Bean
+    public PoolingHttpClientConnectionManager aiConnectionManager() {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(aiClientTimeoutMs))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+
+        // 로컬 모델 서버는 동시 요청에 약하므로 Ollama 라우트는 별도로 좁게 제한
+        connectionManager.setMaxPerRoute(new HttpRoute(routeHost(ollamaBaseUrl)), ollamaMaxPerRoute);
+        return connectionManager;
+    }
+
+    @Bean
+    public CloseableHttpClient aiTransportHttpClient(PoolingHttpClientConnectionManager aiConnectionManager) {
+        return HttpClients.custom()
+                .setConnectionManager(aiConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(acquireTimeoutMs))
+                        .setConnectionKeepAlive(TimeValue.ofMilliseconds(keepAlive.toMillis()))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(idleEvict.toMillis()))
+                .build();
+    }
+
+    @Bean
+    public RestTemplate aiRestTemplate(CloseableHttpClient aiTransportHttpClient) {
+        return pooledRestTemplate(aiTransportHttpClient, aiClientTimeoutMs);
+    }
+
+    @Bean
+    public RestTemplate ollamaRestTemplate(CloseableHttpClient aiTransportHttpClient) {
+        return pooledRestTemplate(aiTransportHttpClient, ollamaGenerateTimeoutMs);
+    }
+
+    /**
+     * Ollama 동시 생성 수를 지연 시간에 맞춰 조정한다. 상한은 Ollama 라우트 커넥션 수를 넘지 않는다.
+     */
+    @Bean
+    public AdaptiveConcurrencyLimiter ollamaConcurrencyLimiter(MeterRegistry meterRegistry) {
+        return new AdaptiveConcurrencyLimiter("ollama.limiter", ollamaMinLimit, ollamaInitialLimit, ollamaMaxPerRoute,
+                ollamaLatencyTarget, ollamaBackoffRatio, meterRegistry);
+    }
+
+    @Bean
+    public MeterBinder aiConnectionPoolMetrics(PoolingHttpClientConnectionManager aiConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(aiConnectionManager, "ai");
+    }
+
+    private RestTemplate pooledRestTemplate(CloseableHttpClient httpClient, int readTimeoutMs) {
+        HttpComponentsClientHttpRequestFactory factory = new ScopedRequestFactory(httpClient);
+        factory.setReadTimeout(readTimeoutMs);
+        return new RestTemplate(factory);
+    }
+
+    private HttpHost routeHost(String baseUrl) {
+        URI uri = URI.create(baseUrl);
+        int port = uri.getPort() > 0 ? uri.getPort() : ("https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80);
+        return new HttpHost(uri.getScheme(), uri.getHost(), port);
+    }
+
+    /** 요청을 현재 AiCallScope에 등록해, 작업 타임아웃 시 진행 중인 요청을 끊을 수 있게 한다. */
+    private static final class ScopedRequestFactory extends HttpComponentsClientHttpRequestFactory {
+
+        ScopedRequestFactory(CloseableHttpClient httpClient) {
+            super(httpClient);
+        }
+
+        @Override
+        protected ClassicHttpRequest createHttpUriRequest(HttpMethod httpMethod, URI uri) {
+            ClassicHttpRequest request = super.createHttpUriRequest(httpMethod, uri);
+            AiCallScope scope = AiCallScope.current();
+            if (scope != null && request instanceof Cancellable cancellable) {
+                scope.register(cancellable);
+            }
+            return request;
+        }
+    }
+}
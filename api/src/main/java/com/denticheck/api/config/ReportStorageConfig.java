@@ -0,0 +1,64 @@
+package com.denticheck.api.config;
+
+import io.minio.MinioClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.StringUtils;
+
+/**
+ * 리포트 PDF 저장용 설정.
+ */
+@Configuration
+public class ReportStorageConfig {
+
+    @Value("${minio.endpoint:http://localhost:9000}")
+    private String minioEndpoint;
+
+    @Value("${minio.access-key:minioadmin}")
+    private String minioAccessKey;
+
+    @Value("${minio.secret-key:minioadmin}")
+    private String minioSecretKey;
+
+    @Value("${minio.region:}")
+    private String minioRegion;
+
+    @Value("${report.storage.upload-executor.max-size:8}")
+    private int uploadMaxSize;
+
+    @Value("${report.storage.upload-executor.queue-capacity:100}")
+    private int uploadQueueCapacity;
+
+    /**
+     * 리포트 저장에 쓰는 MinioClient. 내부 OkHttp 커넥션 풀을 재사용하도록 하나만 만든다.
+     * region을 지정하면 presigned URL 생성 전에 버킷 위치를 조회하는 요청도 생략된다.
+     */
+    @Bean
+    public MinioClient reportMinioClient() {
+        MinioClient.Builder builder = MinioClient.builder()
+                .endpoint(minioEndpoint)
+                .credentials(minioAccessKey, minioSecretKey);
+        if (StringUtils.hasText(minioRegion)) {
+            builder.region(minioRegion);
+        }
+        return builder.build();
+    }
+
+    /**
+     * 스풀된 리포트를 MinIO로 올리는 ReportUploader 용 풀. 크기가 곧 동시 업로드 수 상한이다.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor reportUploadExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("report-upload-");
+        executor.setCorePoolSize(uploadMaxSize);
+        executor.setMaxPoolSize(uploadMaxSize);
+        executor.setQueueCapacity(uploadQueueCapacity);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+}
@@ -1,16 +1,30 @@
 package com.denticheck.api.controller;
 
+import com.denticheck.api.domain.ai_check.dto.AiCheckJobResponse;
 import com.denticheck.api.domain.ai_check.dto.AiCheckRunResponse;
 import com.denticheck.api.domain.ai_check.dto.AnalyzeResponse;
+import com.denticheck.api.domain.ai_check.service.AiCheckJobService;
 import com.denticheck.api.domain.ai_check.service.AiCheckOrchestratorService;
+import com.denticheck.api.domain.ai_check.service.AiReportService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import reactor.core.publisher.Flux;
+
+import java.net.URI;
+import java.util.List;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api")
@@ -18,6 +32,8 @@ import org.springframework.web.multipart.MultipartFile;
 public class AiCheckController {
 
     private final AiCheckOrchestratorService aiCheckOrchestratorService;
+    private final AiCheckJobService aiCheckJobService;
+    private final AiReportService aiReportService;
 
     @PostMapping(value = "/ai-check", consumes = MediaType.MULTIPART_FORM_DATA_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
     public AiCheckRunResponse runAiCheck(@RequestPart("file") MultipartFile file) {
@@ -38,4 +54,41 @@ public class AiCheckController {
             @RequestParam(value = "generatePdf", defaultValue = "true") boolean generatePdf) {
         return aiCheckOrchestratorService.runAnalyze(file, generatePdf);
     }
+
+    /** 한 세션에서 찍은 여러 장을 한 번에 분석한다. 탐지는 imageIndex 로 사진을 구분하고 소견/리포트는 하나로 합친다 */
+    @PostMapping(value = "/ai-check/analyze/batch", consumes = MediaType.MULTIPART_FORM_DATA_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public AnalyzeResponse runAiCheckAnalyzeBatch(
+            @RequestPart("files") List<MultipartFile> files,
+            @RequestParam(value = "generatePdf", defaultValue = "true") boolean generatePdf) {
+        return aiCheckOrchestratorService.runAnalyzeBatch(files, generatePdf);
+    }
+
+    /** 분석을 백그라운드로 넘기고 세션 id만 바로 돌려준다. 진행 상황은 GET /jobs/{sessionId} 또는 GraphQL로 조회 */
+    @PostMapping(value = "/ai-check/jobs", consumes = MediaType.MULTIPART_FORM_DATA_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public AiCheckJobResponse submitAiCheckJob(
+            @RequestPart("file") MultipartFile file,
+            @RequestParam(value = "generatePdf", defaultValue = "true") boolean generatePdf) {
+        return aiCheckJobService.submit(file, generatePdf);
+    }
+
+    @GetMapping(value = "/ai-check/jobs/{sessionId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public AiCheckJobResponse getAiCheckJob(@PathVariable("sessionId") UUID sessionId) {
+        return aiCheckJobService.getJob(sessionId);
+    }
+
+    /** 작업 진행 상황을 SSE로 보낸다. LLM 스트리밍 중 완성된 소견은 partialFindings 로 먼저 전달된다 */
+    @GetMapping(value = "/ai-check/jobs/{sessionId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<AiCheckJobResponse>> streamAiCheckJob(@PathVariable("sessionId") UUID sessionId) {
+        return aiCheckJobService.watch(sessionId)
+                .map(job -> ServerSentEvent.builder(job).event(job.getStatus()).build());
+    }
+
+    /** 검진 응답의 pdfUrl. 처음 열 때 리포트를 만들어 저장하고, 저장소 주소로 리다이렉트한다 */
+    @GetMapping("/ai-check/reports/{sessionId}")
+    public ResponseEntity<Void> getAiCheckReport(@PathVariable("sessionId") UUID sessionId) {
+        return ResponseEntity.status(HttpStatus.FOUND)
+                .location(URI.create(aiReportService.resolve(sessionId)))
+                .build();
+    }
 }
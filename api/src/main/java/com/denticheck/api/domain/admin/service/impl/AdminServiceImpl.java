@@ -27,6 +27,7 @@ import com.denticheck.api.domain.admin.repository.PartnerProductRepository;
 import com.denticheck.api.domain.admin.service.AdminService;
 import com.denticheck.api.domain.dental.entity.DentalEntity;
 import com.denticheck.api.domain.dental.repository.DentalRepository;
+import com.denticheck.api.domain.dental.service.DentalSpatialIndex;
 import com.denticheck.api.domain.user.entity.UserEntity;
 import com.denticheck.api.domain.user.entity.UserStatusType;
 import com.denticheck.api.domain.user.repository.UserRepository;
@@ -59,6 +60,7 @@ public class AdminServiceImpl implements AdminService {
         private final InsuranceProductRepository insuranceProductRepository;
         private final AdminInquiryRepository inquiryRepository;
         private final KakaoMapService kakaoMapService;
+        private final DentalSpatialIndex dentalSpatialIndex;
 
         @Override
         public AdminUserDTO getMe() {
@@ -343,6 +345,7 @@ public class AdminServiceImpl implements AdminService {
                                 .isAffiliate(true)
                                 .build();
                 DentalEntity saved = dentalRepository.save(dental);
+                dentalSpatialIndex.onSaved(saved.getId(), saved.getLat(), saved.getLng());
                 return AdminDentistDTO.builder()
                                 .id(saved.getId().toString())
                                 .displayId(0)
@@ -433,6 +436,7 @@ public class AdminServiceImpl implements AdminService {
                         dental.setHomepageUrl(input.getHomepageUrl());
 
                 dentalRepository.saveAndFlush(dental);
+                dentalSpatialIndex.onSaved(dental.getId(), dental.getLat(), dental.getLng());
                 return AdminDentistDTO.builder()
                                 .id(dental.getId().toString())
                                 .displayId(0)
@@ -557,7 +561,9 @@ public class AdminServiceImpl implements AdminService {
         @Transactional
         public boolean deleteDental(String id) {
                 try {
-                        dentalRepository.deleteById(java.util.UUID.fromString(id));
+                        java.util.UUID dentalId = java.util.UUID.fromString(id);
+                        dentalRepository.deleteById(dentalId);
+                        dentalSpatialIndex.onDeleted(dentalId);
                         return true;
                 } catch (Exception e) {
                         log.error("Error deleting dental: {}", e.getMessage());
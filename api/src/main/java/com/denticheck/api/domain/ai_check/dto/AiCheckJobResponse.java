@@ -0,0 +1,23 @@
+package com.denticheck.api.domain.ai_check.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 비동기 AI 검진 작업 상태. status 는 queued → quality → detect → llm → pdf → done(error) 순서로 바뀌며,
+ * result 는 done 일 때만 채워진다. partialFindings 는 LLM 스트리밍 중 먼저 완성된 소견이다.
+ */
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AiCheckJobResponse {
+    private String sessionId;
+    private String status;
+    private AnalyzeResponse result;
+    private List<AnalyzeResponse.Finding> partialFindings;
+}
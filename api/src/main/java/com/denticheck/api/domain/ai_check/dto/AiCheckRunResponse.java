@@ -9,7 +9,7 @@ import java.util.List;
 import java.util.Map;
 
 @Getter
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class AiCheckRunResponse {
@@ -26,27 +26,6 @@ public class AiCheckRunResponse {
     private String pdfUrl;
     private RagSummary rag;
 
-    @Getter
-    @Builder
-    @NoArgsConstructor
-    @AllArgsConstructor
-    public static class DetectionItem {
-        private String label;
-        private Double confidence;
-        private BBox bbox;
-    }
-
-    @Getter
-    @Builder
-    @NoArgsConstructor
-    @AllArgsConstructor
-    public static class BBox {
-        private Double x;
-        private Double y;
-        private Double w;
-        private Double h;
-    }
-
     @Getter
     @Builder
     @NoArgsConstructor
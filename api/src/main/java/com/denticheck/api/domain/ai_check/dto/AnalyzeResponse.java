@@ -1,5 +1,7 @@
 package com.denticheck.api.domain.ai_check.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -8,7 +10,7 @@ import lombok.NoArgsConstructor;
 import java.util.List;
 
 @Getter
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class AnalyzeResponse {
@@ -18,26 +20,20 @@ public class AnalyzeResponse {
     private List<DetectionItem> detections;
     private RagSummary rag;
     private LlmResult llmResult;
+    /** 여러 장을 한 세션으로 검사한 경우에만 채워진다. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<ImageResult> images;
 
     @Getter
     @Builder
     @NoArgsConstructor
     @AllArgsConstructor
-    public static class DetectionItem {
-        private String label;
-        private Double confidence;
-        private BBox bbox;
-    }
-
-    @Getter
-    @Builder
-    @NoArgsConstructor
-    @AllArgsConstructor
-    public static class BBox {
-        private Double x;
-        private Double y;
-        private Double w;
-        private Double h;
+    public static class ImageResult {
+        private Integer index;
+        private String filename;
+        private Boolean qualityPass;
+        private Double qualityScore;
+        private Integer detectionCount;
     }
 
     @Getter
@@ -70,6 +66,9 @@ public class AnalyzeResponse {
         private List<Finding> findings;
         private List<String> careGuide;
         private List<String> disclaimer;
+        /** Ollama 결과 대신 규칙 기반 결과를 쓴 경우(헤지 SLO 초과, 서킷/동시성 제한, 호출 실패). 응답에는 싣지 않는다. */
+        @JsonIgnore
+        private boolean fallback;
     }
 
     @Getter
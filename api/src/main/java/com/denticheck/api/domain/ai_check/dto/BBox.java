@@ -0,0 +1,20 @@
+package com.denticheck.api.domain.ai_check.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 이미지 크기에 대한 상대 좌표(0~1). x, y 는 박스 중심이다.
+ */
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BBox {
+    private Double x;
+    private Double y;
+    private Double w;
+    private Double h;
+}
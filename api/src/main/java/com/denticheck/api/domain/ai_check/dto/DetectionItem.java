@@ -0,0 +1,23 @@
+package com.denticheck.api.domain.ai_check.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 탐지 결과 하나. /api/ai-check 와 /api/ai-check/analyze 응답, 리포트 재료(pdf_source)가 함께 쓴다.
+ */
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DetectionItem {
+    private String label;
+    private Double confidence;
+    private BBox bbox;
+    /** 배치 검진에서 이 탐지가 나온 사진의 순번(0부터). 한 장 검진이면 null 이며 응답에서 빠진다 */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer imageIndex;
+}
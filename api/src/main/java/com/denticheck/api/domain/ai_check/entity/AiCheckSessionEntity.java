@@ -19,17 +19,17 @@ import java.util.UUID;
 @Table(name = "ai_check_sessions")
 public class AiCheckSessionEntity extends BaseTimeEntity {
 
+    // 응답의 sessionId 와 같은 값을 쓰도록 애플리케이션에서 발급한다
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
     @Column(name = "id", nullable = false)
     private UUID id;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "user_id", nullable = false)
-    private UserEntity user;
+    @JoinColumn(name = "user_id")
+    private UserEntity user; // 비로그인 검진이면 null
 
     @Column(name = "status", nullable = false)
-    private String status; // uploaded/quality_failed/analyzing/done/error
+    private String status; // queued/quality/detect/llm/pdf/done/error (AiCheckStage)
 
     @JdbcTypeCode(SqlTypes.JSON)
     @Column(name = "client_meta_json", columnDefinition = "jsonb")
@@ -43,4 +43,13 @@ public class AiCheckSessionEntity extends BaseTimeEntity {
 
     @OneToOne(mappedBy = "session", cascade = CascadeType.ALL, orphanRemoval = true)
     private AiDecisionRecordEntity decisionRecord;
+
+    public void updateStatus(String status) {
+        this.status = status;
+    }
+
+    public void complete(String status) {
+        this.status = status;
+        this.completedAt = LocalDateTime.now();
+    }
 }
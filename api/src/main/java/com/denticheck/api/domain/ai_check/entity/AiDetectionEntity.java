@@ -14,8 +14,10 @@ import java.math.BigDecimal;
 @Table(name = "ai_detections")
 public class AiDetectionEntity extends BaseTimeEntity {
 
+    // IDENTITY는 INSERT마다 키를 받아와야 해서 JDBC batch가 꺼지므로, 시퀀스(V30)를 50 단위로 할당받는다
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ai_detections_id_seq")
+    @SequenceGenerator(name = "ai_detections_id_seq", sequenceName = "ai_detections_id_seq", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Long id;
 
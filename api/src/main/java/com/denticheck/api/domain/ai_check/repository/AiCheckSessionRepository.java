@@ -0,0 +1,9 @@
+package com.denticheck.api.domain.ai_check.repository;
+
+import com.denticheck.api.domain.ai_check.entity.AiCheckSessionEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.UUID;
+
+public interface AiCheckSessionRepository extends JpaRepository<AiCheckSessionEntity, UUID> {
+}
@@ -0,0 +1,23 @@
+package com.denticheck.api.domain.ai_check.repository;
+
+import com.denticheck.api.domain.ai_check.entity.AiDecisionRecordEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface AiDecisionRecordRepository extends JpaRepository<AiDecisionRecordEntity, UUID> {
+
+    Optional<AiDecisionRecordEntity> findBySessionId(UUID sessionId);
+
+    @Query("SELECT d FROM AiDecisionRecordEntity d JOIN AiImageEntity i ON i.session = d.session "
+            + "WHERE i.imageHash = :imageHash AND d.capturedAt >= :since ORDER BY d.capturedAt DESC")
+    List<AiDecisionRecordEntity> findRecentByImageHash(@Param("imageHash") String imageHash,
+            @Param("since") LocalDateTime since,
+            Pageable pageable);
+}
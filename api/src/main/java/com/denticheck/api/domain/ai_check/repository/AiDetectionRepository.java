@@ -0,0 +1,7 @@
+package com.denticheck.api.domain.ai_check.repository;
+
+import com.denticheck.api.domain.ai_check.entity.AiDetectionEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface AiDetectionRepository extends JpaRepository<AiDetectionEntity, Long> {
+}
@@ -0,0 +1,11 @@
+package com.denticheck.api.domain.ai_check.repository;
+
+import com.denticheck.api.domain.ai_check.entity.AiImageEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public interface AiImageRepository extends JpaRepository<AiImageEntity, UUID> {
+    Optional<AiImageEntity> findFirstBySessionId(UUID sessionId);
+}
@@ -1,31 +1,62 @@
 package com.denticheck.api.domain.ai_check.service;
 
 import com.denticheck.api.domain.ai_check.dto.AnalyzeResponse;
+import com.denticheck.api.domain.ai_check.dto.DetectionItem;
+import com.denticheck.api.infrastructure.external.ai.AdaptiveConcurrencyLimiter;
+import com.denticheck.api.infrastructure.external.ai.AiCallScope;
+import com.denticheck.api.infrastructure.external.ai.AiCircuitBreakers;
+import com.denticheck.api.infrastructure.external.ai.CircuitBreaker;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class AiAnalyzeLlmService {
 
+    /** 프롬프트나 출력 스키마를 바꾸면 올린다. 소견 메모 키에 들어가 이전 버전 결과를 재사용하지 않게 한다. */
+    private static final String PROMPT_VERSION = "analyze-v1";
+
     private static final String SYSTEM_PROMPT = """
             You are a dental screening assistant.
             Use only the provided detections and RAG evidence.
@@ -58,6 +89,18 @@ public class AiAnalyzeLlmService {
             """;
 
     private final ObjectMapper objectMapper;
+    @Qualifier("ollamaRestTemplate")
+    private final RestTemplate ollamaRestTemplate;
+    private final MeterRegistry meterRegistry;
+    private final AiLlmResultMemo aiLlmResultMemo;
+    @Qualifier("ollamaConcurrencyLimiter")
+    private final AdaptiveConcurrencyLimiter ollamaConcurrencyLimiter;
+    private final AiCircuitBreakers aiCircuitBreakers;
+    @Qualifier("ollamaCallExecutor")
+    private final ThreadPoolTaskExecutor ollamaCallExecutor;
+
+    /** 지문별 진행 중인 Ollama 호출. 완료 값이 null 이면 호출이 실패해 각자 fallback 을 쓴다. */
+    private final ConcurrentMap<String, SharedCall> inFlightCalls = new ConcurrentHashMap<>();
 
     @Value("${ollama.enabled:false}")
     private boolean ollamaEnabled;
@@ -68,62 +111,253 @@ public class AiAnalyzeLlmService {
     @Value("${ollama.model:llama3:8b}")
     private String ollamaModel;
 
-    @Value("${ollama.generate.timeout-ms:18000}")
-    private int ollamaGenerateTimeoutMs;
+    @Value("${ai.llm-memo.confidence-step:0.1}")
+    private double confidenceStep;
+
+    @Value("${ollama.generate.stream:false}")
+    private boolean streamEnabled;
+
+    /** 스트리밍 모드의 전체 생성 시간 상한. read timeout 은 청크 사이 간격에만 걸리므로 따로 둔다. */
+    @Value("${ollama.generate.budget-ms:${ollama.generate.timeout-ms:18000}}")
+    private long streamBudgetMs;
+
+    /** 이 시간 안에 LLM 결과가 없으면 규칙 기반 결과로 먼저 응답한다. 0 이면 budget-ms 까지 기다린다. */
+    @Value("${ollama.hedge.slo:0s}")
+    private Duration hedgeSlo;
 
     public AnalyzeResponse.LlmResult generate(
-            List<AnalyzeResponse.DetectionItem> detections,
+            List<DetectionItem> detections,
             Map<String, Object> summary,
             List<AnalyzeResponse.RagSource> ragSources
     ) {
-        List<AnalyzeResponse.DetectionItem> safeDetections = detections == null ? List.of() : detections;
+        return generate(detections, summary, ragSources, finding -> {
+        });
+    }
+
+    /**
+     * 스트리밍 모드에서는 findings 배열의 원소가 하나 완성될 때마다 partialFindings 로 먼저 넘긴다.
+     * 넘겨진 값은 스키마 보정 전의 원본이며, 최종 결과는 반환값을 쓴다.
+     */
+    public AnalyzeResponse.LlmResult generate(
+            List<DetectionItem> detections,
+            Map<String, Object> summary,
+            List<AnalyzeResponse.RagSource> ragSources,
+            Consumer<AnalyzeResponse.Finding> partialFindings
+    ) {
+        List<DetectionItem> safeDetections = detections == null ? List.of() : detections;
         List<AnalyzeResponse.RagSource> safeRagSources = ragSources == null ? List.of() : ragSources;
         Map<String, Object> safeSummary = summary == null ? Map.of() : summary;
 
-        AnalyzeResponse.LlmResult fallback = buildRuleBasedFallback(safeDetections, safeRagSources);
         if (!ollamaEnabled) {
             log.info("Ollama disabled. Using analyze fallback result");
+            return buildRuleBasedFallback(safeDetections, safeRagSources, false);
+        }
+        // 여기서부터 돌려주는 규칙 기반 결과는 Ollama 를 쓰려다 못 쓴 것이므로 fallback 으로 표시한다
+        AnalyzeResponse.LlmResult fallback = buildRuleBasedFallback(safeDetections, safeRagSources, true);
+
+        String fingerprint = fingerprint(safeDetections, safeSummary, safeRagSources);
+        Optional<AnalyzeResponse.LlmResult> memo = aiLlmResultMemo.get(fingerprint);
+        if (memo.isPresent()) {
+            memo.get().getFindings().forEach(partialFindings);
+            return memo.get();
+        }
+
+        // 같은 지문의 호출이 이미 진행 중이면 새로 보내지 않고 그 결과를 함께 쓴다
+        SharedCall call = new SharedCall();
+        SharedCall inFlight = inFlightCalls.putIfAbsent(fingerprint, call);
+        if (inFlight != null) {
+            meterRegistry.counter("ollama.generate.coalesced").increment();
+            return await(inFlight, fallback, null, partialFindings);
+        }
+
+        // 요청이 hedge 나 취소로 먼저 돌아간 뒤 완성된 소견이 끝난 작업에 덧붙지 않도록 전달을 끊는다
+        AtomicBoolean hedged = new AtomicBoolean(false);
+        Consumer<AnalyzeResponse.Finding> forward = finding -> {
+            synchronized (hedged) {
+                if (!hedged.get()) {
+                    partialFindings.accept(finding);
+                }
+            }
+        };
+        // 합류한 요청도 같은 호출을 기다리므로, 먼저 온 요청의 scope 가 아니라 호출 전용 scope 에서 돌린다
+        try {
+            ollamaCallExecutor.execute(() -> call.scope.call(() -> {
+                runCall(fingerprint, call, safeDetections, safeSummary, safeRagSources, fallback, forward);
+                return null;
+            }));
+        } catch (RejectedExecutionException e) {
+            inFlightCalls.remove(fingerprint, call);
+            call.result.complete(null);
             return fallback;
         }
+        return await(call, fallback, hedged, null);
+    }
 
-        long startedAt = System.currentTimeMillis();
+    /**
+     * 공유 호출 결과를 hedge SLO 까지만 기다린다. 넘기면 규칙 기반 결과를 돌려주고,
+     * 호출은 뒤에서 계속 진행되어 끝나면 메모에 남는다.
+     * 기다리는 동안 이 요청의 scope 가 취소되면 대기에서 빠지고, 마지막으로 기다리던 요청이 취소되어 빠질 때만 호출을 끊는다.
+     * replayFindings 가 있으면(합류한 요청) 결과의 소견을 한꺼번에 넘긴다.
+     */
+    private AnalyzeResponse.LlmResult await(
+            SharedCall call,
+            AnalyzeResponse.LlmResult fallback,
+            AtomicBoolean hedged,
+            Consumer<AnalyzeResponse.Finding> replayFindings
+    ) {
+        long waitMs = hedgeSlo.isZero() || hedgeSlo.isNegative() ? streamBudgetMs : hedgeSlo.toMillis();
+        AtomicBoolean waiting = new AtomicBoolean(true);
+        call.join();
+        AiCallScope caller = AiCallScope.current();
+        if (caller != null) {
+            caller.register(() -> {
+                if (waiting.compareAndSet(true, false)) {
+                    call.leave(true);
+                }
+                return true;
+            });
+        }
         try {
-            AnalyzeResponse.LlmResult llm = callOllama(safeDetections, safeSummary, safeRagSources);
+            AnalyzeResponse.LlmResult shared = call.result.get(waitMs, TimeUnit.MILLISECONDS);
+            if (shared == null) {
+                return fallback;
+            }
+            if (replayFindings != null) {
+                shared.getFindings().forEach(replayFindings);
+            }
+            return shared;
+        } catch (TimeoutException e) {
+            meterRegistry.counter("ollama.generate.hedged").increment();
+            log.info("Ollama missed hedge SLO of {}ms. Using analyze fallback result", waitMs);
+            return fallback;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return fallback;
+        } catch (ExecutionException e) {
+            return fallback;
+        } finally {
+            if (hedged != null) {
+                // 결과를 받았든 hedge 나 취소로 먼저 돌아왔든, 이후 완성된 소견은 이 요청에 넘기지 않는다
+                synchronized (hedged) {
+                    hedged.set(true);
+                }
+            }
+            if (waiting.compareAndSet(true, false)) {
+                call.leave(false);
+            }
+        }
+    }
+
+    /**
+     * 같은 지문의 요청들이 함께 기다리는 Ollama 호출. 어느 한 요청의 scope 에도 묶이지 않도록 자기 scope 를 따로 갖는다.
+     * 기다리는 요청이 모두 취소되어 빠지면 그때 scope 를 취소해 Ollama 요청을 끊는다.
+     */
+    private static final class SharedCall {
+
+        private final CompletableFuture<AnalyzeResponse.LlmResult> result = new CompletableFuture<>();
+        private final AiCallScope scope = new AiCallScope();
+        private int waiters;
+
+        synchronized void join() {
+            waiters++;
+        }
+
+        /** cancelled 가 false 면 결과를 받았거나 hedge 로 먼저 응답한 것이라 호출은 메모를 위해 계속 둔다. */
+        synchronized void leave(boolean cancelled) {
+            waiters--;
+            if (cancelled && waiters == 0 && !result.isDone()) {
+                scope.cancel();
+            }
+        }
+    }
+
+    private void runCall(
+            String fingerprint,
+            SharedCall call,
+            List<DetectionItem> detections,
+            Map<String, Object> summary,
+            List<AnalyzeResponse.RagSource> ragSources,
+            AnalyzeResponse.LlmResult fallback,
+            Consumer<AnalyzeResponse.Finding> partialFindings
+    ) {
+        AnalyzeResponse.LlmResult result = null;
+        try {
+            result = callOllamaGuarded(detections, summary, ragSources, fallback, partialFindings);
+            if (result != null) {
+                // fallback 은 메모하지 않는다. Ollama 가 일시적으로 실패한 결과가 굳어지지 않도록
+                aiLlmResultMemo.put(fingerprint, result);
+            }
+        } finally {
+            inFlightCalls.remove(fingerprint, call);
+            call.result.complete(result);
+        }
+    }
+
+    /**
+     * 서킷이 닫혀 있고 리미터 자리를 얻은 경우에만 Ollama 를 호출한다. 거절되거나 실패하면 null 을 돌려주며,
+     * 호출 측은 기다리지 않고 규칙 기반 결과를 쓴다.
+     */
+    private AnalyzeResponse.LlmResult callOllamaGuarded(
+            List<DetectionItem> detections,
+            Map<String, Object> summary,
+            List<AnalyzeResponse.RagSource> ragSources,
+            AnalyzeResponse.LlmResult fallback,
+            Consumer<AnalyzeResponse.Finding> partialFindings
+    ) {
+        CircuitBreaker circuit = aiCircuitBreakers.get(AiCircuitBreakers.OLLAMA);
+        if (!circuit.tryAcquire()) {
+            log.info("Ollama circuit is open. Using analyze fallback result");
+            return null;
+        }
+        if (!ollamaConcurrencyLimiter.tryAcquire()) {
+            circuit.onIgnored();
+            log.info("Ollama concurrency limit {} reached. Using analyze fallback result",
+                    ollamaConcurrencyLimiter.getLimit());
+            return null;
+        }
+
+        long startedAt = System.nanoTime();
+        boolean success = false;
+        try {
+            AnalyzeResponse.LlmResult llm = streamEnabled
+                    ? streamOllama(detections, summary, ragSources, partialFindings)
+                    : callOllama(detections, summary, ragSources);
+            circuit.onSuccess();
             if (llm == null) {
                 log.warn("Ollama response empty. Using fallback");
-                return fallback;
+                return null;
             }
             AnalyzeResponse.LlmResult validated = enforceSchema(llm, fallback);
-            log.info("Ollama analyze response parsed successfully in {}ms", System.currentTimeMillis() - startedAt);
+            success = true;
+            log.info("Ollama analyze response parsed successfully in {}ms",
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
             return validated;
         } catch (Exception e) {
-            log.warn("Ollama analyze failed in {}ms. Using fallback", System.currentTimeMillis() - startedAt, e);
-            return fallback;
+            if (AiCallScope.isCurrentCancelled()) {
+                circuit.onIgnored();
+            } else {
+                circuit.onFailure();
+            }
+            log.warn("Ollama analyze failed in {}ms. Using fallback",
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt), e);
+            return null;
+        } finally {
+            ollamaConcurrencyLimiter.release(System.nanoTime() - startedAt, success);
         }
     }
 
     private AnalyzeResponse.LlmResult callOllama(
-            List<AnalyzeResponse.DetectionItem> detections,
+            List<DetectionItem> detections,
             Map<String, Object> summary,
             List<AnalyzeResponse.RagSource> ragSources
     ) throws Exception {
-        String detectionsJson = objectMapper.writeValueAsString(detections);
-        String summaryJson = objectMapper.writeValueAsString(summary);
-        String ragJson = objectMapper.writeValueAsString(ragSources);
-        String prompt = USER_PROMPT_TEMPLATE.formatted(detectionsJson, summaryJson, ragJson);
-
-        Map<String, Object> body = new LinkedHashMap<>();
-        body.put("model", ollamaModel);
-        body.put("stream", false);
-        body.put("format", "json");
-        body.put("system", SYSTEM_PROMPT);
-        body.put("prompt", prompt);
+        Map<String, Object> body = requestBody(detections, summary, ragSources, false);
 
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
 
         String url = ollamaBaseUrl + "/api/generate";
-        ResponseEntity<Map> response = ollamaRestTemplate().postForEntity(url, new HttpEntity<>(body, headers), Map.class);
+        ResponseEntity<Map> response = ollamaRestTemplate.postForEntity(url, new HttpEntity<>(body, headers), Map.class);
 
         Map<String, Object> responseBody = response.getBody();
         if (responseBody == null) return null;
@@ -135,6 +369,168 @@ public class AiAnalyzeLlmService {
         return objectMapper.convertValue(parsed, AnalyzeResponse.LlmResult.class);
     }
 
+    /**
+     * stream=true 로 호출해 NDJSON 청크를 한 줄씩 읽는다. JSON 객체가 닫히면 done 을 기다리지 않고 요청을 중단(abort)하며,
+     * budget-ms 를 넘기면 실패로 처리한다. 첫 토큰까지의 시간과 초당 토큰 수를 기록한다.
+     * <p>
+     * 그냥 반환하면 RestTemplate 이 응답을 닫으면서 남은 스트림을 끝까지 읽어(drain) 버려, Ollama 가 생성을 마칠 때까지 묶인다.
+     * 그래서 이 호출만의 AiCallScope 를 열어 두고, 조기 종료 시 반환 전에 scope 를 취소해 커넥션을 바로 끊는다.
+     * 끊긴 커넥션은 풀로 돌아가지 않고 닫히며, Ollama 는 클라이언트가 끊기면 생성을 멈춘다.
+     */
+    private AnalyzeResponse.LlmResult streamOllama(
+            List<DetectionItem> detections,
+            Map<String, Object> summary,
+            List<AnalyzeResponse.RagSource> ragSources,
+            Consumer<AnalyzeResponse.Finding> partialFindings
+    ) throws Exception {
+        Map<String, Object> body = requestBody(detections, summary, ragSources, true);
+        long startedAt = System.nanoTime();
+
+        String url = ollamaBaseUrl + "/api/generate";
+        AiCallScope streamScope = AiCallScope.fork();
+        String json = streamScope.call(() -> ollamaRestTemplate.execute(url, HttpMethod.POST,
+                request -> {
+                    request.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+                    objectMapper.writeValue(request.getBody(), body);
+                },
+                response -> readStream(response.getBody(), startedAt, partialFindings, streamScope::cancel)));
+
+        if (json == null || json.isBlank()) return null;
+
+        Map<String, Object> parsed = objectMapper.readValue(json, new TypeReference<>() {});
+        return objectMapper.convertValue(parsed, AnalyzeResponse.LlmResult.class);
+    }
+
+    /** abort 는 조기 종료나 budget 초과 시 빠져나가기 전에 불러, 남은 스트림을 읽지 않고 요청을 끊는다. */
+    private String readStream(InputStream in, long startedAt, Consumer<AnalyzeResponse.Finding> partialFindings,
+            Runnable abort) throws IOException {
+        long deadline = startedAt + TimeUnit.MILLISECONDS.toNanos(streamBudgetMs);
+        LlmJsonStream stream = new LlmJsonStream();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        long firstTokenAt = 0;
+        long chunks = 0;
+        boolean measured = false;
+        boolean stoppedEarly = false;
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) continue;
+            JsonNode chunk = objectMapper.readTree(line);
+            if (chunk.hasNonNull("error")) {
+                throw new IOException("Ollama stream error: " + chunk.get("error").asText());
+            }
+
+            String delta = chunk.path("response").asText("");
+            if (!delta.isEmpty()) {
+                if (firstTokenAt == 0) {
+                    firstTokenAt = System.nanoTime();
+                    Timer.builder("ollama.generate.ttft")
+                            .description("Time to first token from Ollama")
+                            .publishPercentiles(0.5, 0.99)
+                            .register(meterRegistry)
+                            .record(firstTokenAt - startedAt, TimeUnit.NANOSECONDS);
+                }
+                chunks++;
+                for (String finding : stream.append(delta)) {
+                    emitFinding(finding, partialFindings);
+                }
+            }
+
+            if (chunk.path("done").asBoolean(false)) {
+                // 마지막 청크의 eval_count / eval_duration(ns) 가 Ollama가 잰 실제 생성 속도다
+                long evalCount = chunk.path("eval_count").asLong(0);
+                long evalNanos = chunk.path("eval_duration").asLong(0);
+                if (evalCount > 0 && evalNanos > 0) {
+                    recordTokensPerSecond(evalCount, evalNanos);
+                    measured = true;
+                }
+                break;
+            }
+            if (stream.isComplete()) {
+                meterRegistry.counter("ollama.generate.early_stop").increment();
+                stoppedEarly = true;
+                break;
+            }
+            if (System.nanoTime() > deadline) {
+                meterRegistry.counter("ollama.generate.budget_exceeded").increment();
+                abort.run();
+                throw new IOException("Ollama stream exceeded budget of " + streamBudgetMs + "ms");
+            }
+        }
+
+        // 조기 종료로 done 청크를 받지 못했으면 청크 하나를 토큰 하나로 보고 직접 계산한다
+        if (!measured && chunks > 1) {
+            recordTokensPerSecond(chunks - 1, System.nanoTime() - firstTokenAt);
+        }
+        if (stoppedEarly) {
+            abort.run();
+        }
+        return stream.json();
+    }
+
+    private void emitFinding(String json, Consumer<AnalyzeResponse.Finding> partialFindings) {
+        try {
+            partialFindings.accept(objectMapper.readValue(json, AnalyzeResponse.Finding.class));
+        } catch (Exception e) {
+            log.debug("Skipping unparsable partial finding: {}", json, e);
+        }
+    }
+
+    private void recordTokensPerSecond(long tokens, long nanos) {
+        if (nanos <= 0) return;
+        DistributionSummary.builder("ollama.generate.tokens_per_second")
+                .description("Ollama generation throughput")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry)
+                .record(tokens * 1_000_000_000d / nanos);
+    }
+
+    private Map<String, Object> requestBody(
+            List<DetectionItem> detections,
+            Map<String, Object> summary,
+            List<AnalyzeResponse.RagSource> ragSources,
+            boolean stream
+    ) throws IOException {
+        String detectionsJson = objectMapper.writeValueAsString(detections);
+        String summaryJson = objectMapper.writeValueAsString(summary);
+        String ragJson = objectMapper.writeValueAsString(ragSources);
+        String prompt = USER_PROMPT_TEMPLATE.formatted(detectionsJson, summaryJson, ragJson);
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("model", ollamaModel);
+        body.put("stream", stream);
+        body.put("format", "json");
+        body.put("system", SYSTEM_PROMPT);
+        body.put("prompt", prompt);
+        return body;
+    }
+
+    /**
+     * 탐지 결과의 정규형. 라벨은 normalizeLabel 로 묶고 confidence 는 confidence-step 구간의 하한으로 내린 뒤 정렬한다.
+     * detect summary 는 탐지 결과에서 파생되므로 품질 실패 표시(qualityPass)만 키에 넣는다.
+     */
+    private String fingerprint(
+            List<DetectionItem> detections,
+            Map<String, Object> summary,
+            List<AnalyzeResponse.RagSource> ragSources
+    ) {
+        String detectionKey = detections.stream()
+                .map(d -> normalizeLabel(d.getLabel()) + "@" + confidenceBucket(d.getConfidence()))
+                .sorted()
+                .collect(Collectors.joining(","));
+        String ragKey = ragSources.stream()
+                .map(r -> Objects.toString(r.getSource(), ""))
+                .collect(Collectors.joining(","));
+        return PROMPT_VERSION + "|" + ollamaModel + "|" + summary.get("qualityPass") + "|" + detectionKey + "|" + ragKey;
+    }
+
+    private String confidenceBucket(Double confidence) {
+        double value = confidence == null ? 0.0 : confidence;
+        // 0.3 / 0.1 = 2.999... 처럼 경계값이 아래 구간으로 떨어지지 않도록 약간 올려서 내림한다
+        double bucket = Math.floor(value / confidenceStep + 1e-9) * confidenceStep;
+        return String.format(Locale.ROOT, "%.2f", bucket);
+    }
+
     private AnalyzeResponse.LlmResult enforceSchema(AnalyzeResponse.LlmResult llm, AnalyzeResponse.LlmResult fallback) {
         if (llm == null) return fallback;
 
@@ -169,8 +565,9 @@ public class AiAnalyzeLlmService {
     }
 
     private AnalyzeResponse.LlmResult buildRuleBasedFallback(
-            List<AnalyzeResponse.DetectionItem> detections,
-            List<AnalyzeResponse.RagSource> ragSources
+            List<DetectionItem> detections,
+            List<AnalyzeResponse.RagSource> ragSources,
+            boolean fellBack
     ) {
         String riskLevel = computeRiskLevel(detections);
         String summary = switch (riskLevel) {
@@ -195,11 +592,12 @@ public class AiAnalyzeLlmService {
                         "This result is AI-assisted screening information and does not replace medical diagnosis.",
                         "If pain, bleeding, ulceration, or swelling persists, seek professional care."
                 ))
+                .fallback(fellBack)
                 .build();
     }
 
     private List<AnalyzeResponse.Finding> buildFindings(
-            List<AnalyzeResponse.DetectionItem> detections,
+            List<DetectionItem> detections,
             List<AnalyzeResponse.RagSource> ragSources
     ) {
         if (detections == null || detections.isEmpty()) {
@@ -210,8 +608,8 @@ public class AiAnalyzeLlmService {
                     .build());
         }
 
-        Map<String, List<AnalyzeResponse.DetectionItem>> grouped = new LinkedHashMap<>();
-        for (AnalyzeResponse.DetectionItem d : detections) {
+        Map<String, List<DetectionItem>> grouped = new LinkedHashMap<>();
+        for (DetectionItem d : detections) {
             String label = normalizeLabel(d.getLabel());
             grouped.computeIfAbsent(label, k -> new ArrayList<>()).add(d);
         }
@@ -219,11 +617,11 @@ public class AiAnalyzeLlmService {
         List<String> ordered = List.of("oral_cancer", "caries", "tartar", "normal");
         List<AnalyzeResponse.Finding> findings = new ArrayList<>();
         for (String label : ordered) {
-            List<AnalyzeResponse.DetectionItem> items = grouped.getOrDefault(label, List.of());
+            List<DetectionItem> items = grouped.getOrDefault(label, List.of());
             if (items.isEmpty()) continue;
 
             double maxConfidence = items.stream()
-                    .map(AnalyzeResponse.DetectionItem::getConfidence)
+                    .map(DetectionItem::getConfidence)
                     .filter(Objects::nonNull)
                     .mapToDouble(Double::doubleValue)
                     .max()
@@ -270,9 +668,9 @@ public class AiAnalyzeLlmService {
         return evidence;
     }
 
-    private String computeRiskLevel(List<AnalyzeResponse.DetectionItem> detections) {
+    private String computeRiskLevel(List<DetectionItem> detections) {
         boolean hasCariesOrTartar = false;
-        for (AnalyzeResponse.DetectionItem d : detections) {
+        for (DetectionItem d : detections) {
             String label = normalizeLabel(d.getLabel());
             double confidence = d.getConfidence() == null ? 0.0 : d.getConfidence();
             if ("oral_cancer".equals(label) && confidence >= 0.5) return "RED";
@@ -303,11 +701,4 @@ public class AiAnalyzeLlmService {
     private boolean hasText(String text) {
         return text != null && !text.isBlank();
     }
-
-    private RestTemplate ollamaRestTemplate() {
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-        factory.setConnectTimeout(ollamaGenerateTimeoutMs);
-        factory.setReadTimeout(ollamaGenerateTimeoutMs);
-        return new RestTemplate(factory);
-    }
 }
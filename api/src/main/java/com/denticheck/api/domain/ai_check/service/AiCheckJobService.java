@@ -0,0 +1,247 @@
+package com.denticheck.api.domain.ai_check.service;
+
+import com.denticheck.api.common.exception.ai_check.AiCheckErrorCode;
+import com.denticheck.api.common.exception.ai_check.AiCheckException;
+import com.denticheck.api.domain.ai_check.dto.AiCheckJobResponse;
+import com.denticheck.api.domain.ai_check.dto.AnalyzeResponse;
+import com.denticheck.api.infrastructure.external.ai.AiCallScope;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 이미지를 받자마자 세션 id를 돌려주고, 분석은 aiAnalyzeExecutor 에서 진행하는 비동기 검진 작업.
+ * 진행 단계는 ai_check_sessions.status 에 기록되며, 클라이언트는 REST 폴링, SSE, GraphQL subscription 중 하나로 따라간다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AiCheckJobService {
+
+    @Value("${ai.analyze.timeout:3m}")
+    private Duration analyzeTimeout;
+
+    private final AiCheckOrchestratorService aiCheckOrchestratorService;
+    private final AiCheckPersistenceService aiCheckPersistenceService;
+    private final AiUploadSpool aiUploadSpool;
+    private final AiResultCache aiResultCache;
+    private final AiReportService aiReportService;
+    private final AiCheckTimings aiCheckTimings;
+    @Qualifier("aiAnalyzeExecutor")
+    private final ExecutorService aiAnalyzeExecutor;
+    private final TaskScheduler taskScheduler;
+    private final MeterRegistry meterRegistry;
+
+    /** 진행 중인 작업의 최신 상태. 끝난 작업은 DB에서 조회한다. */
+    private final Map<UUID, AiCheckJobResponse> running = new ConcurrentHashMap<>();
+    private final Sinks.Many<AiCheckJobResponse> events = Sinks.many().multicast().directBestEffort();
+
+    public AiCheckJobResponse submit(MultipartFile file, boolean generatePdf) {
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("파일이 비어있습니다.");
+        }
+        if (!aiCheckOrchestratorService.isAllowedImage(file.getOriginalFilename())) {
+            throw new IllegalArgumentException("지원하지 않는 파일 형식입니다.");
+        }
+
+        AiCheckTimings.Trace trace = aiCheckTimings.start("job");
+        trace.stage(AiCheckTimings.UPLOAD_READ);
+        SpooledUpload upload;
+        try {
+            upload = aiUploadSpool.spool(file);
+        } catch (IOException e) {
+            trace.finish(AiCheckTimings.ERROR);
+            log.error("Failed to spool upload for AI check job", e);
+            throw new AiCheckException(AiCheckErrorCode.AI_ANALYSIS_FAILED);
+        }
+
+        AiResultCache.Kind kind = AiResultCache.Kind.analyze(generatePdf);
+        UUID sessionId;
+        try {
+            sessionId = aiCheckPersistenceService.createSession(aiCheckPersistenceService.currentUsername(),
+                    upload.getSha256(), generatePdf);
+        } catch (RuntimeException e) {
+            upload.close();
+            trace.finish(AiCheckTimings.ERROR);
+            throw e;
+        }
+        trace.pause();
+
+        Optional<AiResultCache.Hit<AnalyzeResponse>> cached = aiResultCache.get(upload.getSha256(), kind,
+                AnalyzeResponse.class);
+        if (cached.isPresent()) {
+            upload.close();
+            trace.finish(AiCheckTimings.CACHED);
+            // 캐시된 결과는 다른 세션의 것이므로 이 작업의 세션 id와 리포트로 다시 찍어 기록한다
+            AnalyzeResponse response = aiCheckOrchestratorService.reuse(sessionId.toString(), cached.get());
+            complete(sessionId, AiCheckRecord.ofAnalyze(upload.getSha256(), kind, null, cached.get().qualityPass(),
+                    response).toBuilder()
+                    .pdfSource(cached.get().pdfSource())
+                    .build());
+            return snapshot(sessionId, AiCheckStage.DONE, response);
+        }
+
+        publish(snapshot(sessionId, AiCheckStage.QUEUED, null));
+
+        AiCallScope scope = new AiCallScope();
+        AtomicBoolean started = new AtomicBoolean(false);
+        Future<?> future;
+        try {
+            future = aiAnalyzeExecutor.submit(() -> {
+                started.set(true);
+                scope.call(() -> {
+                    execute(sessionId, upload, generatePdf, trace);
+                    return null;
+                });
+            });
+        } catch (RejectedExecutionException e) {
+            upload.close();
+            trace.finish(AiCheckTimings.ERROR);
+            meterRegistry.counter("ai.analyze.rejected").increment();
+            fail(sessionId);
+            throw new AiCheckException(AiCheckErrorCode.AI_ANALYZE_BUSY);
+        }
+
+        // 동기 API와 같은 시간 제한. 기한이 지나면 진행 중인 AI 서버/Ollama 호출까지 끊는다
+        taskScheduler.schedule(() -> {
+            if (future.isDone()) {
+                return;
+            }
+            scope.cancel();
+            future.cancel(true);
+            if (!started.get()) {
+                upload.close();
+                trace.finish(AiCheckTimings.ERROR);
+                fail(sessionId);
+            }
+        }, Instant.now().plus(analyzeTimeout));
+
+        return snapshot(sessionId, AiCheckStage.QUEUED, null);
+    }
+
+    /** 다른 사용자의 작업은 없는 작업과 똑같이 AI_JOB_NOT_FOUND 로 응답한다. */
+    public AiCheckJobResponse getJob(UUID sessionId) {
+        ensureAccessible(sessionId);
+        return findJob(sessionId);
+    }
+
+    private AiCheckJobResponse findJob(UUID sessionId) {
+        AiCheckJobResponse current = running.get(sessionId);
+        if (current != null) {
+            return current;
+        }
+        return aiCheckPersistenceService.findJob(sessionId)
+                .orElseThrow(() -> new AiCheckException(AiCheckErrorCode.AI_JOB_NOT_FOUND));
+    }
+
+    /**
+     * 현재 상태를 먼저 보내고 이후 단계 변화와 먼저 완성된 소견(partialFindings)을 이어서 보낸다.
+     * done/error 에 도달하면 완료된다. GraphQL subscription 과 SSE 가 함께 쓴다.
+     */
+    public Flux<AiCheckJobResponse> watch(UUID sessionId) {
+        // 구독 스레드에는 로그인 정보가 없을 수 있으므로 권한은 요청 스레드에서 먼저 확인한다
+        ensureAccessible(sessionId);
+        Flux<AiCheckJobResponse> live = events.asFlux()
+                .filter(job -> sessionId.toString().equals(job.getSessionId()));
+        return Flux.merge(live, Mono.fromCallable(() -> findJob(sessionId)))
+                .takeUntil(job -> AiCheckStage.fromStatus(job.getStatus()).isTerminal());
+    }
+
+    private void ensureAccessible(UUID sessionId) {
+        if (!aiCheckPersistenceService.canAccess(sessionId, aiCheckPersistenceService.currentUsername())) {
+            throw new AiCheckException(AiCheckErrorCode.AI_JOB_NOT_FOUND);
+        }
+    }
+
+    private void execute(UUID sessionId, SpooledUpload upload, boolean generatePdf, AiCheckTimings.Trace trace) {
+        try (upload) {
+            // 작업 결과는 outbox 를 거치지 않고 바로 기록해, done 상태가 보일 때 결과도 함께 조회되도록 한다
+            AnalyzeResponse response = aiCheckOrchestratorService.analyze(sessionId.toString(), upload, generatePdf,
+                    trace,
+                    stage -> advance(sessionId, stage),
+                    finding -> addPartialFinding(sessionId, finding),
+                    record -> complete(sessionId, record));
+            trace.finish();
+            publish(snapshot(sessionId, AiCheckStage.DONE, response));
+        } catch (Exception e) {
+            trace.finish(AiCheckTimings.ERROR);
+            log.warn("AI check job {} failed", sessionId, e);
+            fail(sessionId);
+        }
+    }
+
+    /** 결과를 바로 기록한다. 리포트 재료도 함께 DB에 남았으므로 AiReportService 메모리에서는 내려놓는다. */
+    private void complete(UUID sessionId, AiCheckRecord record) {
+        aiCheckPersistenceService.complete(sessionId, record);
+        aiReportService.persisted(sessionId.toString());
+    }
+
+    private void advance(UUID sessionId, AiCheckStage stage) {
+        aiCheckPersistenceService.updateStage(sessionId, stage);
+        publish(snapshot(sessionId, stage, null));
+    }
+
+    /** LLM 단계에서 먼저 완성된 소견을 현재 상태에 덧붙여 내보낸다. */
+    private void addPartialFinding(UUID sessionId, AnalyzeResponse.Finding finding) {
+        AiCheckJobResponse current = running.get(sessionId);
+        List<AnalyzeResponse.Finding> findings = new ArrayList<>();
+        if (current != null && current.getPartialFindings() != null) {
+            findings.addAll(current.getPartialFindings());
+        }
+        findings.add(finding);
+        publish(AiCheckJobResponse.builder()
+                .sessionId(sessionId.toString())
+                .status(AiCheckStage.LLM.status())
+                .partialFindings(List.copyOf(findings))
+                .build());
+    }
+
+    private void fail(UUID sessionId) {
+        try {
+            aiCheckPersistenceService.fail(sessionId);
+        } catch (RuntimeException e) {
+            log.warn("Failed to mark AI check job {} as error", sessionId, e);
+        }
+        publish(snapshot(sessionId, AiCheckStage.ERROR, null));
+    }
+
+    private void publish(AiCheckJobResponse job) {
+        UUID sessionId = UUID.fromString(job.getSessionId());
+        if (AiCheckStage.fromStatus(job.getStatus()).isTerminal()) {
+            running.remove(sessionId);
+        } else {
+            running.put(sessionId, job);
+        }
+        events.emitNext(job, Sinks.EmitFailureHandler.busyLooping(Duration.ofSeconds(1)));
+    }
+
+    private AiCheckJobResponse snapshot(UUID sessionId, AiCheckStage stage, AnalyzeResponse result) {
+        return AiCheckJobResponse.builder()
+                .sessionId(sessionId.toString())
+                .status(stage.status())
+                .result(result)
+                .build();
+    }
+}
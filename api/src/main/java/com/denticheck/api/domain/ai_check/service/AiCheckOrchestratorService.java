@@ -2,19 +2,17 @@ package com.denticheck.api.domain.ai_check.service;
 
 import com.denticheck.api.domain.ai_check.dto.AiCheckRunResponse;
 import com.denticheck.api.domain.ai_check.dto.AnalyzeResponse;
+import com.denticheck.api.domain.ai_check.dto.BBox;
+import com.denticheck.api.domain.ai_check.dto.DetectionItem;
+import com.denticheck.api.infrastructure.external.ai.AiCallScope;
+import com.denticheck.api.infrastructure.external.ai.dto.AiDetectResponse;
+import com.denticheck.api.infrastructure.external.ai.dto.AiQualityResponse;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.ByteArrayResource;
-import org.springframework.http.ContentDisposition;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.util.LinkedMultiValueMap;
-import org.springframework.util.MultiValueMap;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
@@ -24,10 +22,17 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import com.denticheck.api.common.exception.ai_check.AiCheckException;
 import com.denticheck.api.common.exception.ai_check.AiCheckErrorCode;
@@ -39,19 +44,24 @@ public class AiCheckOrchestratorService {
 
     private static final List<String> ALLOWED_EXTENSIONS = List.of(".jpg", ".jpeg", ".png", ".webp");
 
-    @Value("${ai.client.url}")
-    private String aiBaseUrl;
-
-    @Value("${ai.client.timeout:5000}")
-    private int aiClientTimeoutMs;
-
     @Value("${ai.analyze.timeout:3m}")
     private java.time.Duration analyzeTimeout;
 
+    @Value("${ai.analyze.batch.max-images:5}")
+    private int batchMaxImages;
+
     private final AiLlmResultService aiLlmResultService;
     private final AiAnalyzeLlmService aiAnalyzeLlmService;
-    private final PdfReportService pdfReportService;
-    private final ReportStorageService reportStorageService;
+    private final AiReportService aiReportService;
+    private final AiUploadSpool aiUploadSpool;
+    private final AiInspectionClient aiInspectionClient;
+    private final AiResultCache aiResultCache;
+    private final AiCheckOutbox aiCheckOutbox;
+    private final AiCheckPersistenceService aiCheckPersistenceService;
+    private final AiCheckTimings aiCheckTimings;
+    @Qualifier("aiAnalyzeExecutor")
+    private final ExecutorService aiAnalyzeExecutor;
+    private final MeterRegistry meterRegistry;
 
     public AiCheckRunResponse run(MultipartFile file) {
         String sessionId = UUID.randomUUID().toString();
@@ -65,58 +75,82 @@ public class AiCheckOrchestratorService {
             return errorResponse(sessionId, storageKey, imageUrl, "unsupported_extension");
         }
 
-        try {
-            Map<String, Object> quality = postMultipartToAi("/v1/quality", file);
-            boolean qualityPass = asBoolean(quality.getOrDefault("pass", quality.get("pass_")));
-            double qualityScore = asDouble(quality.get("score"));
-            List<String> qualityReasons = asStringList(quality.get("reasons"));
+        AiCheckTimings.Trace trace = aiCheckTimings.start("run");
+        trace.stage(AiCheckTimings.UPLOAD_READ);
+        try (SpooledUpload spooled = aiUploadSpool.spool(file)) {
+            trace.pause();
+            Optional<AiResultCache.Hit<AiCheckRunResponse>> cached = aiResultCache.get(spooled.getSha256(),
+                    AiResultCache.Kind.RUN, AiCheckRunResponse.class);
+            if (cached.isPresent()) {
+                trace.outcome(AiCheckTimings.CACHED);
+                return reuse(sessionId, storageKey, spooled, AiResultCache.Kind.RUN, cached.get());
+            }
 
-            if (!qualityPass) {
-                // 품질 실패 시 RAG 검색 없이 Fallback
-                AiCheckRunResponse.LlmResult llmResult = aiLlmResultService.forQualityFailed(Collections.emptyList());
-                String pdfUrl = createAndStorePdf(sessionId, llmResult, Collections.emptyList());
+            // 캐시에 없을 때만 모델 입력 크기로 줄인다. 해시는 원본 기준이다
+            try (SpooledUpload upload = prepare(spooled, trace)) {
+                AiInspectionClient.Inspection inspection = aiInspectionClient.inspect(upload, trace::progress);
+                AiQualityResponse quality = inspection.quality();
+                boolean qualityPass = inspection.qualityPass();
+                double qualityScore = quality.getScore() == null ? 0.0 : quality.getScore();
+                List<String> qualityReasons = quality.getReasons() == null ? List.of() : quality.getReasons();
+
+                if (!qualityPass) {
+                    // 품질 실패 시 RAG 검색 없이 Fallback
+                    trace.outcome(AiCheckTimings.QUALITY_FAILED);
+                    trace.stage(AiCheckTimings.LLM);
+                    AiCheckRunResponse.LlmResult llmResult = aiLlmResultService.forQualityFailed(
+                            Collections.emptyList());
+                    trace.stage(AiCheckTimings.PDF);
+                    AiCheckRecord.PdfSource pdfSource = new AiCheckRecord.PdfSource(llmResult, Collections.emptyList());
+                    String pdfUrl = aiReportService.defer(sessionId, pdfSource);
+
+                    return remember(upload, AiResultCache.Kind.RUN, quality, pdfSource, AiCheckRunResponse.builder()
+                            .sessionId(sessionId)
+                            .status("quality_failed")
+                            .storageKey(storageKey)
+                            .imageUrl(imageUrl)
+                            .qualityPass(false)
+                            .qualityScore(qualityScore)
+                            .qualityReasons(qualityReasons)
+                            .detections(Collections.emptyList())
+                            .summary(Collections.emptyMap())
+                            .llmResult(llmResult)
+                            .pdfUrl(pdfUrl)
+                            .rag(toRagSummary(Collections.emptyList()))
+                            .build());
+                }
+
+                List<DetectionItem> detections = toDetections(inspection.detect(), upload.getTransform(), null);
+                Map<String, Object> summary = inspection.detect().summary();
+
+                // RAG 검색은 이제 Python 측에서 수행되므로 Java에서는 빈 컨텍스트 전달
+                trace.stage(AiCheckTimings.LLM);
+                AiCheckRunResponse.LlmResult llmResult = aiLlmResultService.generate(detections, true, qualityScore,
+                        Collections.emptyList());
+                trace.stage(AiCheckTimings.PDF);
+                AiCheckRecord.PdfSource pdfSource = new AiCheckRecord.PdfSource(llmResult, detections);
+                String pdfUrl = aiReportService.defer(sessionId, pdfSource);
 
-                return AiCheckRunResponse.builder()
+                return remember(upload, AiResultCache.Kind.RUN, quality, pdfSource, AiCheckRunResponse.builder()
                         .sessionId(sessionId)
-                        .status("quality_failed")
+                        .status("done")
                         .storageKey(storageKey)
                         .imageUrl(imageUrl)
-                        .qualityPass(false)
+                        .qualityPass(true)
                         .qualityScore(qualityScore)
                         .qualityReasons(qualityReasons)
-                        .detections(Collections.emptyList())
-                        .summary(Collections.emptyMap())
-                        .llmResult(llmResult)
+                        .detections(detections)
+                        .summary(summary)
                         .pdfUrl(pdfUrl)
                         .rag(toRagSummary(Collections.emptyList()))
-                        .build();
+                        .build());
             }
-
-            Map<String, Object> detect = postMultipartToAi("/v1/detect", file);
-            List<AiCheckRunResponse.DetectionItem> detections = toDetections(detect.get("detections"));
-            Map<String, Object> summary = asMap(detect.get("summary"));
-
-            // RAG 검색은 이제 Python 측에서 수행되므로 Java에서는 빈 컨텍스트 전달
-            AiCheckRunResponse.LlmResult llmResult = aiLlmResultService.generate(detections, true, qualityScore,
-                    Collections.emptyList());
-            String pdfUrl = createAndStorePdf(sessionId, llmResult, detections);
-
-            return AiCheckRunResponse.builder()
-                    .sessionId(sessionId)
-                    .status("done")
-                    .storageKey(storageKey)
-                    .imageUrl(imageUrl)
-                    .qualityPass(true)
-                    .qualityScore(qualityScore)
-                    .qualityReasons(qualityReasons)
-                    .detections(detections)
-                    .summary(summary)
-                    .pdfUrl(pdfUrl)
-                    .rag(toRagSummary(Collections.emptyList()))
-                    .build();
         } catch (Exception e) {
+            trace.outcome(AiCheckTimings.ERROR);
             log.error("AI check pipeline failed", e);
             throw new AiCheckException(AiCheckErrorCode.AI_ANALYSIS_FAILED);
+        } finally {
+            trace.finish();
         }
     }
 
@@ -132,44 +166,61 @@ public class AiCheckOrchestratorService {
             throw new IllegalArgumentException("지원하지 않는 파일 형식입니다.");
         }
 
-        try {
-            Map<String, Object> quality = postMultipartToAi("/v1/quality", file);
-            boolean qualityPass = asBoolean(quality.getOrDefault("pass", quality.get("pass_")));
-            double qualityScore = asDouble(quality.get("score"));
-            List<String> qualityReasons = asStringList(quality.get("reasons"));
+        AiCheckTimings.Trace trace = aiCheckTimings.start("quick");
+        trace.stage(AiCheckTimings.UPLOAD_READ);
+        try (SpooledUpload spooled = aiUploadSpool.spool(file)) {
+            trace.pause();
+            Optional<AiResultCache.Hit<AiCheckRunResponse>> cached = aiResultCache.get(spooled.getSha256(),
+                    AiResultCache.Kind.QUICK, AiCheckRunResponse.class);
+            if (cached.isPresent()) {
+                trace.outcome(AiCheckTimings.CACHED);
+                return reuse(sessionId, storageKey, spooled, AiResultCache.Kind.QUICK, cached.get());
+            }
+
+            // 캐시에 없을 때만 모델 입력 크기로 줄인다. 해시는 원본 기준이다
+            try (SpooledUpload upload = prepare(spooled, trace)) {
+                AiInspectionClient.Inspection inspection = aiInspectionClient.inspect(upload, trace::progress);
+                AiQualityResponse quality = inspection.quality();
+                boolean qualityPass = inspection.qualityPass();
+                double qualityScore = quality.getScore() == null ? 0.0 : quality.getScore();
+                List<String> qualityReasons = quality.getReasons() == null ? List.of() : quality.getReasons();
+
+                if (!qualityPass) {
+                    trace.outcome(AiCheckTimings.QUALITY_FAILED);
+                    return remember(upload, AiResultCache.Kind.QUICK, quality, null, AiCheckRunResponse.builder()
+                            .sessionId(sessionId)
+                            .status("quality_failed")
+                            .storageKey(storageKey)
+                            .imageUrl(imageUrl)
+                            .qualityPass(false)
+                            .qualityScore(qualityScore)
+                            .qualityReasons(qualityReasons)
+                            .detections(Collections.emptyList())
+                            .summary(Collections.emptyMap())
+                            .build());
+                }
 
-            if (!qualityPass) {
-                return AiCheckRunResponse.builder()
+                List<DetectionItem> detections = toDetections(inspection.detect(), upload.getTransform(), null);
+                Map<String, Object> summary = inspection.detect().summary();
+
+                return remember(upload, AiResultCache.Kind.QUICK, quality, null, AiCheckRunResponse.builder()
                         .sessionId(sessionId)
-                        .status("quality_failed")
+                        .status("done")
                         .storageKey(storageKey)
                         .imageUrl(imageUrl)
-                        .qualityPass(false)
+                        .qualityPass(true)
                         .qualityScore(qualityScore)
                         .qualityReasons(qualityReasons)
-                        .detections(Collections.emptyList())
-                        .summary(Collections.emptyMap())
-                        .build();
+                        .detections(detections)
+                        .summary(summary)
+                        .build());
             }
-
-            Map<String, Object> detect = postMultipartToAi("/v1/detect", file);
-            List<AiCheckRunResponse.DetectionItem> detections = toDetections(detect.get("detections"));
-            Map<String, Object> summary = asMap(detect.get("summary"));
-
-            return AiCheckRunResponse.builder()
-                    .sessionId(sessionId)
-                    .status("done")
-                    .storageKey(storageKey)
-                    .imageUrl(imageUrl)
-                    .qualityPass(true)
-                    .qualityScore(qualityScore)
-                    .qualityReasons(qualityReasons)
-                    .detections(detections)
-                    .summary(summary)
-                    .build();
         } catch (Exception e) {
+            trace.outcome(AiCheckTimings.ERROR);
             log.error("AI quick check failed", e);
             throw new AiCheckException(AiCheckErrorCode.AI_ANALYSIS_FAILED);
+        } finally {
+            trace.finish();
         }
     }
 
@@ -182,204 +233,446 @@ public class AiCheckOrchestratorService {
             return analyzeErrorResponse(sessionId, "unsupported_extension");
         }
 
+        AiCheckTimings.Trace trace = aiCheckTimings.start("analyze");
+        trace.stage(AiCheckTimings.UPLOAD_READ);
+        SpooledUpload upload;
         try {
-            CompletableFuture<AnalyzeResponse> future = CompletableFuture.supplyAsync(
-                    () -> runAnalyzeInternal(sessionId, file, generatePdf));
-            return future.get(analyzeTimeout.toMillis(), TimeUnit.MILLISECONDS);
-        } catch (Exception e) {
-            log.warn("Analyze pipeline timed out or failed for session {}. Fallback response returned", sessionId, e);
+            upload = aiUploadSpool.spool(file);
+        } catch (IOException e) {
+            trace.finish(AiCheckTimings.FALLBACK);
+            log.warn("Failed to spool upload for session {}. Fallback response returned", sessionId, e);
             return analyzeFallbackResponse(sessionId);
         }
+        trace.pause();
+
+        AiResultCache.Kind kind = AiResultCache.Kind.analyze(generatePdf);
+        Optional<AiResultCache.Hit<AnalyzeResponse>> cached = aiResultCache.get(upload.getSha256(), kind,
+                AnalyzeResponse.class);
+        String username = aiCheckPersistenceService.currentUsername();
+        if (cached.isPresent()) {
+            upload.close();
+            trace.finish(AiCheckTimings.CACHED);
+            AnalyzeResponse response = reuse(sessionId, cached.get());
+            aiCheckOutbox.enqueue(AiCheckRecord.ofAnalyze(upload.getSha256(), kind, null, cached.get().qualityPass(),
+                    response).toBuilder()
+                    .username(username)
+                    .pdfSource(cached.get().pdfSource())
+                    .build());
+            return response;
+        }
+
+        // 작업이 스풀 파일의 소유권을 가져가며, 작업이 끝나면 직접 정리한다
+        return submitAnalyze(sessionId, trace, upload, () -> {
+            try (upload) {
+                return runAnalyzeInternal(sessionId, upload, generatePdf, username, trace);
+            }
+        });
     }
 
-    private AnalyzeResponse runAnalyzeInternal(String sessionId, MultipartFile file, boolean generatePdf) {
-        try {
-            Map<String, Object> quality = postMultipartToAi("/v1/quality", file);
-            boolean qualityPass = asBoolean(quality.getOrDefault("pass", quality.get("pass_")));
-
-            if (!qualityPass) {
-                // 품질 실패 시 AI 분석 (Fallback) 호출 (ragSource 없음)
-                AnalyzeResponse.LlmResult llmResult = aiAnalyzeLlmService.generate(
-                        List.of(),
-                        Map.of("qualityPass", false),
-                        List.of());
+    /**
+     * 여러 장(정면/위/아래 등)을 한 세션으로 검사한다. AI 서버에는 한 번에 보내고,
+     * 탐지는 사진 순번(imageIndex)을 붙여 합친 뒤 LLM 소견과 리포트는 한 번만 만든다.
+     */
+    public AnalyzeResponse runAnalyzeBatch(List<MultipartFile> files, boolean generatePdf) {
+        String sessionId = UUID.randomUUID().toString();
+        if (files == null || files.isEmpty() || files.stream().anyMatch(f -> f == null || f.isEmpty())) {
+            return analyzeErrorResponse(sessionId, "empty_file");
+        }
+        if (files.size() > batchMaxImages) {
+            return analyzeErrorResponse(sessionId, "too_many_files");
+        }
+        if (files.stream().anyMatch(f -> !isAllowedImage(f.getOriginalFilename()))) {
+            return analyzeErrorResponse(sessionId, "unsupported_extension");
+        }
 
-                String pdfUrl = null;
-                if (generatePdf) {
-                    AiCheckRunResponse.LlmResult legacyLlm = aiLlmResultService.generate(List.of(), false, 0.0,
-                            List.of());
-                    pdfUrl = createAndStorePdf(sessionId, legacyLlm, List.of());
-                }
+        AiCheckTimings.Trace trace = aiCheckTimings.start("analyze_batch");
+        trace.stage(AiCheckTimings.UPLOAD_READ);
+        List<SpooledUpload> uploads = new ArrayList<>();
+        AutoCloseable release = () -> uploads.forEach(SpooledUpload::close);
+        try {
+            for (MultipartFile file : files) {
+                uploads.add(aiUploadSpool.spool(file));
+            }
+        } catch (IOException e) {
+            closeQuietly(release);
+            trace.finish(AiCheckTimings.FALLBACK);
+            log.warn("Failed to spool batch upload for session {}. Fallback response returned", sessionId, e);
+            return analyzeFallbackResponse(sessionId);
+        }
 
-                return AnalyzeResponse.builder()
-                        .sessionId(sessionId)
-                        .status("done")
-                        .detections(List.of())
-                        .rag(AnalyzeResponse.RagSummary.builder()
-                                .topK(0)
-                                .sources(List.of())
-                                .usedFallback(false)
-                                .build())
-                        .llmResult(llmResult)
-                        .pdfUrl(pdfUrl)
-                        .build();
+        trace.pause();
+
+        String username = aiCheckPersistenceService.currentUsername();
+        return submitAnalyze(sessionId, trace, release, () -> {
+            try (release) {
+                // 원본을 전처리한 파일로 바꿔 두면 release 가 그것을 정리한다
+                uploads.replaceAll(upload -> prepare(upload, trace));
+                return analyzeBatch(sessionId, uploads, generatePdf, trace,
+                        record -> aiCheckOutbox.enqueue(record.toBuilder().username(username).build()));
+            } catch (CancellationException e) {
+                throw e;
+            } catch (Exception e) {
+                ensureNotCancelled();
+                trace.outcome(AiCheckTimings.FALLBACK);
+                log.warn("Batch analyze pipeline failed for session {}. Returning fallback", sessionId, e);
+                return analyzeFallbackResponse(sessionId);
             }
+        });
+    }
 
-            Map<String, Object> detect = postMultipartToAi("/v1/detect", file);
-            List<AiCheckRunResponse.DetectionItem> detections = toDetections(detect.get("detections"));
-            Map<String, Object> summary = asMap(detect.get("summary"));
+    /**
+     * aiAnalyzeExecutor 에서 ai.analyze.timeout 까지만 기다린다. 넘기면 진행 중인 외부 호출까지 끊고 fallback 을 돌려준다.
+     * 단계 기록(trace)은 여기서 마무리하며, 제한 시간을 넘긴 요청은 fallback 으로 남는다.
+     */
+    private AnalyzeResponse submitAnalyze(String sessionId, AiCheckTimings.Trace trace, AutoCloseable uploads,
+            Supplier<AnalyzeResponse> task) {
+        AiCallScope scope = new AiCallScope();
+        Future<AnalyzeResponse> future;
+        try {
+            future = aiAnalyzeExecutor.submit(() -> scope.call(task));
+        } catch (RejectedExecutionException e) {
+            closeQuietly(uploads);
+            trace.finish(AiCheckTimings.ERROR);
+            meterRegistry.counter("ai.analyze.rejected").increment();
+            log.warn("Analyze executor saturated. Rejecting session {}", sessionId);
+            throw new AiCheckException(AiCheckErrorCode.AI_ANALYZE_BUSY);
+        }
 
-            List<AnalyzeResponse.DetectionItem> analyzeDetections = toAnalyzeDetections(detections);
+        try {
+            AnalyzeResponse response = future.get(analyzeTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            trace.finish();
+            return response;
+        } catch (TimeoutException e) {
+            // 응답을 포기한 작업이 AI 서버/Ollama를 계속 점유하지 않도록 진행 중인 호출까지 끊는다
+            scope.cancel();
+            future.cancel(true);
+            trace.finish(AiCheckTimings.FALLBACK);
+            log.warn("Analyze pipeline timed out for session {}. Fallback response returned", sessionId);
+            return analyzeFallbackResponse(sessionId);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            scope.cancel();
+            future.cancel(true);
+            trace.finish(AiCheckTimings.FALLBACK);
+            return analyzeFallbackResponse(sessionId);
+        } catch (ExecutionException | CancellationException e) {
+            trace.finish(AiCheckTimings.FALLBACK);
+            log.warn("Analyze pipeline failed for session {}. Fallback response returned", sessionId, e);
+            return analyzeFallbackResponse(sessionId);
+        }
+    }
 
-            // Python 서버가 RAG 검색을 포함하여 소견서 생성
-            AnalyzeResponse.LlmResult llmResult = aiAnalyzeLlmService.generate(analyzeDetections, summary, List.of());
+    private void closeQuietly(AutoCloseable resource) {
+        try {
+            resource.close();
+        } catch (Exception e) {
+            log.warn("Failed to release analyze uploads", e);
+        }
+    }
+
+    private AnalyzeResponse runAnalyzeInternal(String sessionId, SpooledUpload upload, boolean generatePdf,
+            String username, AiCheckTimings.Trace trace) {
+        try {
+            return analyze(sessionId, upload, generatePdf, trace, stage -> {
+            }, finding -> {
+            }, record -> aiCheckOutbox.enqueue(record.toBuilder().username(username).build()));
+        } catch (CancellationException e) {
+            throw e;
+        } catch (Exception e) {
+            // 타임아웃으로 호출이 끊긴 경우에는 fallback을 만들지 않고 바로 종료한다
+            ensureNotCancelled();
+            trace.outcome(AiCheckTimings.FALLBACK);
+            log.warn("Analyze pipeline failed for session {}. Returning fallback", sessionId, e);
+            return analyzeFallbackResponse(sessionId);
+        }
+    }
 
+    /**
+     * 분석 파이프라인 본체. 단계가 바뀔 때마다 progress 로 알리고, 실패하면 fallback 없이 예외를 던진다.
+     * LLM 이 스트리밍으로 소견을 하나씩 완성하면 partialFindings 로 먼저 넘긴다.
+     * 성공한 결과만 결과 캐시에 남고, ai_* 테이블에 남길 기록은 recorder 로 넘긴다.
+     * 단계 시간은 trace 에 쌓이며, 마무리(finish)는 호출한 쪽이 한다.
+     */
+    public AnalyzeResponse analyze(String sessionId, SpooledUpload upload, boolean generatePdf,
+            AiCheckTimings.Trace trace, Consumer<AiCheckStage> progress,
+            Consumer<AnalyzeResponse.Finding> partialFindings, Consumer<AiCheckRecord> recorder) {
+        // 호출 측이 캐시를 확인한 뒤 분석 작업 스레드에서 부르므로, 전처리도 여기서 한다. 원본은 호출 측이 닫는다
+        try (SpooledUpload prepared = prepare(upload, trace)) {
+            return analyzePrepared(sessionId, prepared, generatePdf, trace, progress, partialFindings, recorder);
+        }
+    }
+
+    private AnalyzeResponse analyzePrepared(String sessionId, SpooledUpload upload, boolean generatePdf,
+            AiCheckTimings.Trace trace, Consumer<AiCheckStage> progress,
+            Consumer<AnalyzeResponse.Finding> partialFindings, Consumer<AiCheckRecord> recorder) {
+        AiResultCache.Kind kind = AiResultCache.Kind.analyze(generatePdf);
+        Consumer<AiCheckStage> tracked = stage -> {
+            trace.progress(stage);
+            progress.accept(stage);
+        };
+        AiInspectionClient.Inspection inspection = aiInspectionClient.inspect(upload, tracked);
+        boolean qualityPass = inspection.qualityPass();
+        ensureNotCancelled();
+
+        if (!qualityPass) {
+            trace.outcome(AiCheckTimings.QUALITY_FAILED);
+            // 품질 실패 시 AI 분석 (Fallback) 호출 (ragSource 없음)
+            tracked.accept(AiCheckStage.LLM);
+            AnalyzeResponse.LlmResult llmResult = aiAnalyzeLlmService.generate(
+                    List.of(),
+                    Map.of("qualityPass", false),
+                    List.of(),
+                    partialFindings);
+
+            AiCheckRecord.PdfSource pdfSource = null;
             String pdfUrl = null;
             if (generatePdf) {
-                AiCheckRunResponse.LlmResult legacyLlm = aiLlmResultService.generate(detections, true, 1.0, List.of());
-                pdfUrl = createAndStorePdf(sessionId, legacyLlm, detections);
+                tracked.accept(AiCheckStage.PDF);
+                AiCheckRunResponse.LlmResult legacyLlm = aiLlmResultService.generate(List.of(), false, 0.0,
+                        List.of());
+                pdfSource = new AiCheckRecord.PdfSource(legacyLlm, List.of());
+                pdfUrl = aiReportService.defer(sessionId, pdfSource);
             }
 
-            return AnalyzeResponse.builder()
+            return remember(recorder, upload, kind, inspection, pdfSource, AnalyzeResponse.builder()
                     .sessionId(sessionId)
                     .status("done")
-                    .detections(analyzeDetections)
+                    .detections(List.of())
                     .rag(AnalyzeResponse.RagSummary.builder()
                             .topK(0)
-                            .sources(List.of()) // Python에서 검색하므로 Java 쪽 RagSummary는 비움
+                            .sources(List.of())
                             .usedFallback(false)
                             .build())
                     .llmResult(llmResult)
                     .pdfUrl(pdfUrl)
-                    .build();
-        } catch (Exception e) {
-            log.warn("Analyze pipeline failed for session {}. Returning fallback", sessionId, e);
-            return analyzeFallbackResponse(sessionId);
+                    .build());
         }
-    }
 
-    private String createAndStorePdf(
-            String sessionId,
-            AiCheckRunResponse.LlmResult llmResult,
-            List<AiCheckRunResponse.DetectionItem> detections) {
-        byte[] pdf = pdfReportService.generate(sessionId, llmResult, detections);
-        return reportStorageService.uploadPdf(sessionId, pdf);
-    }
+        List<DetectionItem> detections = toDetections(inspection.detect(), upload.getTransform(), null);
+        Map<String, Object> summary = inspection.detect().summary();
 
-    private AiCheckRunResponse.RagSummary toRagSummary(List<?> contexts) {
-        // Fallback for empty/Java-side RAG summary since Python handles it
-        return AiCheckRunResponse.RagSummary.builder()
-                .topK(0)
-                .sources(List.of())
-                .build();
-    }
+        // Python 서버가 RAG 검색을 포함하여 소견서 생성
+        tracked.accept(AiCheckStage.LLM);
+        AnalyzeResponse.LlmResult llmResult = aiAnalyzeLlmService.generate(detections, summary, List.of(),
+                partialFindings);
+        ensureNotCancelled();
+        if (llmResult.isFallback()) {
+            trace.outcome(AiCheckTimings.FALLBACK);
+        }
 
-    private Map<String, Object> postMultipartToAi(String path, MultipartFile file) throws IOException {
-        String url = aiBaseUrl + path;
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.MULTIPART_FORM_DATA);
+        AiCheckRecord.PdfSource pdfSource = null;
+        String pdfUrl = null;
+        if (generatePdf) {
+            tracked.accept(AiCheckStage.PDF);
+            AiCheckRunResponse.LlmResult legacyLlm = aiLlmResultService.generate(detections, true, 1.0, List.of());
+            pdfSource = new AiCheckRecord.PdfSource(legacyLlm, detections);
+            pdfUrl = aiReportService.defer(sessionId, pdfSource);
+        }
+
+        return remember(recorder, upload, kind, inspection, pdfSource, AnalyzeResponse.builder()
+                .sessionId(sessionId)
+                .status("done")
+                .detections(detections)
+                .rag(AnalyzeResponse.RagSummary.builder()
+                        .topK(0)
+                        .sources(List.of()) // Python에서 검색하므로 Java 쪽 RagSummary는 비움
+                        .usedFallback(false)
+                        .build())
+                .llmResult(llmResult)
+                .pdfUrl(pdfUrl)
+                .build());
+    }
 
-        ByteArrayResource resource = new ByteArrayResource(file.getBytes()) {
-            @Override
-            public String getFilename() {
-                return file.getOriginalFilename() == null ? "upload.jpg" : file.getOriginalFilename();
+    private AnalyzeResponse analyzeBatch(String sessionId, List<SpooledUpload> uploads, boolean generatePdf,
+            AiCheckTimings.Trace trace, Consumer<AiCheckRecord> recorder) {
+        List<AiInspectionClient.Inspection> inspections = aiInspectionClient.inspectBatch(uploads, trace::progress);
+        ensureNotCancelled();
+
+        List<DetectionItem> detections = new ArrayList<>();
+        List<AnalyzeResponse.ImageResult> images = new ArrayList<>();
+        int passed = 0;
+        for (int i = 0; i < inspections.size(); i++) {
+            AiInspectionClient.Inspection inspection = inspections.get(i);
+            List<DetectionItem> imageDetections = inspection.qualityPass()
+                    ? toDetections(inspection.detect(), uploads.get(i).getTransform(), i)
+                    : List.of();
+            detections.addAll(imageDetections);
+            if (inspection.qualityPass()) {
+                passed++;
             }
-        };
+            images.add(AnalyzeResponse.ImageResult.builder()
+                    .index(i)
+                    .filename(uploads.get(i).getFilename())
+                    .qualityPass(inspection.qualityPass())
+                    .qualityScore(inspection.quality().getScore() == null ? 0.0 : inspection.quality().getScore())
+                    .detectionCount(imageDetections.size())
+                    .build());
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("qualityPass", passed > 0);
+        summary.put("imageCount", inspections.size());
+        summary.put("qualityPassedCount", passed);
+
+        if (passed == 0) {
+            trace.outcome(AiCheckTimings.QUALITY_FAILED);
+        }
+
+        // 사진 수와 상관없이 LLM 소견과 리포트는 한 번만 만든다
+        trace.stage(AiCheckTimings.LLM);
+        AnalyzeResponse.LlmResult llmResult = aiAnalyzeLlmService.generate(detections, summary, List.of(),
+                finding -> {
+                });
+        ensureNotCancelled();
+        if (passed > 0 && llmResult.isFallback()) {
+            trace.outcome(AiCheckTimings.FALLBACK);
+        }
+
+        AiCheckRecord.PdfSource pdfSource = null;
+        String pdfUrl = null;
+        if (generatePdf) {
+            trace.stage(AiCheckTimings.PDF);
+            AiCheckRunResponse.LlmResult legacyLlm = aiLlmResultService.generate(detections, passed > 0,
+                    passed > 0 ? 1.0 : 0.0, List.of());
+            pdfSource = new AiCheckRecord.PdfSource(legacyLlm, detections);
+            pdfUrl = aiReportService.defer(sessionId, pdfSource);
+        }
 
-        HttpHeaders partHeaders = new HttpHeaders();
-        partHeaders.setContentDisposition(ContentDisposition
-                .builder("form-data")
-                .name("file")
-                .filename(resource.getFilename())
+        AnalyzeResponse response = AnalyzeResponse.builder()
+                .sessionId(sessionId)
+                .status("done")
+                .detections(detections)
+                .rag(AnalyzeResponse.RagSummary.builder()
+                        .topK(0)
+                        .sources(List.of())
+                        .usedFallback(false)
+                        .build())
+                .llmResult(llmResult)
+                .pdfUrl(pdfUrl)
+                .images(images)
+                .build();
+        meterRegistry.summary("ai.analyze.batch.images").record(inspections.size());
+        recorder.accept(AiCheckRecord.ofAnalyzeBatch(
+                uploads.stream().map(SpooledUpload::getSha256).toList(),
+                inspections.stream().map(AiInspectionClient.Inspection::quality).toList(),
+                AiResultCache.Kind.ANALYZE_BATCH, response).toBuilder()
+                .pdfSource(pdfSource)
                 .build());
-        partHeaders.setContentType(MediaType.parseMediaType(
-                file.getContentType() == null ? "application/octet-stream" : file.getContentType()));
+        return response;
+    }
 
-        MultiValueMap<String, Object> body = new LinkedMultiValueMap<>();
-        body.add("file", new HttpEntity<>(resource, partHeaders));
+    /** 결과 캐시에 넣고, ai_* 테이블 기록은 outbox 로 넘긴다. */
+    private AiCheckRunResponse remember(SpooledUpload upload, AiResultCache.Kind kind, AiQualityResponse quality,
+            AiCheckRecord.PdfSource pdfSource, AiCheckRunResponse response) {
+        aiResultCache.put(upload.getSha256(), kind, response, Boolean.TRUE.equals(response.getQualityPass()),
+                pdfSource);
+        aiCheckOutbox.enqueue(AiCheckRecord.ofRun(upload.getSha256(), kind, quality, response).toBuilder()
+                .username(aiCheckPersistenceService.currentUsername())
+                .pdfSource(pdfSource)
+                .build());
+        return response;
+    }
 
-        HttpEntity<MultiValueMap<String, Object>> entity = new HttpEntity<>(body, headers);
-        ResponseEntity<Map> response = aiRestTemplate().postForEntity(url, entity, Map.class);
-        return response.getBody() == null ? Collections.emptyMap() : response.getBody();
+    private AnalyzeResponse remember(Consumer<AiCheckRecord> recorder, SpooledUpload upload, AiResultCache.Kind kind,
+            AiInspectionClient.Inspection inspection, AiCheckRecord.PdfSource pdfSource, AnalyzeResponse response) {
+        // LLM 이 늦거나 거절돼 규칙 기반 결과로 대신한 응답은 캐시에 굳히지 않는다
+        if (!response.getLlmResult().isFallback()) {
+            aiResultCache.put(upload.getSha256(), kind, response, inspection.qualityPass(), pdfSource);
+        }
+        recorder.accept(AiCheckRecord.ofAnalyze(upload.getSha256(), kind, inspection.quality(),
+                inspection.qualityPass(), response).toBuilder()
+                .pdfSource(pdfSource)
+                .build());
+        return response;
     }
 
-    private boolean isAllowedImage(String filename) {
-        if (filename == null)
-            return false;
-        String lower = filename.toLowerCase(Locale.ROOT);
-        return ALLOWED_EXTENSIONS.stream().anyMatch(lower::endsWith);
+    /**
+     * 결과 캐시를 확인한 뒤에 업로드를 모델 입력 크기로 줄인다. 해시는 원본 값을 그대로 유지한다.
+     * 줄였다면 원본 파일은 지워지고 새 파일을 돌려주며, 그대로 쓸 때는 같은 객체다. 돌려받은 쪽을 호출 측이 닫는다.
+     */
+    private SpooledUpload prepare(SpooledUpload upload, AiCheckTimings.Trace trace) {
+        trace.stage(AiCheckTimings.PREPROCESS);
+        SpooledUpload prepared = aiUploadSpool.prepare(upload);
+        trace.pause();
+        return prepared;
     }
 
-    private boolean asBoolean(Object v) {
-        if (v instanceof Boolean b)
-            return b;
-        if (v instanceof String s)
-            return Boolean.parseBoolean(s);
-        return false;
+    /**
+     * 캐시된 검진 결과를 이 요청의 세션으로 다시 찍는다. 캐시 키는 이미지 내용뿐이라 다른 사용자의 결과일 수 있으므로
+     * 이전 세션의 id/저장 경로/리포트 주소는 내보내지 않고, 리포트는 같은 재료로 이 세션에 새로 맡긴다.
+     * 이 세션도 outbox 로 기록해 리포트 주소가 재시작 뒤에도 풀리게 한다.
+     */
+    private AiCheckRunResponse reuse(String sessionId, String storageKey, SpooledUpload upload,
+            AiResultCache.Kind kind, AiResultCache.Hit<AiCheckRunResponse> hit) {
+        AiCheckRecord.PdfSource pdfSource = hit.pdfSource();
+        AiCheckRunResponse response = hit.response().toBuilder()
+                .sessionId(sessionId)
+                .storageKey(storageKey)
+                .pdfUrl(pdfSource == null ? null : aiReportService.defer(sessionId, pdfSource))
+                .build();
+        aiCheckOutbox.enqueue(AiCheckRecord.ofRun(upload.getSha256(), kind, null, response).toBuilder()
+                .username(aiCheckPersistenceService.currentUsername())
+                .pdfSource(pdfSource)
+                .build());
+        return response;
     }
 
-    private double asDouble(Object v) {
-        if (v instanceof Number n)
-            return n.doubleValue();
-        if (v instanceof String s) {
-            try {
-                return Double.parseDouble(s);
-            } catch (NumberFormatException ignored) {
-                return 0.0;
-            }
-        }
-        return 0.0;
+    /**
+     * 캐시된 분석 결과를 sessionId 세션의 것으로 다시 찍는다. 리포트는 같은 재료로 이 세션에 새로 맡기며,
+     * 세션 기록은 호출 측(outbox 또는 작업 완료 처리)이 한다.
+     */
+    public AnalyzeResponse reuse(String sessionId, AiResultCache.Hit<AnalyzeResponse> hit) {
+        AiCheckRecord.PdfSource pdfSource = hit.pdfSource();
+        return hit.response().toBuilder()
+                .sessionId(sessionId)
+                .pdfUrl(pdfSource == null ? null : aiReportService.defer(sessionId, pdfSource))
+                .build();
     }
 
-    @SuppressWarnings("unchecked")
-    private List<String> asStringList(Object v) {
-        if (!(v instanceof List<?> list)) {
-            return Collections.emptyList();
+    private void ensureNotCancelled() {
+        if (AiCallScope.isCurrentCancelled() || Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("analyze cancelled");
         }
-        List<String> out = new ArrayList<>();
-        for (Object item : list) {
-            if (item != null)
-                out.add(String.valueOf(item));
-        }
-        return out;
     }
 
-    @SuppressWarnings("unchecked")
-    private Map<String, Object> asMap(Object v) {
-        if (v instanceof Map<?, ?> m) {
-            Map<String, Object> out = new LinkedHashMap<>();
-            for (Map.Entry<?, ?> e : m.entrySet()) {
-                out.put(String.valueOf(e.getKey()), e.getValue());
-            }
-            return out;
-        }
-        return Collections.emptyMap();
+    private AiCheckRunResponse.RagSummary toRagSummary(List<?> contexts) {
+        // Fallback for empty/Java-side RAG summary since Python handles it
+        return AiCheckRunResponse.RagSummary.builder()
+                .topK(0)
+                .sources(List.of())
+                .build();
     }
 
-    @SuppressWarnings("unchecked")
-    private List<AiCheckRunResponse.DetectionItem> toDetections(Object raw) {
-        if (!(raw instanceof List<?> list)) {
-            return Collections.emptyList();
-        }
+    boolean isAllowedImage(String filename) {
+        if (filename == null)
+            return false;
+        String lower = filename.toLowerCase(Locale.ROOT);
+        return ALLOWED_EXTENSIONS.stream().anyMatch(lower::endsWith);
+    }
 
-        List<AiCheckRunResponse.DetectionItem> out = new ArrayList<>();
-        for (Object item : list) {
-            if (!(item instanceof Map<?, ?> m))
-                continue;
-
-            String label = normalizeLabel(Objects.toString(m.get("label"), "normal"));
-            double confidence = asDouble(m.get("confidence"));
-            Map<String, Object> bboxMap = asMap(m.get("bbox"));
-
-            out.add(AiCheckRunResponse.DetectionItem.builder()
-                    .label(label)
-                    .confidence(confidence)
-                    .bbox(AiCheckRunResponse.BBox.builder()
-                            .x(asDouble(bboxMap.get("x")))
-                            .y(asDouble(bboxMap.get("y")))
-                            .w(asDouble(bboxMap.get("w")))
-                            .h(asDouble(bboxMap.get("h")))
+    /**
+     * AI 서버 탐지 결과를 응답/리포트가 함께 쓰는 DetectionItem 으로 한 번만 옮긴다.
+     * transform 이 있으면(전처리한 이미지) bbox 를 원본 이미지 좌표로 되돌리고, 배치 검진이면 imageIndex 를 붙인다.
+     */
+    private List<DetectionItem> toDetections(AiDetectResponse detect, ImageTransform transform, Integer imageIndex) {
+        List<AiDetectResponse.Detection> raw = detect.detections();
+        List<DetectionItem> out = new ArrayList<>(raw.size());
+        for (AiDetectResponse.Detection d : raw) {
+            AiDetectResponse.Box b = d.bbox() == null ? new AiDetectResponse.Box(0, 0, 0, 0) : d.bbox();
+            double[] box = transform == null
+                    ? new double[]{b.x(), b.y(), b.w(), b.h()}
+                    : transform.toOriginal(b.x(), b.y(), b.w(), b.h());
+
+            out.add(DetectionItem.builder()
+                    .label(normalizeLabel(d.label()))
+                    .confidence(d.confidence())
+                    .bbox(BBox.builder()
+                            .x(box[0])
+                            .y(box[1])
+                            .w(box[2])
+                            .h(box[3])
                             .build())
+                    .imageIndex(imageIndex)
                     .build());
         }
         return out;
@@ -399,7 +692,7 @@ public class AiCheckOrchestratorService {
     private AiCheckRunResponse errorResponse(String sessionId, String storageKey, String imageUrl, String reason) {
         AiCheckRunResponse.LlmResult llmResult = aiLlmResultService.generate(Collections.emptyList(), false, 0.0,
                 Collections.emptyList());
-        String pdfUrl = createAndStorePdf(sessionId, llmResult, Collections.emptyList());
+        // 오류 응답은 DB에 남기지 않으므로 재시작 뒤에 풀리지 않을 리포트 주소는 내주지 않는다
 
         return AiCheckRunResponse.builder()
                 .sessionId(sessionId)
@@ -412,7 +705,6 @@ public class AiCheckOrchestratorService {
                 .detections(Collections.emptyList())
                 .summary(Collections.emptyMap())
                 .llmResult(llmResult)
-                .pdfUrl(pdfUrl)
                 .build();
     }
 
@@ -436,26 +728,4 @@ public class AiCheckOrchestratorService {
                 .llmResult(llmResult)
                 .build();
     }
-
-    private List<AnalyzeResponse.DetectionItem> toAnalyzeDetections(List<AiCheckRunResponse.DetectionItem> detections) {
-        return detections.stream()
-                .map(v -> AnalyzeResponse.DetectionItem.builder()
-                        .label(v.getLabel())
-                        .confidence(v.getConfidence())
-                        .bbox(AnalyzeResponse.BBox.builder()
-                                .x(v.getBbox() == null ? 0.0 : v.getBbox().getX())
-                                .y(v.getBbox() == null ? 0.0 : v.getBbox().getY())
-                                .w(v.getBbox() == null ? 0.0 : v.getBbox().getW())
-                                .h(v.getBbox() == null ? 0.0 : v.getBbox().getH())
-                                .build())
-                        .build())
-                .toList();
-    }
-
-    private RestTemplate aiRestTemplate() {
-        org.springframework.http.client.SimpleClientHttpRequestFactory factory = new org.springframework.http.client.SimpleClientHttpRequestFactory();
-        factory.setConnectTimeout(aiClientTimeoutMs);
-        factory.setReadTimeout(aiClientTimeoutMs);
-        return new RestTemplate(factory);
-    }
 }
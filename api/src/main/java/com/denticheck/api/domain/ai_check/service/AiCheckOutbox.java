@@ -0,0 +1,86 @@
+package com.denticheck.api.domain.ai_check.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * 동기 검진 API(/api/ai-check, /quick, /analyze)의 결과를 모아 두었다가 주기적으로 한 트랜잭션에 묶어 저장한다.
+ * 요청 경로에서는 큐에 넣기만 하므로 DB 지연이 응답 시간에 더해지지 않는다.
+ * 큐가 가득 차면 기록을 버리고 ai.persistence.outbox.dropped 로 센다 (검진 응답은 이미 나갔으므로).
+ * 저장이 끝난 세션은 AiReportService 에 알려 메모리에 둔 리포트 재료를 내려놓게 한다.
+ */
+@Slf4j
+@Component
+public class AiCheckOutbox {
+
+    private final AiCheckPersistenceService aiCheckPersistenceService;
+    private final AiReportService aiReportService;
+    private final BlockingQueue<AiCheckRecord> queue;
+    private final int batchSize;
+    private final Counter dropped;
+    private final Counter failed;
+
+    public AiCheckOutbox(
+            AiCheckPersistenceService aiCheckPersistenceService,
+            AiReportService aiReportService,
+            MeterRegistry meterRegistry,
+            @Value("${ai.persistence.outbox.capacity:10000}") int capacity,
+            @Value("${ai.persistence.outbox.batch-size:200}") int batchSize) {
+        this.aiCheckPersistenceService = aiCheckPersistenceService;
+        this.aiReportService = aiReportService;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.dropped = meterRegistry.counter("ai.persistence.outbox.dropped");
+        this.failed = meterRegistry.counter("ai.persistence.outbox.failed");
+        meterRegistry.gauge("ai.persistence.outbox.pending", queue, BlockingQueue::size);
+    }
+
+    public void enqueue(AiCheckRecord record) {
+        if (!queue.offer(record)) {
+            dropped.increment();
+            log.warn("AI check outbox is full. Dropping record for session {}", record.sessionId());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ai.persistence.outbox.flush-interval-ms:500}")
+    public void flush() {
+        List<AiCheckRecord> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            try {
+                aiCheckPersistenceService.saveAll(batch);
+                batch.forEach(record -> aiReportService.persisted(record.sessionId()));
+            } catch (RuntimeException e) {
+                log.warn("Batch insert of {} AI check records failed. Retrying one by one", batch.size(), e);
+                saveEach(batch);
+            }
+            batch.clear();
+        }
+    }
+
+    private void saveEach(List<AiCheckRecord> batch) {
+        for (AiCheckRecord record : batch) {
+            try {
+                aiCheckPersistenceService.saveAll(List.of(record));
+                aiReportService.persisted(record.sessionId());
+            } catch (RuntimeException e) {
+                failed.increment();
+                log.error("Failed to persist AI check record for session {}", record.sessionId(), e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void drainOnShutdown() {
+        flush();
+    }
+}
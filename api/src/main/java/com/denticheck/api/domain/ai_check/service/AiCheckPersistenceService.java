@@ -0,0 +1,284 @@
+package com.denticheck.api.domain.ai_check.service;
+
+import com.denticheck.api.domain.ai_check.dto.AiCheckJobResponse;
+import com.denticheck.api.domain.ai_check.dto.AnalyzeResponse;
+import com.denticheck.api.domain.ai_check.entity.AiCheckSessionEntity;
+import com.denticheck.api.domain.ai_check.entity.AiDecisionRecordEntity;
+import com.denticheck.api.domain.ai_check.entity.AiDetectionEntity;
+import com.denticheck.api.domain.ai_check.entity.AiImageEntity;
+import com.denticheck.api.domain.ai_check.entity.AiImageQualityEntity;
+import com.denticheck.api.domain.ai_check.entity.AiReportEntity;
+import com.denticheck.api.domain.ai_check.repository.AiCheckSessionRepository;
+import com.denticheck.api.domain.ai_check.repository.AiDecisionRecordRepository;
+import com.denticheck.api.domain.ai_check.repository.AiImageRepository;
+import com.denticheck.api.domain.user.entity.UserEntity;
+import com.denticheck.api.domain.user.repository.UserRepository;
+import com.denticheck.api.infrastructure.external.ai.dto.AiQualityResponse;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * AI 검진 결과를 ai_check_sessions / ai_images / ai_image_quality / ai_detections / ai_reports /
+ * ai_decision_records 에 기록한다. decision_json 에는 응답 전체를 AiResultCache.Kind 키로 남겨
+ * 폴링 조회와 결과 캐시의 DB 조회가 같은 데이터를 쓰도록 한다.
+ * 여러 건을 한 트랜잭션에서 persist 하므로 hibernate.jdbc.batch_size / order_inserts 로 INSERT가 묶인다.
+ */
+@Service
+@RequiredArgsConstructor
+public class AiCheckPersistenceService {
+
+    private static final String DETECTION_MODEL_NAME = "yolo";
+    static final String PDF_SOURCE_KEY = "pdf_source";
+    static final String QUALITY_PASS_KEY = "quality_pass";
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {
+    };
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final AiCheckSessionRepository aiCheckSessionRepository;
+    private final AiImageRepository aiImageRepository;
+    private final AiDecisionRecordRepository aiDecisionRecordRepository;
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+
+    /** 요청 스레드의 로그인 사용자. 비로그인 검진이면 null */
+    public String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    @Transactional
+    public UUID createSession(String username, String imageHash, boolean generatePdf) {
+        Map<String, Object> clientMeta = new LinkedHashMap<>();
+        clientMeta.put("generatePdf", generatePdf);
+
+        AiCheckSessionEntity session = AiCheckSessionEntity.builder()
+                .id(UUID.randomUUID())
+                .user(findUser(username, new HashMap<>()))
+                .status(AiCheckStage.QUEUED.status())
+                .clientMetaJson(clientMeta)
+                .build();
+        entityManager.persist(session);
+        entityManager.persist(newImage(session, imageHash));
+        return session.getId();
+    }
+
+    @Transactional
+    public void updateStage(UUID sessionId, AiCheckStage stage) {
+        aiCheckSessionRepository.findById(sessionId)
+                .ifPresent(session -> session.updateStatus(stage.status()));
+    }
+
+    /** 비동기 작업(이미 세션이 만들어진 경우)의 결과를 기록하고 세션을 완료 처리한다. */
+    @Transactional
+    public void complete(UUID sessionId, AiCheckRecord record) {
+        AiCheckSessionEntity session = aiCheckSessionRepository.findById(sessionId).orElse(null);
+        if (session == null) {
+            return;
+        }
+        if (record.images() != null) {
+            writeImages(session, record);
+        } else {
+            AiImageEntity image = aiImageRepository.findFirstBySessionId(sessionId)
+                    .orElseGet(() -> {
+                        AiImageEntity created = newImage(session, record.imageHash());
+                        entityManager.persist(created);
+                        return created;
+                    });
+            writeImageResults(session, image, record.quality(), record.qualityPass(), record.detections());
+        }
+
+        writeSessionResults(session, record);
+        session.complete(AiCheckStage.DONE.status());
+    }
+
+    /** outbox 에서 모은 동기 검진 결과를 세션부터 한 번에 저장한다. */
+    @Transactional
+    public void saveAll(List<AiCheckRecord> records) {
+        Map<String, UserEntity> users = new HashMap<>();
+        for (AiCheckRecord record : records) {
+            Map<String, Object> clientMeta = new LinkedHashMap<>();
+            clientMeta.put("endpoint", record.kind().key());
+
+            AiCheckSessionEntity session = AiCheckSessionEntity.builder()
+                    .id(UUID.fromString(record.sessionId()))
+                    .user(findUser(record.username(), users))
+                    .status(record.status())
+                    .clientMetaJson(clientMeta)
+                    .completedAt(LocalDateTime.now())
+                    .build();
+            entityManager.persist(session);
+
+            if (record.images() != null) {
+                writeImages(session, record);
+            } else {
+                AiImageEntity image = newImage(session, record.imageHash());
+                entityManager.persist(image);
+                writeImageResults(session, image, record.quality(), record.qualityPass(), record.detections());
+            }
+
+            writeSessionResults(session, record);
+        }
+    }
+
+    @Transactional
+    public void fail(UUID sessionId) {
+        aiCheckSessionRepository.findById(sessionId)
+                .ifPresent(session -> session.complete(AiCheckStage.ERROR.status()));
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<AiCheckJobResponse> findJob(UUID sessionId) {
+        return aiCheckSessionRepository.findById(sessionId).map(session -> {
+            AiCheckStage stage = AiCheckStage.fromStatus(session.getStatus());
+            AnalyzeResponse result = null;
+            if (stage == AiCheckStage.DONE) {
+                result = aiDecisionRecordRepository.findBySessionId(sessionId)
+                        .map(record -> record.getDecisionJson().get(kindOf(session).key()))
+                        .map(payload -> objectMapper.convertValue(payload, AnalyzeResponse.class))
+                        .orElse(null);
+            }
+            return AiCheckJobResponse.builder()
+                    .sessionId(sessionId.toString())
+                    .status(stage.status())
+                    .result(result)
+                    .build();
+        });
+    }
+
+    /**
+     * 세션을 username 이 볼 수 있는지. 로그인 사용자가 연 세션은 본인만 보고, 비로그인 검진은
+     * 세션 id(UUID) 자체를 아는 것으로 본다. 세션이 없으면 false 다.
+     */
+    @Transactional(readOnly = true)
+    public boolean canAccess(UUID sessionId, String username) {
+        return aiCheckSessionRepository.findById(sessionId)
+                .map(session -> session.getUser() == null || session.getUser().getUsername().equals(username))
+                .orElse(false);
+    }
+
+    /** 지연 생성 리포트의 렌더링 재료. PDF를 요청하지 않은 검진이면 비어 있다. */
+    @Transactional(readOnly = true)
+    public Optional<AiCheckRecord.PdfSource> findPdfSource(UUID sessionId) {
+        return aiDecisionRecordRepository.findBySessionId(sessionId)
+                .map(record -> record.getDecisionJson().get(PDF_SOURCE_KEY))
+                .map(payload -> objectMapper.convertValue(payload, AiCheckRecord.PdfSource.class));
+    }
+
+    /** 배치 검진은 사진마다 ai_images 행을 두고, 품질/탐지 결과를 각 사진에 붙인다. */
+    private void writeImages(AiCheckSessionEntity session, AiCheckRecord record) {
+        List<AiCheckRecord.Image> images = record.images();
+        for (int i = 0; i < images.size(); i++) {
+            AiCheckRecord.Image source = images.get(i);
+            AiImageEntity image = AiImageEntity.builder()
+                    .session(session)
+                    .imageUrl("ai-check/" + session.getId() + "/upload/" + i)
+                    .imageHash(source.imageHash())
+                    .build();
+            entityManager.persist(image);
+            writeImageResults(session, image, source.quality(), source.qualityPass(), source.detections());
+        }
+    }
+
+    private void writeImageResults(AiCheckSessionEntity session, AiImageEntity image, AiQualityResponse quality,
+            boolean qualityPass, List<AiCheckRecord.Detection> detections) {
+        if (quality != null) {
+            List<String> reasons = quality.getReasons() == null ? List.of() : quality.getReasons();
+            entityManager.persist(AiImageQualityEntity.builder()
+                    .image(image)
+                    .isPass(qualityPass)
+                    .failReason(qualityPass || reasons.isEmpty() ? null : reasons.get(0))
+                    .score(quality.getScore() == null ? null : decimal(quality.getScore(), 3))
+                    .detailJson(objectMapper.convertValue(quality, MAP_TYPE))
+                    .build());
+        }
+
+        if (detections != null) {
+            for (AiCheckRecord.Detection d : detections) {
+                entityManager.persist(AiDetectionEntity.builder()
+                        .session(session)
+                        .image(image)
+                        .modelName(DETECTION_MODEL_NAME)
+                        .label(d.label() == null ? "" : d.label())
+                        .confidence(decimal(d.confidence(), 4))
+                        .bboxX(decimal(d.x(), 6))
+                        .bboxY(decimal(d.y(), 6))
+                        .bboxW(decimal(d.w(), 6))
+                        .bboxH(decimal(d.h(), 6))
+                        .build());
+            }
+        }
+    }
+
+    private void writeSessionResults(AiCheckSessionEntity session, AiCheckRecord record) {
+        AiCheckRecord.Report report = record.report();
+        if (report != null) {
+            entityManager.persist(AiReportEntity.builder()
+                    .session(session)
+                    .summary(report.summary())
+                    .details(report.details())
+                    .disclaimer(report.disclaimer())
+                    .build());
+        }
+
+        Map<String, Object> decision = new LinkedHashMap<>();
+        decision.put(record.kind().key(), objectMapper.convertValue(record.response(), MAP_TYPE));
+        decision.put(QUALITY_PASS_KEY, record.qualityPass());
+        if (record.pdfSource() != null) {
+            decision.put(PDF_SOURCE_KEY, objectMapper.convertValue(record.pdfSource(), MAP_TYPE));
+        }
+        entityManager.persist(AiDecisionRecordEntity.builder()
+                .session(session)
+                .decisionJson(decision)
+                .capturedAt(LocalDateTime.now())
+                .build());
+    }
+
+    private AiImageEntity newImage(AiCheckSessionEntity session, String imageHash) {
+        return AiImageEntity.builder()
+                .session(session)
+                .imageUrl("ai-check/" + session.getId() + "/upload")
+                .imageHash(imageHash)
+                .build();
+    }
+
+    private UserEntity findUser(String username, Map<String, UserEntity> users) {
+        if (username == null) {
+            return null;
+        }
+        return users.computeIfAbsent(username, name -> userRepository.findByUsername(name).orElse(null));
+    }
+
+    private AiResultCache.Kind kindOf(AiCheckSessionEntity session) {
+        Map<String, Object> meta = session.getClientMetaJson();
+        boolean generatePdf = meta != null && Boolean.TRUE.equals(meta.get("generatePdf"));
+        return AiResultCache.Kind.analyze(generatePdf);
+    }
+
+    private BigDecimal decimal(Double value, int scale) {
+        return BigDecimal.valueOf(value == null ? 0.0 : value).setScale(scale, RoundingMode.HALF_UP);
+    }
+}
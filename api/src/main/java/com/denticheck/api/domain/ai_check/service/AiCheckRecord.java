@@ -0,0 +1,150 @@
+package com.denticheck.api.domain.ai_check.service;
+
+import com.denticheck.api.domain.ai_check.dto.AiCheckRunResponse;
+import com.denticheck.api.domain.ai_check.dto.AnalyzeResponse;
+import com.denticheck.api.domain.ai_check.dto.DetectionItem;
+import com.denticheck.api.infrastructure.external.ai.dto.AiQualityResponse;
+import lombok.Builder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 검진 한 건을 ai_* 테이블에 쓰기 위한 스냅샷.
+ * 요청 스레드에서는 이 값만 만들고, 실제 INSERT는 AiCheckOutbox 가 모아서 처리한다.
+ */
+@Builder(toBuilder = true)
+public record AiCheckRecord(
+        String sessionId,
+        String username,
+        String status,
+        String imageHash,
+        AiResultCache.Kind kind,
+        AiQualityResponse quality,
+        boolean qualityPass,
+        List<Detection> detections,
+        Report report,
+        PdfSource pdfSource,
+        List<Image> images,
+        Object response) {
+
+    /** 품질 실패로 끝난 동기 검진의 ai_check_sessions.status */
+    public static final String QUALITY_FAILED = "quality_failed";
+
+    public record Detection(String label, Double confidence, Double x, Double y, Double w, Double h) {
+    }
+
+    public record Report(String summary, String details, String disclaimer) {
+    }
+
+    /** 배치 검진의 사진 한 장. images 가 있으면 상위 imageHash/quality/detections 대신 사진별로 저장한다. */
+    public record Image(String imageHash, AiQualityResponse quality, boolean qualityPass,
+            List<Detection> detections) {
+    }
+
+    /** 리포트 PDF를 나중에 그릴 때 쓰는 재료. decision_json.pdf_source 로 남는다. */
+    public record PdfSource(AiCheckRunResponse.LlmResult llmResult, List<DetectionItem> detections) {
+    }
+
+    public static AiCheckRecord ofRun(String imageHash, AiResultCache.Kind kind, AiQualityResponse quality,
+            AiCheckRunResponse response) {
+        List<Detection> detections = response.getDetections() == null ? List.of()
+                : response.getDetections().stream()
+                        .map(AiCheckRecord::toDetection)
+                        .toList();
+
+        Report report = null;
+        AiCheckRunResponse.LlmResult llm = response.getLlmResult();
+        if (llm != null) {
+            String summary = llm.getOverall() == null ? "" : nullToEmpty(llm.getOverall().getOneLineSummary());
+            String details = llm.getFindings() == null ? ""
+                    : llm.getFindings().stream()
+                            .map(f -> nullToEmpty(f.getTitle()) + ": " + nullToEmpty(f.getLocationText()))
+                            .collect(Collectors.joining("\n"));
+            report = new Report(summary, details, joinLines(llm.getDisclaimer()));
+        }
+
+        return AiCheckRecord.builder()
+                .sessionId(response.getSessionId())
+                .status(response.getStatus() == null ? AiCheckStage.DONE.status() : response.getStatus())
+                .imageHash(imageHash)
+                .kind(kind)
+                .quality(quality)
+                .qualityPass(Boolean.TRUE.equals(response.getQualityPass()))
+                .detections(detections)
+                .report(report)
+                .response(response)
+                .build();
+    }
+
+    public static AiCheckRecord ofAnalyze(String imageHash, AiResultCache.Kind kind, AiQualityResponse quality,
+            boolean qualityPass, AnalyzeResponse response) {
+        List<Detection> detections = response.getDetections() == null ? List.of()
+                : response.getDetections().stream()
+                        .map(AiCheckRecord::toDetection)
+                        .toList();
+
+        Report report = null;
+        AnalyzeResponse.LlmResult llm = response.getLlmResult();
+        if (llm != null) {
+            String details = llm.getFindings() == null ? ""
+                    : llm.getFindings().stream()
+                            .map(f -> nullToEmpty(f.getTitle()) + ": " + nullToEmpty(f.getDetail()))
+                            .collect(Collectors.joining("\n"));
+            report = new Report(nullToEmpty(llm.getSummary()), details, joinLines(llm.getDisclaimer()));
+        }
+
+        return AiCheckRecord.builder()
+                .sessionId(response.getSessionId())
+                .status(qualityPass ? AiCheckStage.DONE.status() : QUALITY_FAILED)
+                .imageHash(imageHash)
+                .kind(kind)
+                .quality(quality)
+                .qualityPass(qualityPass)
+                .detections(detections)
+                .report(report)
+                .response(response)
+                .build();
+    }
+
+    /** 여러 장을 합친 검진 한 건. 탐지는 imageIndex 로 사진별로 나눠 저장한다. */
+    public static AiCheckRecord ofAnalyzeBatch(List<String> imageHashes, List<AiQualityResponse> qualities,
+            AiResultCache.Kind kind, AnalyzeResponse response) {
+        List<Image> images = new ArrayList<>(imageHashes.size());
+        for (int i = 0; i < imageHashes.size(); i++) {
+            int index = i;
+            List<Detection> detections = response.getDetections() == null ? List.of()
+                    : response.getDetections().stream()
+                            .filter(d -> d.getImageIndex() != null && d.getImageIndex() == index)
+                            .map(AiCheckRecord::toDetection)
+                            .toList();
+            AnalyzeResponse.ImageResult result = response.getImages().get(i);
+            images.add(new Image(imageHashes.get(i), qualities.get(i), Boolean.TRUE.equals(result.getQualityPass()),
+                    detections));
+        }
+
+        AiCheckRecord single = ofAnalyze(null, kind, null,
+                images.stream().anyMatch(Image::qualityPass), response);
+        return single.toBuilder()
+                .detections(List.of())
+                .images(images)
+                .build();
+    }
+
+    private static Detection toDetection(DetectionItem d) {
+        return new Detection(d.getLabel(), d.getConfidence(),
+                d.getBbox() == null ? null : d.getBbox().getX(),
+                d.getBbox() == null ? null : d.getBbox().getY(),
+                d.getBbox() == null ? null : d.getBbox().getW(),
+                d.getBbox() == null ? null : d.getBbox().getH());
+    }
+
+    private static String joinLines(List<String> lines) {
+        return lines == null ? "" : String.join("\n", lines);
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
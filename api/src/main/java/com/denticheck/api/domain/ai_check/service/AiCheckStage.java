@@ -0,0 +1,38 @@
+package com.denticheck.api.domain.ai_check.service;
+
+import java.util.Locale;
+
+/**
+ * 비동기 AI 검진 작업의 진행 단계. ai_check_sessions.status 에 소문자 이름으로 저장된다.
+ * quality → detect → llm → pdf 순서로 진행되며, 품질 실패 시 detect는 건너뛴다.
+ */
+public enum AiCheckStage {
+    QUEUED,
+    QUALITY,
+    DETECT,
+    LLM,
+    PDF,
+    DONE,
+    ERROR;
+
+    public String status() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    public boolean isTerminal() {
+        return this == DONE || this == ERROR;
+    }
+
+    /** 동기 검진이 남긴 quality_failed 도 끝난 검진이므로 DONE 으로 본다. 모르는 값은 ERROR 다. */
+    public static AiCheckStage fromStatus(String status) {
+        if (AiCheckRecord.QUALITY_FAILED.equalsIgnoreCase(status)) {
+            return DONE;
+        }
+        for (AiCheckStage stage : values()) {
+            if (stage.status().equalsIgnoreCase(status)) {
+                return stage;
+            }
+        }
+        return ERROR;
+    }
+}
@@ -0,0 +1,153 @@
+package com.denticheck.api.domain.ai_check.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AI 검진 요청의 단계별 소요 시간.
+ * 요청마다 start(endpoint) 로 Trace 를 만들고 단계가 바뀔 때 stage(...) 로 넘긴 뒤, 끝나면 finish(outcome) 으로 한꺼번에 기록한다.
+ * outcome 은 요청이 끝나야 알 수 있으므로 그 전까지 단계 시간은 Trace 에 모아 둔다.
+ * 단계별 ai.check.stage{endpoint,stage,outcome} 와 요청 전체 ai.check.request{endpoint,outcome} 타이머를 히스토그램과 함께 노출해
+ * /actuator/prometheus 에서 p99 가 어느 단계에서 나오는지 볼 수 있다.
+ */
+@Component
+@RequiredArgsConstructor
+public class AiCheckTimings {
+
+    public static final String UPLOAD_READ = "upload_read";
+    public static final String PREPROCESS = "preprocess";
+    public static final String QUALITY = "quality";
+    public static final String DETECT = "detect";
+    public static final String LLM = "llm";
+    public static final String PDF = "pdf";
+    public static final String STORAGE_UPLOAD = "storage_upload";
+
+    public static final String DONE = "done";
+    public static final String QUALITY_FAILED = "quality_failed";
+    public static final String FALLBACK = "fallback";
+    public static final String ERROR = "error";
+    /** 결과 캐시로 응답한 경우. 다른 결과의 분포를 흐리지 않도록 따로 센다. */
+    public static final String CACHED = "cached";
+
+    /** 히스토그램 버킷 상한. LLM 단계가 분석 제한 시간까지 걸릴 수 있어 기본값(30초)보다 넓힌다. */
+    @Value("${ai.analyze.timeout:3m}")
+    private Duration maximumExpected;
+
+    private final MeterRegistry meterRegistry;
+
+    public Trace start(String endpoint) {
+        return new Trace(endpoint);
+    }
+
+    /** 요청 흐름 밖(백그라운드 업로드 등)에서 잰 단계 하나를 바로 기록한다. */
+    public void record(String endpoint, String stage, String outcome, long nanos) {
+        stageTimer(endpoint, stage, outcome).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer stageTimer(String endpoint, String stage, String outcome) {
+        return Timer.builder("ai.check.stage")
+                .description("AI check latency per pipeline stage")
+                .tag("endpoint", endpoint)
+                .tag("stage", stage)
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.99)
+                .publishPercentileHistogram()
+                .maximumExpectedValue(maximumExpected)
+                .register(meterRegistry);
+    }
+
+    private Timer requestTimer(String endpoint, String outcome) {
+        return Timer.builder("ai.check.request")
+                .description("AI check end-to-end latency")
+                .tag("endpoint", endpoint)
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.99)
+                .publishPercentileHistogram()
+                .maximumExpectedValue(maximumExpected)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 요청 하나의 단계 기록. 분석 작업 스레드와 제한 시간을 기다리는 호출 스레드가 함께 쓰므로 동기화하며,
+     * finish 이후의 호출(제한 시간이 지난 뒤 끝난 작업)은 무시한다.
+     */
+    public final class Trace {
+
+        private final String endpoint;
+        private final long startedAt = System.nanoTime();
+        private final Map<String, Long> stages = new LinkedHashMap<>();
+
+        private String current;
+        private long currentStartedAt;
+        private String outcome = DONE;
+        private boolean finished;
+
+        private Trace(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        /** 진행 중인 단계를 닫고 stage 를 시작한다. 같은 단계가 다시 오면 시간을 더한다. */
+        public synchronized void stage(String stage) {
+            if (finished) {
+                return;
+            }
+            long now = System.nanoTime();
+            closeCurrent(now);
+            current = stage;
+            currentStartedAt = now;
+        }
+
+        /** 진행 중인 단계를 닫는다. 다음 stage 까지의 시간은 어느 단계에도 넣지 않는다. */
+        public synchronized void pause() {
+            if (!finished) {
+                closeCurrent(System.nanoTime());
+            }
+        }
+
+        /** 파이프라인 진행 알림(quality → detect → llm → pdf)을 같은 이름의 단계로 옮긴다. */
+        public void progress(AiCheckStage stage) {
+            switch (stage) {
+                case QUALITY, DETECT, LLM, PDF -> stage(stage.status());
+                default -> {
+                }
+            }
+        }
+
+        /** finish 에 outcome 을 넘기지 않을 때 쓸 결과. 파이프라인 안에서 품질 실패처럼 결과가 정해질 때 쓴다. */
+        public synchronized void outcome(String outcome) {
+            this.outcome = outcome;
+        }
+
+        public void finish() {
+            finish(null);
+        }
+
+        /** 모은 단계 시간과 전체 시간을 outcome 태그로 기록한다. 두 번째 호출부터는 무시한다. */
+        public synchronized void finish(String outcome) {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            long now = System.nanoTime();
+            closeCurrent(now);
+            String result = outcome == null ? this.outcome : outcome;
+            stages.forEach((stage, nanos) -> stageTimer(endpoint, stage, result).record(nanos, TimeUnit.NANOSECONDS));
+            requestTimer(endpoint, result).record(now - startedAt, TimeUnit.NANOSECONDS);
+        }
+
+        private void closeCurrent(long now) {
+            if (current != null) {
+                stages.merge(current, now - currentStartedAt, Long::sum);
+                current = null;
+            }
+        }
+    }
+}
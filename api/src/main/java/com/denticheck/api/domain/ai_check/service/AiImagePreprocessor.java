@@ -0,0 +1,256 @@
+package com.denticheck.api.domain.ai_check.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AI 서버로 보내기 전에 업로드 이미지를 디코드해 EXIF 방향을 적용하고, 모델 입력 크기(max-dimension)까지 줄여
+ * JPEG 로 다시 인코딩한다. 휴대폰 원본(4~12MP)을 그대로 보내면 AI 서버가 매번 큰 이미지를 받아 디코드한 뒤 640px 로 줄이기 때문이다.
+ * 디코드는 서브샘플링으로 필요한 해상도의 두 배 정도만 읽는다.
+ * 읽을 수 없는 형식(webp 등)이거나 이미 충분히 작으면 원본을 그대로 쓴다.
+ * 처리 시간은 ai.preprocess{outcome} 타이머로 남긴다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AiImagePreprocessor {
+
+    private static final int EXIF_ORIENTATION_TAG = 0x0112;
+
+    @Value("${ai.preprocess.enabled:true}")
+    private boolean enabled;
+
+    /** 긴 변의 목표 픽셀 수. YOLO 입력 크기(imgsz)와 맞춘다. */
+    @Value("${ai.preprocess.max-dimension:640}")
+    private int maxDimension;
+
+    @Value("${ai.preprocess.jpeg-quality:0.85}")
+    private float jpegQuality;
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 전처리한 이미지를 새 스풀 파일로 만들어 돌려주고 원본 스풀 파일은 지운다.
+     * 결과 캐시 키는 원본 기준이어야 하므로 sha256 은 원본 값을 그대로 쓴다.
+     */
+    public SpooledUpload prepare(SpooledUpload original) {
+        if (!enabled) {
+            return original;
+        }
+        long startedAt = System.nanoTime();
+        String outcome = "failed";
+        try {
+            SpooledUpload prepared = process(original);
+            outcome = prepared == original ? "skipped" : "processed";
+            return prepared;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Image pre-processing failed for {}. Sending original", original.getFilename(), e);
+            return original;
+        } finally {
+            Timer.builder("ai.preprocess")
+                    .description("Image decode/orient/downscale/re-encode time before AI calls")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private SpooledUpload process(SpooledUpload original) throws IOException {
+        int orientation = readOrientation(original.getPath());
+
+        try (ImageInputStream in = ImageIO.createImageInputStream(original.getPath().toFile())) {
+            Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+            if (readers == null || !readers.hasNext()) {
+                return original;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int storedWidth = reader.getWidth(0);
+                int storedHeight = reader.getHeight(0);
+                boolean transposed = orientation >= 5 && orientation <= 8;
+                int originalWidth = transposed ? storedHeight : storedWidth;
+                int originalHeight = transposed ? storedWidth : storedHeight;
+
+                double scale = Math.min(1.0, (double) maxDimension / Math.max(originalWidth, originalHeight));
+                if (scale == 1.0 && orientation <= 1) {
+                    return original;
+                }
+
+                // 목표 크기의 두 배 이상은 남기고 서브샘플링으로 읽어 디코드 비용과 힙 사용을 줄인다
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, (int) Math.floor(1.0 / (scale * 2)));
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                BufferedImage decoded = reader.read(0, param);
+
+                int width = Math.max(1, (int) Math.round(originalWidth * scale));
+                int height = Math.max(1, (int) Math.round(originalHeight * scale));
+                BufferedImage resized = orientAndScale(decoded, orientation, width, height);
+
+                Path path = Files.createTempFile(original.getPath().getParent(), "ai-upload-", ".jpg");
+                try {
+                    writeJpeg(resized, path);
+                } catch (IOException | RuntimeException e) {
+                    Files.deleteIfExists(path);
+                    throw e;
+                }
+
+                SpooledUpload prepared = new SpooledUpload(path, jpegFilename(original.getFilename()), "image/jpeg",
+                        Files.size(path), original.getSha256(),
+                        new ImageTransform(originalWidth, originalHeight, width, height, orientation));
+                log.debug("Pre-processed {} {}x{} ({} bytes) -> {}x{} ({} bytes)", original.getFilename(),
+                        originalWidth, originalHeight, original.getSize(), width, height, prepared.getSize());
+                original.close();
+                return prepared;
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /** 저장된 방향의 이미지를 EXIF 방향대로 세우면서 width x height 로 줄인다. 투명 영역은 흰색으로 채운다. */
+    private BufferedImage orientAndScale(BufferedImage source, int orientation, int width, int height) {
+        int w = source.getWidth();
+        int h = source.getHeight();
+        AffineTransform orient = switch (orientation) {
+            case 2 -> new AffineTransform(-1, 0, 0, 1, w, 0);
+            case 3 -> new AffineTransform(-1, 0, 0, -1, w, h);
+            case 4 -> new AffineTransform(1, 0, 0, -1, 0, h);
+            case 5 -> new AffineTransform(0, 1, 1, 0, 0, 0);
+            case 6 -> new AffineTransform(0, 1, -1, 0, h, 0);
+            case 7 -> new AffineTransform(0, -1, -1, 0, h, w);
+            case 8 -> new AffineTransform(0, -1, 1, 0, 0, w);
+            default -> new AffineTransform();
+        };
+        boolean transposed = orientation >= 5 && orientation <= 8;
+        double orientedWidth = transposed ? h : w;
+        double orientedHeight = transposed ? w : h;
+
+        AffineTransform transform = AffineTransform.getScaleInstance(width / orientedWidth, height / orientedHeight);
+        transform.concatenate(orient);
+
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(source, transform, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    private void writeJpeg(BufferedImage image, Path path) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(path.toFile())) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    /**
+     * JPEG 의 EXIF(APP1) 에서 방향 태그만 읽는다. JPEG 가 아니거나 태그가 없으면 1(정방향).
+     * ImageIO 는 EXIF 방향을 적용하지 않으므로 직접 읽어야 한다.
+     */
+    static int readOrientation(Path path) {
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(path))) {
+            if (in.readUnsignedShort() != 0xFFD8) {
+                return 1;
+            }
+            while (true) {
+                int marker = in.readUnsignedShort();
+                if ((marker & 0xFF00) != 0xFF00 || marker == 0xFFDA || marker == 0xFFD9) {
+                    return 1;
+                }
+                int length = in.readUnsignedShort() - 2;
+                if (length < 0) {
+                    return 1;
+                }
+                if (marker != 0xFFE1) {
+                    skipFully(in, length);
+                    continue;
+                }
+                byte[] segment = in.readNBytes(length);
+                int orientation = exifOrientation(segment);
+                if (orientation > 0) {
+                    return orientation;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            return 1;
+        }
+    }
+
+    private static int exifOrientation(byte[] segment) {
+        if (segment.length < 14 || !"Exif".equals(new String(segment, 0, 4, StandardCharsets.US_ASCII))) {
+            return 0;
+        }
+        ByteBuffer tiff = ByteBuffer.wrap(segment, 6, segment.length - 6).slice();
+        tiff.order(tiff.get(0) == 'I' ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+        int ifd = tiff.getInt(4);
+        int entries = tiff.getShort(ifd) & 0xFFFF;
+        for (int i = 0; i < entries; i++) {
+            int entry = ifd + 2 + i * 12;
+            if ((tiff.getShort(entry) & 0xFFFF) == EXIF_ORIENTATION_TAG) {
+                int value = tiff.getShort(entry + 8) & 0xFFFF;
+                return value >= 1 && value <= 8 ? value : 1;
+            }
+        }
+        return 0;
+    }
+
+    private static void skipFully(InputStream in, long n) throws IOException {
+        while (n > 0) {
+            long skipped = in.skip(n);
+            if (skipped <= 0) {
+                if (in.read() < 0) {
+                    throw new IOException("Unexpected end of JPEG");
+                }
+                skipped = 1;
+            }
+            n -= skipped;
+        }
+    }
+
+    private String jpegFilename(String filename) {
+        int dot = filename.lastIndexOf('.');
+        String base = dot > 0 ? filename.substring(0, dot) : filename;
+        return base + ".jpg";
+    }
+}
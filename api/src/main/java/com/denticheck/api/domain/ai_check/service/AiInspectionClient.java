@@ -0,0 +1,357 @@
+package com.denticheck.api.domain.ai_check.service;
+
+import com.denticheck.api.infrastructure.external.ai.AiCallScope;
+import com.denticheck.api.infrastructure.external.ai.AiCircuitBreakers;
+import com.denticheck.api.infrastructure.external.ai.dto.AiDetectResponse;
+import com.denticheck.api.infrastructure.external.ai.dto.AiInspectResponse;
+import com.denticheck.api.infrastructure.external.ai.dto.AiQualityResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * AI 서버의 /v1/quality, /v1/detect 호출을 담당한다.
+ * 호출 방식은 ai.pipeline.mode 로 고르며, 단계별 소요 시간은 ai.pipeline.stage 타이머로 기록한다.
+ * 여러 장은 inspectBatch 로 한 번에 보낸다.
+ * 엔드포인트마다 서킷 브레이커를 두어, AI 서버가 내려가 있으면 타임아웃을 기다리지 않고 CircuitOpenException 으로 바로 실패한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AiInspectionClient {
+
+    private static final String QUALITY_PATH = "/v1/quality";
+    private static final String DETECT_PATH = "/v1/detect";
+
+    @Value("${ai.client.url}")
+    private String aiBaseUrl;
+
+    @Value("${ai.pipeline.mode:sequential}")
+    private AiPipelineMode pipelineMode;
+
+    @Value("${ai.pipeline.fused-path:/v1/inspect}")
+    private String fusedPath;
+
+    @Value("${ai.pipeline.batch-path:/v1/inspect/batch}")
+    private String batchPath;
+
+    @Qualifier("aiRestTemplate")
+    private final RestTemplate aiRestTemplate;
+    @Qualifier("aiStageExecutor")
+    private final ThreadPoolTaskExecutor aiStageExecutor;
+    private final MeterRegistry meterRegistry;
+    private final AiCircuitBreakers aiCircuitBreakers;
+
+    private final AtomicBoolean fusedUnsupported = new AtomicBoolean(false);
+    private final AtomicBoolean batchUnsupported = new AtomicBoolean(false);
+
+    /**
+     * 품질 검사와 질환 탐지를 수행한다. 품질 검사에 실패하면 detect 결과는 비어 있다.
+     */
+    public Inspection inspect(SpooledUpload upload) {
+        return inspect(upload, stage -> {
+        });
+    }
+
+    /**
+     * progress 에는 QUALITY, (품질 통과 시) DETECT 순서로 단계가 전달된다.
+     */
+    public Inspection inspect(SpooledUpload upload, Consumer<AiCheckStage> progress) {
+        AiPipelineMode mode = effectiveMode();
+        long startedAt = System.nanoTime();
+        progress.accept(AiCheckStage.QUALITY);
+        try {
+            return switch (mode) {
+                case SEQUENTIAL -> inspectSequential(upload, progress);
+                case PARALLEL -> inspectParallel(upload, progress);
+                case FUSED -> inspectFused(upload, progress, true);
+            };
+        } finally {
+            stageTimer("total", mode).record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * 여러 장을 한 번의 요청으로 검사한다. 결과는 uploads 와 같은 순서다.
+     * AI 서버에 배치 엔드포인트가 없으면 장마다 inspect 를 병렬로 호출한다.
+     */
+    public List<Inspection> inspectBatch(List<SpooledUpload> uploads, Consumer<AiCheckStage> progress) {
+        long startedAt = System.nanoTime();
+        progress.accept(AiCheckStage.QUALITY);
+        try {
+            if (!batchUnsupported.get()) {
+                try {
+                    List<Inspection> inspections = postBatch(uploads);
+                    progress.accept(AiCheckStage.DETECT);
+                    return inspections;
+                } catch (HttpClientErrorException e) {
+                    if (e.getStatusCode() != HttpStatus.NOT_FOUND
+                            && e.getStatusCode() != HttpStatus.METHOD_NOT_ALLOWED) {
+                        throw e;
+                    }
+                    if (batchUnsupported.compareAndSet(false, true)) {
+                        log.warn("AI server does not support batch endpoint {}. Inspecting images one by one",
+                                batchPath);
+                    }
+                }
+            }
+            return inspectEach(uploads, progress);
+        } finally {
+            batchTimer(uploads.size()).record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private List<Inspection> postBatch(List<SpooledUpload> uploads) {
+        MultiValueMap<String, Object> body = new LinkedMultiValueMap<>();
+        for (SpooledUpload upload : uploads) {
+            body.add("files", filePart("files", upload));
+        }
+        AiInspectResponse.Batch response = postMultipartToAi(batchPath, body, AiInspectResponse.Batch.class);
+
+        List<AiInspectResponse> results = response == null ? List.of() : response.results();
+        if (results.size() != uploads.size()) {
+            throw new IllegalStateException("AI batch returned " + results.size() + " results for "
+                    + uploads.size() + " images");
+        }
+        List<Inspection> inspections = new ArrayList<>(results.size());
+        for (AiInspectResponse result : results) {
+            inspections.add(Inspection.of(result));
+        }
+        return inspections;
+    }
+
+    /**
+     * 장마다 aiStageExecutor 에서 검사하고, 기다리는 것은 호출 스레드에서만 한다.
+     * 풀 안의 작업은 같은 풀에 하위 작업(parallel 모드의 미리 띄우는 detect)을 올려 기다리면 안 된다.
+     * 동시 배치가 코어 스레드를 모두 잡은 채 큐에 쌓인 하위 작업을 기다리며 멈추기 때문이다.
+     * 그래서 장마다의 검사는 fan-out 없는 inspectInPool 로 하고, 병렬성은 장 단위로만 얻는다.
+     */
+    private List<Inspection> inspectEach(List<SpooledUpload> uploads, Consumer<AiCheckStage> progress) {
+        List<CompletableFuture<Inspection>> futures = uploads.stream()
+                .map(upload -> CompletableFuture.supplyAsync(
+                        AiCallScope.propagate(() -> inspectInPool(upload)), aiStageExecutor))
+                .toList();
+        try {
+            List<Inspection> inspections = futures.stream().map(CompletableFuture::join).toList();
+            progress.accept(AiCheckStage.DETECT);
+            return inspections;
+        } catch (CompletionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /** 다른 작업을 띄우지 않는 검사. fused 를 쓸 수 있으면 fused, 아니면 sequential 이다. */
+    private Inspection inspectInPool(SpooledUpload upload) {
+        AiPipelineMode mode = effectiveMode() == AiPipelineMode.FUSED ? AiPipelineMode.FUSED : AiPipelineMode.SEQUENTIAL;
+        Consumer<AiCheckStage> noProgress = stage -> {
+        };
+        long startedAt = System.nanoTime();
+        try {
+            return mode == AiPipelineMode.FUSED
+                    ? inspectFused(upload, noProgress, false)
+                    : inspectSequential(upload, noProgress);
+        } finally {
+            stageTimer("total", mode).record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Inspection inspectSequential(SpooledUpload upload, Consumer<AiCheckStage> progress) {
+        AiQualityResponse quality = timed("quality", AiPipelineMode.SEQUENTIAL,
+                () -> postMultipartToAi(QUALITY_PATH, upload, AiQualityResponse.class));
+        if (!isQualityPass(quality)) {
+            return Inspection.qualityFailed(quality);
+        }
+        progress.accept(AiCheckStage.DETECT);
+        AiDetectResponse detect = timed("detect", AiPipelineMode.SEQUENTIAL,
+                () -> postMultipartToAi(DETECT_PATH, upload, AiDetectResponse.class));
+        return new Inspection(quality, detect, true);
+    }
+
+    private Inspection inspectParallel(SpooledUpload upload, Consumer<AiCheckStage> progress) {
+        // detect를 먼저 띄워 두고 quality는 호출 스레드에서 처리해 두 지연 시간이 겹치도록 한다.
+        // CompletableFuture.cancel 은 실행 중인 HTTP 호출을 멈추지 못하므로, detect 는 따로 끊을 수 있는 scope 에서 보낸다
+        AiCallScope detectScope = AiCallScope.fork();
+        CompletableFuture<AiDetectResponse> detectFuture = CompletableFuture.supplyAsync(
+                () -> detectScope.call(() -> detectScope.isCancelled() ? null
+                        : timed("detect", AiPipelineMode.PARALLEL,
+                                () -> postMultipartToAi(DETECT_PATH, upload, AiDetectResponse.class))),
+                aiStageExecutor);
+
+        AiQualityResponse quality;
+        try {
+            quality = timed("quality", AiPipelineMode.PARALLEL,
+                    () -> postMultipartToAi(QUALITY_PATH, upload, AiQualityResponse.class));
+        } catch (RuntimeException e) {
+            detectScope.cancel();
+            throw e;
+        }
+
+        if (!isQualityPass(quality)) {
+            detectScope.cancel();
+            meterRegistry.counter("ai.pipeline.speculative.discarded").increment();
+            return Inspection.qualityFailed(quality);
+        }
+
+        progress.accept(AiCheckStage.DETECT);
+        try {
+            return new Inspection(quality, detectFuture.join(), true);
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /** fused 엔드포인트가 없으면 allowFanOut 에 따라 parallel, 아니면 sequential 로 넘어간다. */
+    private Inspection inspectFused(SpooledUpload upload, Consumer<AiCheckStage> progress, boolean allowFanOut) {
+        AiInspectResponse fused;
+        try {
+            fused = timed("fused", AiPipelineMode.FUSED,
+                    () -> postMultipartToAi(fusedPath, upload, AiInspectResponse.class));
+        } catch (HttpClientErrorException e) {
+            if (e.getStatusCode() == HttpStatus.NOT_FOUND || e.getStatusCode() == HttpStatus.METHOD_NOT_ALLOWED) {
+                if (fusedUnsupported.compareAndSet(false, true)) {
+                    log.warn("AI server does not support fused endpoint {}. Falling back to parallel mode", fusedPath);
+                }
+                return allowFanOut ? inspectParallel(upload, progress) : inspectSequential(upload, progress);
+            }
+            throw e;
+        }
+
+        Inspection inspection = Inspection.of(fused);
+        if (inspection.qualityPass()) {
+            progress.accept(AiCheckStage.DETECT);
+        }
+        return inspection;
+    }
+
+    private AiPipelineMode effectiveMode() {
+        if (pipelineMode == AiPipelineMode.FUSED && fusedUnsupported.get()) {
+            return AiPipelineMode.PARALLEL;
+        }
+        return pipelineMode;
+    }
+
+    private <T> T postMultipartToAi(String path, SpooledUpload upload, Class<T> type) {
+        MultiValueMap<String, Object> body = new LinkedMultiValueMap<>();
+        body.add("file", filePart("file", upload));
+        return postMultipartToAi(path, body, type);
+    }
+
+    /** 스풀 파일을 그대로 스트리밍하므로 호출마다 이미지 전체를 힙에 복사하지 않는다 */
+    private HttpEntity<?> filePart(String name, SpooledUpload upload) {
+        HttpHeaders partHeaders = new HttpHeaders();
+        partHeaders.setContentDisposition(ContentDisposition
+                .builder("form-data")
+                .name(name)
+                .filename(upload.getFilename())
+                .build());
+        partHeaders.setContentType(MediaType.parseMediaType(upload.getContentType()));
+        return new HttpEntity<>(upload.asResource(), partHeaders);
+    }
+
+    /** 응답 본문은 중간 맵을 거치지 않고 스트림에서 바로 type 으로 역직렬화한다. 본문이 없으면 null */
+    private <T> T postMultipartToAi(String path, MultiValueMap<String, Object> body, Class<T> type) {
+        String url = aiBaseUrl + path;
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.MULTIPART_FORM_DATA);
+
+        HttpEntity<MultiValueMap<String, Object>> entity = new HttpEntity<>(body, headers);
+        ResponseEntity<T> response = aiCircuitBreakers.execute(circuitName(path),
+                () -> aiRestTemplate.postForEntity(url, entity, type));
+        return response.getBody();
+    }
+
+    private String circuitName(String path) {
+        if (QUALITY_PATH.equals(path)) {
+            return AiCircuitBreakers.AI_QUALITY;
+        }
+        if (DETECT_PATH.equals(path)) {
+            return AiCircuitBreakers.AI_DETECT;
+        }
+        if (batchPath.equals(path)) {
+            return AiCircuitBreakers.AI_INSPECT_BATCH;
+        }
+        return AiCircuitBreakers.AI_INSPECT;
+    }
+
+    private <T> T timed(String stage, AiPipelineMode mode, Supplier<T> call) {
+        return stageTimer(stage, mode).record(call);
+    }
+
+    private Timer stageTimer(String stage, AiPipelineMode mode) {
+        return Timer.builder("ai.pipeline.stage")
+                .description("AI server call latency per pipeline stage")
+                .tag("stage", stage)
+                .tag("mode", mode.name().toLowerCase(Locale.ROOT))
+                .publishPercentiles(0.5, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private Timer batchTimer(int images) {
+        return Timer.builder("ai.pipeline.batch")
+                .description("AI server inspection latency for a multi-image batch")
+                .tag("images", String.valueOf(images))
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    private static boolean isQualityPass(AiQualityResponse quality) {
+        return quality != null && quality.isPass();
+    }
+
+    /**
+     * quality/detect 응답. 품질 검사 실패 시 detect는 비어 있고, 응답 본문이 없던 quality 는 실패(점수 0)로 채운다.
+     */
+    public record Inspection(AiQualityResponse quality, AiDetectResponse detect, boolean qualityPass) {
+
+        private static final AiQualityResponse NO_QUALITY = new AiQualityResponse(false, List.of(), 0.0);
+
+        public Inspection {
+            quality = quality == null ? NO_QUALITY : quality;
+            detect = detect == null ? AiDetectResponse.EMPTY : detect;
+        }
+
+        static Inspection qualityFailed(AiQualityResponse quality) {
+            return new Inspection(quality, AiDetectResponse.EMPTY, false);
+        }
+
+        static Inspection of(AiInspectResponse response) {
+            if (response == null || !isQualityPass(response.quality())) {
+                return qualityFailed(response == null ? null : response.quality());
+            }
+            return new Inspection(response.quality(), response.detect(), true);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.denticheck.api.domain.ai_check.service;
+
+import com.denticheck.api.domain.ai_check.dto.AnalyzeResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Ollama 소견 결과 메모. 키는 AiAnalyzeLlmService 가 만든 탐지 지문(정규화 라벨 + 구간화한 confidence)과
+ * 프롬프트 버전/모델이므로, 이미지가 달라도 탐지 패턴이 같으면 LLM 호출 없이 같은 소견을 돌려준다.
+ * 조회 결과는 ai.llm.memo.requests{result=hit|miss} 로 집계한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class AiLlmResultMemo {
+
+    @Value("${ai.llm-memo.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ai.llm-memo.max-size:500}")
+    private int maxSize;
+
+    @Value("${ai.llm-memo.ttl:6h}")
+    private Duration ttl;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Memo> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Memo> eldest) {
+            return size() > maxSize;
+        }
+    };
+
+    public Optional<AnalyzeResponse.LlmResult> get(String fingerprint) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        synchronized (entries) {
+            Memo memo = entries.get(fingerprint);
+            if (memo != null && !memo.isExpired()) {
+                record("hit");
+                return Optional.of(memo.result());
+            }
+            if (memo != null) {
+                entries.remove(fingerprint);
+            }
+        }
+        record("miss");
+        return Optional.empty();
+    }
+
+    public void put(String fingerprint, AnalyzeResponse.LlmResult result) {
+        if (!enabled || result == null) {
+            return;
+        }
+        long expiresAt = System.nanoTime() + ttl.toNanos();
+        synchronized (entries) {
+            entries.put(fingerprint, new Memo(result, expiresAt));
+        }
+    }
+
+    private void record(String result) {
+        meterRegistry.counter("ai.llm.memo.requests", "result", result).increment();
+    }
+
+    private record Memo(AnalyzeResponse.LlmResult result, long expiresAtNanos) {
+
+        boolean isExpired() {
+            return System.nanoTime() - expiresAtNanos > 0;
+        }
+    }
+}
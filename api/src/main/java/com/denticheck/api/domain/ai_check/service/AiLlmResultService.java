@@ -1,6 +1,7 @@
 package com.denticheck.api.domain.ai_check.service;
 
 import com.denticheck.api.domain.ai_check.dto.AiCheckRunResponse;
+import com.denticheck.api.domain.ai_check.dto.DetectionItem;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -23,12 +24,12 @@ public class AiLlmResultService {
     private boolean aiEnabled;
 
     public AiCheckRunResponse.LlmResult generate(
-            List<AiCheckRunResponse.DetectionItem> detections,
+            List<DetectionItem> detections,
             boolean qualityPass,
             double qualityScore,
             List<String> contexts
     ) {
-        List<AiCheckRunResponse.DetectionItem> safeDetections = detections == null ? List.of() : detections;
+        List<DetectionItem> safeDetections = detections == null ? List.of() : detections;
         AiCheckRunResponse.LlmResult fallback = buildRuleBased(safeDetections);
         if (!aiEnabled) {
             return fallback;
@@ -62,8 +63,8 @@ public class AiLlmResultService {
                 .build();
     }
 
-    private AiCheckRunResponse.LlmResult buildRuleBased(List<AiCheckRunResponse.DetectionItem> detections) {
-        Map<String, List<AiCheckRunResponse.DetectionItem>> grouped = detections.stream()
+    private AiCheckRunResponse.LlmResult buildRuleBased(List<DetectionItem> detections) {
+        Map<String, List<DetectionItem>> grouped = detections.stream()
                 .filter(d -> d.getLabel() != null)
                 .map(this::normalizeDetectionLabel)
                 .collect(Collectors.groupingBy(d -> d.getLabel().toLowerCase(Locale.ROOT)));
@@ -97,7 +98,7 @@ public class AiLlmResultService {
                 .build();
     }
 
-    private AiCheckRunResponse.DetectionItem normalizeDetectionLabel(AiCheckRunResponse.DetectionItem d) {
+    private DetectionItem normalizeDetectionLabel(DetectionItem d) {
         String raw = d.getLabel() == null ? "normal" : d.getLabel().toLowerCase(Locale.ROOT).trim();
         String normalized = switch (raw) {
             case "caries", "cavity" -> "caries";
@@ -106,17 +107,17 @@ public class AiLlmResultService {
             default -> "normal";
         };
 
-        return AiCheckRunResponse.DetectionItem.builder()
+        return DetectionItem.builder()
                 .label(normalized)
                 .confidence(d.getConfidence())
                 .bbox(d.getBbox())
                 .build();
     }
 
-    private String computeOverallLevel(Map<String, List<AiCheckRunResponse.DetectionItem>> grouped) {
+    private String computeOverallLevel(Map<String, List<DetectionItem>> grouped) {
         double oralCancerMax = grouped.getOrDefault("oral_cancer", List.of())
                 .stream()
-                .map(AiCheckRunResponse.DetectionItem::getConfidence)
+                .map(DetectionItem::getConfidence)
                 .filter(Objects::nonNull)
                 .max(Comparator.naturalOrder())
                 .orElse(0.0);
@@ -130,7 +131,7 @@ public class AiLlmResultService {
         return "GREEN";
     }
 
-    private List<AiCheckRunResponse.Finding> buildFindings(Map<String, List<AiCheckRunResponse.DetectionItem>> grouped) {
+    private List<AiCheckRunResponse.Finding> buildFindings(Map<String, List<DetectionItem>> grouped) {
         if (grouped.isEmpty() || (grouped.size() == 1 && grouped.containsKey("normal"))) {
             return List.of(defaultNormalFinding());
         }
@@ -139,17 +140,17 @@ public class AiLlmResultService {
         List<AiCheckRunResponse.Finding> findings = new ArrayList<>();
 
         for (String label : ordered) {
-            List<AiCheckRunResponse.DetectionItem> items = grouped.getOrDefault(label, List.of());
+            List<DetectionItem> items = grouped.getOrDefault(label, List.of());
             if (items.isEmpty()) continue;
             if ("normal".equals(label) && grouped.size() > 1) continue;
 
             double maxConfidence = items.stream()
-                    .map(AiCheckRunResponse.DetectionItem::getConfidence)
+                    .map(DetectionItem::getConfidence)
                     .filter(Objects::nonNull)
                     .max(Comparator.naturalOrder())
                     .orElse(0.0);
 
-            AiCheckRunResponse.DetectionItem best = items.stream()
+            DetectionItem best = items.stream()
                     .max(Comparator.comparing(v -> v.getConfidence() == null ? 0.0 : v.getConfidence()))
                     .orElse(null);
 
@@ -179,7 +180,7 @@ public class AiLlmResultService {
         return "Low";
     }
 
-    private String locationText(AiCheckRunResponse.DetectionItem detection) {
+    private String locationText(DetectionItem detection) {
         if (detection == null || detection.getBbox() == null) {
             return "Location unavailable";
         }
@@ -0,0 +1,15 @@
+package com.denticheck.api.domain.ai_check.service;
+
+/**
+ * quality/detect 호출 방식.
+ * <ul>
+ *     <li>SEQUENTIAL: quality 통과 후 detect 호출 (기존 동작)</li>
+ *     <li>PARALLEL: detect를 quality와 동시에 시작하고, quality 실패 시 detect 결과는 버림</li>
+ *     <li>FUSED: AI 서버의 통합 엔드포인트로 한 번에 요청. 서버가 지원하지 않으면 PARALLEL로 동작</li>
+ * </ul>
+ */
+public enum AiPipelineMode {
+    SEQUENTIAL,
+    PARALLEL,
+    FUSED
+}
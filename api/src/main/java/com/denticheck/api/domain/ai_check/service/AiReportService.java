@@ -0,0 +1,125 @@
+package com.denticheck.api.domain.ai_check.service;
+
+import com.denticheck.api.common.exception.ai_check.AiCheckErrorCode;
+import com.denticheck.api.common.exception.ai_check.AiCheckException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 검진 리포트 PDF를 첫 다운로드 시점에 만든다.
+ * 검진 응답의 pdfUrl은 GET /api/ai-check/reports/{sessionId} 를 가리키고, 처음 열릴 때
+ * 저장된 LLM 결과와 탐지 결과(decision_json.pdf_source)로 렌더링해 저장소에 올린 뒤 그 주소로 보낸다.
+ * 이후 요청은 저장소에 있는 파일을 그대로 쓴다.
+ * 주소를 내준 세션의 렌더링 재료는 DB에 기록될 때까지 메모리에 두고, 기록된 뒤에는 DB에서 읽는다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AiReportService {
+
+    @Value("${report.download-base-url:http://localhost:8080/api/ai-check/reports}")
+    private String downloadBaseUrl;
+
+    /** outbox 에 쌓일 수 있는 만큼은 담아야 기록 전에 밀려나지 않으므로 기본값을 outbox 용량과 맞춘다. */
+    @Value("${report.pending.max-size:${ai.persistence.outbox.capacity:10000}}")
+    private int pendingMaxSize;
+
+    private final PdfReportService pdfReportService;
+    private final ReportStorageService reportStorageService;
+    private final AiCheckPersistenceService aiCheckPersistenceService;
+    private final AiCheckTimings aiCheckTimings;
+
+    /**
+     * 아직 DB에 기록되지 않은(outbox 대기 중인) 세션의 렌더링 재료. 기록되면 persisted 로 빠진다.
+     * 기록이 버려지거나 실패한 세션만 남으므로, 용량을 넘으면 오래 안 쓴 것부터 버린다.
+     */
+    private final Map<String, AiCheckRecord.PdfSource> pending = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, AiCheckRecord.PdfSource> eldest) {
+            return size() > pendingMaxSize;
+        }
+    };
+
+    private final ConcurrentMap<String, CompletableFuture<String>> rendering = new ConcurrentHashMap<>();
+
+    /**
+     * PDF를 만들지 않고 렌더링 재료만 기억해 둔 뒤 다운로드 주소를 돌려준다.
+     */
+    public String defer(String sessionId, AiCheckRecord.PdfSource source) {
+        synchronized (pending) {
+            pending.put(sessionId, source);
+        }
+        return downloadBaseUrl.endsWith("/") ? downloadBaseUrl + sessionId : downloadBaseUrl + "/" + sessionId;
+    }
+
+    /** 세션이 렌더링 재료(decision_json.pdf_source)와 함께 DB에 기록됐다. 이후로는 DB에서 읽는다. */
+    public void persisted(String sessionId) {
+        synchronized (pending) {
+            pending.remove(sessionId);
+        }
+    }
+
+    /**
+     * 저장소에 올라간 PDF 주소. 없으면 이 자리에서 렌더링해 올리며, 같은 세션의 동시 요청은 한 번만 렌더링한다.
+     */
+    public String resolve(UUID sessionId) {
+        String key = sessionId.toString();
+        Optional<String> stored = reportStorageService.findPdf(key);
+        if (stored.isPresent()) {
+            return stored.get();
+        }
+
+        CompletableFuture<String> created = new CompletableFuture<>();
+        CompletableFuture<String> inFlight = rendering.putIfAbsent(key, created);
+        if (inFlight != null) {
+            return inFlight.join();
+        }
+        try {
+            String url = render(sessionId);
+            created.complete(url);
+            return url;
+        } catch (RuntimeException e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            rendering.remove(key, created);
+        }
+    }
+
+    private String render(UUID sessionId) {
+        String key = sessionId.toString();
+        AiCheckRecord.PdfSource source;
+        synchronized (pending) {
+            source = pending.get(key);
+        }
+        if (source == null) {
+            source = aiCheckPersistenceService.findPdfSource(sessionId)
+                    .orElseThrow(() -> new AiCheckException(AiCheckErrorCode.AI_REPORT_NOT_FOUND));
+        }
+
+        AiCheckRecord.PdfSource input = source;
+        AiCheckTimings.Trace trace = aiCheckTimings.start("report");
+        trace.stage(AiCheckTimings.PDF);
+        String url = reportStorageService.storePdf(key,
+                out -> pdfReportService.write(key, input.llmResult(), input.detections(), out));
+        trace.finish(url.isEmpty() ? AiCheckTimings.ERROR : AiCheckTimings.DONE);
+        if (url.isEmpty()) {
+            throw new AiCheckException(AiCheckErrorCode.AI_REPORT_FAILED);
+        }
+        synchronized (pending) {
+            pending.remove(key);
+        }
+        log.debug("Rendered report PDF for session {} on first access", key);
+        return url;
+    }
+}
@@ -0,0 +1,173 @@
+package com.denticheck.api.domain.ai_check.service;
+
+import com.denticheck.api.domain.ai_check.entity.AiDecisionRecordEntity;
+import com.denticheck.api.domain.ai_check.repository.AiDecisionRecordRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 업로드 이미지의 SHA-256 기준 검진 결과 캐시.
+ * 메모리 LRU를 먼저 보고, 없으면(ai.result-cache.db-lookup 이 켜져 있을 때) ai_images.image_hash 로
+ * 이전 세션의 ai_decision_records 를 찾는다.
+ * 조회 결과는 계층마다 ai.result.cache.requests{result=hit|miss, source=memory|db} 로 집계한다.
+ * <p>
+ * 저장된 응답은 다른 사용자의 세션일 수 있으므로 그대로 내보내지 않는다. 호출 측은 Hit 의 응답에서
+ * 세션 id/저장 경로/리포트 주소를 자기 세션 것으로 바꾸고, 리포트는 pdfSource 로 새로 맡긴다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AiResultCache {
+
+    /** 같은 이미지라도 엔드포인트/옵션마다 응답 형태가 다르므로 구분해서 저장한다 */
+    public enum Kind {
+        RUN("run"),
+        QUICK("quick"),
+        ANALYZE("analyze"),
+        ANALYZE_PDF("analyze_pdf"),
+        /** 여러 장을 합친 검진. 사진 한 장의 결과로 재사용되지 않도록 키를 따로 둔다. */
+        ANALYZE_BATCH("analyze_batch");
+
+        private final String key;
+
+        Kind(String key) {
+            this.key = key;
+        }
+
+        public String key() {
+            return key;
+        }
+
+        public static Kind analyze(boolean generatePdf) {
+            return generatePdf ? ANALYZE_PDF : ANALYZE;
+        }
+    }
+
+    @Value("${ai.result-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ai.result-cache.max-size:1000}")
+    private int maxSize;
+
+    @Value("${ai.result-cache.ttl:24h}")
+    private Duration ttl;
+
+    /** 메모리에 없을 때 DB(이전 세션 기록)까지 찾을지. 끄면 메모리 miss 가 곧 검진 실행이다. */
+    @Value("${ai.result-cache.db-lookup:true}")
+    private boolean dbLookup;
+
+    private final AiDecisionRecordRepository aiDecisionRecordRepository;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, CachedResult> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedResult> eldest) {
+            return size() > maxSize;
+        }
+    };
+
+    /** 캐시에 남은 응답과 품질 통과 여부, 리포트 재료. PDF 를 만들지 않은 검진이면 pdfSource 는 null 이다. */
+    public record Hit<T>(T response, boolean qualityPass, AiCheckRecord.PdfSource pdfSource) {
+    }
+
+    public <T> Optional<Hit<T>> get(String imageHash, Kind kind, Class<T> type) {
+        if (!enabled || imageHash == null) {
+            return Optional.empty();
+        }
+
+        String key = cacheKey(imageHash, kind);
+        synchronized (entries) {
+            CachedResult cached = entries.get(key);
+            if (cached != null) {
+                if (!cached.isExpired()) {
+                    record("hit", "memory");
+                    return Optional.of(new Hit<>(type.cast(cached.value()), cached.qualityPass(), cached.pdfSource()));
+                }
+                entries.remove(key);
+            }
+        }
+        record("miss", "memory");
+        if (!dbLookup) {
+            return Optional.empty();
+        }
+
+        Optional<Hit<T>> stored = findStored(imageHash, kind, type);
+        if (stored.isPresent()) {
+            record("hit", "db");
+            remember(key, stored.get().response(), stored.get().qualityPass(), stored.get().pdfSource());
+        } else {
+            record("miss", "db");
+        }
+        return stored;
+    }
+
+    /** 결과를 품질 통과 여부, 리포트 재료와 함께 캐시에 넣고 그대로 돌려준다. */
+    public <T> T put(String imageHash, Kind kind, T response, boolean qualityPass,
+            AiCheckRecord.PdfSource pdfSource) {
+        if (enabled && imageHash != null && response != null) {
+            remember(cacheKey(imageHash, kind), response, qualityPass, pdfSource);
+        }
+        return response;
+    }
+
+    private <T> Optional<Hit<T>> findStored(String imageHash, Kind kind, Class<T> type) {
+        try {
+            LocalDateTime since = LocalDateTime.now().minus(ttl);
+            List<AiDecisionRecordEntity> records = aiDecisionRecordRepository.findRecentByImageHash(
+                    imageHash, since, PageRequest.of(0, 1));
+            if (records.isEmpty() || records.get(0).getDecisionJson() == null) {
+                return Optional.empty();
+            }
+            Map<String, Object> decision = records.get(0).getDecisionJson();
+            Object payload = decision.get(kind.key());
+            if (payload == null) {
+                return Optional.empty();
+            }
+            Object pdfSource = decision.get(AiCheckPersistenceService.PDF_SOURCE_KEY);
+            // quality_pass 가 없는 예전 기록은 통과로 본다
+            boolean qualityPass = !Boolean.FALSE.equals(decision.get(AiCheckPersistenceService.QUALITY_PASS_KEY));
+            return Optional.of(new Hit<>(objectMapper.convertValue(payload, type), qualityPass,
+                    pdfSource == null ? null : objectMapper.convertValue(pdfSource, AiCheckRecord.PdfSource.class)));
+        } catch (Exception e) {
+            // 캐시 조회 실패는 검진 자체를 막지 않는다
+            log.warn("Failed to look up stored AI result for hash {}", imageHash, e);
+            return Optional.empty();
+        }
+    }
+
+    private void remember(String key, Object value, boolean qualityPass, AiCheckRecord.PdfSource pdfSource) {
+        long expiresAt = System.nanoTime() + ttl.toNanos();
+        synchronized (entries) {
+            entries.put(key, new CachedResult(value, qualityPass, pdfSource, expiresAt));
+        }
+    }
+
+    private void record(String result, String source) {
+        meterRegistry.counter("ai.result.cache.requests", "result", result, "source", source).increment();
+    }
+
+    private String cacheKey(String imageHash, Kind kind) {
+        return kind.key() + ":" + imageHash;
+    }
+
+    private record CachedResult(Object value, boolean qualityPass, AiCheckRecord.PdfSource pdfSource,
+            long expiresAtNanos) {
+
+        boolean isExpired() {
+            return System.nanoTime() - expiresAtNanos > 0;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.denticheck.api.domain.ai_check.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AiUploadSpool {
+
+    private static final String DEFAULT_FILENAME = "upload.jpg";
+    private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+
+    @Value("${ai.upload.spool-dir:${java.io.tmpdir}/denticheck-ai}")
+    private String spoolDir;
+
+    private final AiImagePreprocessor aiImagePreprocessor;
+
+    /**
+     * 업로드 파일을 임시 디렉터리로 한 번만 복사한다.
+     * 복사하면서 SHA-256을 함께 계산하므로 결과 캐시 키를 얻으려고 파일을 다시 읽지 않는다.
+     * 전처리는 하지 않는다. 요청 스레드에서는 복사와 해시만 하고, 캐시에 없을 때 분석 작업 안에서 prepare 를 부른다.
+     */
+    public SpooledUpload spool(MultipartFile file) throws IOException {
+        Path dir = Paths.get(spoolDir).toAbsolutePath().normalize();
+        Files.createDirectories(dir);
+
+        Path path = Files.createTempFile(dir, "ai-upload-", ".img");
+        MessageDigest digest = sha256();
+        try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+            Files.copy(in, path, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(path);
+            throw e;
+        }
+
+        String filename = file.getOriginalFilename() == null ? DEFAULT_FILENAME : file.getOriginalFilename();
+        String contentType = file.getContentType() == null ? DEFAULT_CONTENT_TYPE : file.getContentType();
+        String sha256 = HexFormat.of().formatHex(digest.digest());
+        return new SpooledUpload(path, filename, contentType, Files.size(path), sha256);
+    }
+
+    /**
+     * AI 서버로 보낼 이미지를 AiImagePreprocessor 로 모델 입력 크기까지 줄인다. 해시는 원본 기준 그대로다.
+     * 줄였다면 원본 스풀 파일은 지우고 새 파일을 돌려주며, 그대로 쓸 때는 같은 객체를 돌려준다.
+     */
+    public SpooledUpload prepare(SpooledUpload upload) {
+        return aiImagePreprocessor.prepare(upload);
+    }
+
+    private MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.denticheck.api.domain.ai_check.service;
 
 import com.denticheck.api.domain.ai_check.dto.AnalyzeResponse;
+import com.denticheck.api.domain.ai_check.dto.DetectionItem;
 import com.denticheck.api.domain.ai_check.dto.PdfViewModel;
 import org.springframework.stereotype.Component;
 
@@ -20,8 +21,8 @@ public class AnalyzePdfViewMapper {
             "1주 안에 치과 검진 예약을 잡으세요."
     );
 
-    public PdfViewModel toPdfViewModel(AnalyzeResponse.LlmResult llmResult, List<AnalyzeResponse.DetectionItem> detections) {
-        List<AnalyzeResponse.DetectionItem> safeDetections = detections == null ? List.of() : detections;
+    public PdfViewModel toPdfViewModel(AnalyzeResponse.LlmResult llmResult, List<DetectionItem> detections) {
+        List<DetectionItem> safeDetections = detections == null ? List.of() : detections;
         AnalyzeResponse.LlmResult safeLlm = llmResult == null ? AnalyzeResponse.LlmResult.builder().build() : llmResult;
 
         String riskLevel = normalizeRiskLevel(safeLlm.getRiskLevel());
@@ -74,12 +75,12 @@ public class AnalyzePdfViewMapper {
     }
 
     private List<PdfViewModel.Problem> buildProblems(
-            List<AnalyzeResponse.DetectionItem> detections,
+            List<DetectionItem> detections,
             List<AnalyzeResponse.Finding> findings
     ) {
         List<PdfViewModel.Problem> fromDetections = new ArrayList<>();
         Set<String> labels = new LinkedHashSet<>();
-        for (AnalyzeResponse.DetectionItem detection : detections) {
+        for (DetectionItem detection : detections) {
             if (detection == null || detection.getLabel() == null) {
                 continue;
             }
@@ -164,7 +165,7 @@ public class AnalyzePdfViewMapper {
         return new ArrayList<>(merged);
     }
 
-    private PdfViewModel.Visit buildVisit(String riskLevel, List<AnalyzeResponse.DetectionItem> detections) {
+    private PdfViewModel.Visit buildVisit(String riskLevel, List<DetectionItem> detections) {
         boolean hasOralFinding = detections.stream()
                 .filter(d -> d != null && d.getLabel() != null)
                 .map(d -> normalizeLabel(d.getLabel()))
@@ -0,0 +1,19 @@
+package com.denticheck.api.domain.ai_check.service;
+
+/**
+ * 전처리로 AI 서버에 보낸 이미지와 원본 사이의 관계.
+ * 원본 크기는 EXIF 방향을 적용한 뒤(사용자가 보는 방향)의 값이며, 전처리 이미지는 원본 전체를 같은 방향으로 width x height 에 맞춘 것이다.
+ * 따라서 상대 좌표(0~1) bbox 는 그대로 원본 좌표이고, 픽셀 좌표 bbox 만 축소 비율을 되돌리면 된다.
+ */
+public record ImageTransform(int originalWidth, int originalHeight, int width, int height, int orientation) {
+
+    /** AI 서버 bbox(중심 x, 중심 y, 너비, 높이)를 원본 좌표로 옮긴다. 네 값이 모두 1 이하면 상대 좌표로 본다. */
+    public double[] toOriginal(double x, double y, double w, double h) {
+        if (x <= 1.0 && y <= 1.0 && w <= 1.0 && h <= 1.0) {
+            return new double[]{x, y, w, h};
+        }
+        double sx = (double) originalWidth / width;
+        double sy = (double) originalHeight / height;
+        return new double[]{x * sx, y * sy, w * sx, h * sy};
+    }
+}
@@ -0,0 +1,108 @@
+package com.denticheck.api.domain.ai_check.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ollama 스트리밍 응답(JSON 텍스트 조각)을 이어 붙이면서 구조를 따라가는 스캐너.
+ * 최상위 객체가 닫히면 isComplete() 가 true 가 되어 남은 토큰을 기다리지 않고 끊을 수 있고,
+ * "findings" 배열의 원소 객체가 하나 닫힐 때마다 그 JSON 조각을 돌려준다.
+ * 스레드 안전하지 않으며 응답 하나에 하나씩 쓴다.
+ */
+final class LlmJsonStream {
+
+    private static final String FINDINGS_KEY = "findings";
+
+    private final StringBuilder text = new StringBuilder();
+    private int depth;
+    private boolean started;
+    private boolean complete;
+    private boolean inString;
+    private boolean escaped;
+    private int stringStart = -1;
+    private String lastString;
+    private String currentKey;
+    private boolean inFindings;
+    private int findingStart = -1;
+
+    /** 조각을 이어 붙이고, 이번 조각에서 완성된 finding 객체들의 JSON을 돌려준다. */
+    List<String> append(String delta) {
+        List<String> findings = new ArrayList<>();
+        int from = text.length();
+        text.append(delta);
+        for (int i = from; i < text.length() && !complete; i++) {
+            scan(text.charAt(i), i, findings);
+        }
+        return findings;
+    }
+
+    boolean isComplete() {
+        return complete;
+    }
+
+    /** 최상위 객체까지의 텍스트. 닫힌 뒤에 붙은 토큰은 버린다. */
+    String json() {
+        return text.toString().trim();
+    }
+
+    private void scan(char c, int index, List<String> findings) {
+        if (inString) {
+            if (escaped) {
+                escaped = false;
+            } else if (c == '\\') {
+                escaped = true;
+            } else if (c == '"') {
+                inString = false;
+                if (depth == 1) {
+                    lastString = text.substring(stringStart + 1, index);
+                }
+            }
+            return;
+        }
+
+        switch (c) {
+            case '"' -> {
+                inString = true;
+                stringStart = index;
+            }
+            case ':' -> {
+                if (depth == 1) {
+                    currentKey = lastString;
+                }
+            }
+            case ',' -> {
+                if (depth == 1) {
+                    currentKey = null;
+                }
+            }
+            case '{', '[' -> {
+                if (depth == 0) {
+                    started = true;
+                }
+                if (c == '[' && depth == 1 && FINDINGS_KEY.equals(currentKey)) {
+                    inFindings = true;
+                }
+                if (c == '{' && depth == 2 && inFindings) {
+                    findingStart = index;
+                }
+                depth++;
+            }
+            case '}', ']' -> {
+                depth--;
+                if (c == '}' && depth == 2 && inFindings && findingStart >= 0) {
+                    findings.add(text.substring(findingStart, index + 1));
+                    findingStart = -1;
+                }
+                if (c == ']' && depth == 1) {
+                    inFindings = false;
+                }
+                if (depth == 0 && started) {
+                    complete = true;
+                    text.setLength(index + 1);
+                }
+            }
+            default -> {
+            }
+        }
+    }
+}
@@ -1,28 +1,47 @@
 package com.denticheck.api.domain.ai_check.service;
 
 import com.denticheck.api.domain.ai_check.dto.AiCheckRunResponse;
+import com.denticheck.api.domain.ai_check.dto.BBox;
+import com.denticheck.api.domain.ai_check.dto.DetectionItem;
 import com.denticheck.api.domain.ai_check.dto.PdfViewModel;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.fontbox.ttf.TTFParser;
+import org.apache.fontbox.ttf.TrueTypeFont;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.io.RandomAccessReadBuffer;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.PDResources;
 import org.apache.pdfbox.pdmodel.common.PDRectangle;
 import org.apache.pdfbox.pdmodel.font.PDFont;
 import org.apache.pdfbox.pdmodel.font.PDType0Font;
 import org.apache.pdfbox.pdmodel.font.PDType1Font;
 import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
+import org.apache.pdfbox.util.Matrix;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Service;
 
 import java.awt.Color;
 import java.io.ByteArrayOutputStream;
-import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
 @Service
@@ -40,15 +59,99 @@ public class PdfReportService {
     private static final Color COLOR_PANEL_BG = new Color(246, 248, 251);
     private static final Color COLOR_TABLE_HEADER_BG = new Color(239, 244, 252);
 
+    private static final float HEADER_HEIGHT = 78f;
+    private static final float FOOTER_HEIGHT = 26f;
+    private static final String REPORT_TITLE = "DentiCheck AI Dental Report";
+    private static final String FOOTER_DISCLAIMER =
+            "This report is for guidance only and does not replace professional diagnosis.";
+    /** 미리 그려 두는 머리글/바닥글의 폰트 리소스 이름. 문서마다 Form XObject 를 만들 때 같은 이름으로 다시 건다. */
+    private static final COSName STATIC_FONT = COSName.getPDFName("F1");
+    private static final COSName STATIC_BOLD_FONT = COSName.getPDFName("F2");
+
+    private static final String DEFAULT_SUMMARY = "No critical finding detected. Maintain regular oral care and periodic checkups.";
+    private static final String NO_PROBLEM_TEXT = "No major issue summary was provided.";
+    private static final String DEFAULT_ACTION_TEXT = "Maintain daily oral care and schedule regular checkups.";
+    private static final String DEFAULT_VISIT_REASON = "If symptoms persist or worsen, consult a dentist promptly.";
+    private static final String LEGACY_PROBLEM_REASON = "A detailed review is recommended for this finding.";
+    private static final String LEGACY_PROBLEM_ACTION = "Visit a dental clinic for precise assessment and guidance.";
+    private static final String LEGACY_VISIT_REASON = "Professional confirmation is recommended when symptoms continue.";
+    private static final List<String> LEGACY_ACTIONS = List.of(
+            "Brush gently for 2 minutes, 2-3 times per day.",
+            "Use interdental cleaners or floss once daily.",
+            "Limit sugary snacks and rinse with water after meals.",
+            "Book a routine dental checkup within 1-2 weeks."
+    );
+
+    /** 매 리포트에 똑같이 들어가는 문구. 줄바꿈 결과를 한 번만 계산해 재사용한다. */
+    private static final Set<String> STATIC_TEXTS = Set.of(
+            DEFAULT_SUMMARY,
+            NO_PROBLEM_TEXT,
+            DEFAULT_ACTION_TEXT,
+            "Reason: " + DEFAULT_VISIT_REASON,
+            "Reason: " + LEGACY_PROBLEM_REASON,
+            "Action: " + LEGACY_PROBLEM_ACTION,
+            "Reason: " + LEGACY_VISIT_REASON,
+            "1. " + LEGACY_ACTIONS.get(0),
+            "2. " + LEGACY_ACTIONS.get(1),
+            "3. " + LEGACY_ACTIONS.get(2),
+            "4. " + LEGACY_ACTIONS.get(3)
+    );
+
+    /** 한글 폰트 원본. 기동 시 한 번만 읽으며, 없으면 Helvetica로 대체한다. */
+    private final byte[] koreanFontBytes;
+    /**
+     * 파싱된 TrueTypeFont 풀. TrueTypeFont는 스레드 안전하지 않으므로 리포트 하나가 하나를 빌려 쓰고,
+     * 문서 저장(서브셋 임베딩)까지 끝난 뒤 돌려놓는다.
+     */
+    private final BlockingQueue<TrueTypeFont> fontPool;
+    private final Map<String, List<String>> staticLayout = new ConcurrentHashMap<>();
+    /**
+     * 매 리포트에 똑같이 들어가는 머리글(배경 + 제목)과 바닥글(안내 문구)의 그리기 명령.
+     * 기동 시 한 번만 만들고, 문서에는 이 바이트를 담은 Form XObject 로 붙인다.
+     * 임베딩이 필요 없는 표준 14 폰트(Helvetica)로 그려 어느 문서에 붙여도 리소스가 같다.
+     */
+    private final byte[] headerContent;
+    private final byte[] footerContent;
+
+    public PdfReportService(
+            @Value("${report.pdf.font-path:}") String fontPath,
+            @Value("${report.pdf.font-pool-size:0}") int fontPoolSize) {
+        this.koreanFontBytes = loadKoreanFontBytes(fontPath);
+        int poolSize = fontPoolSize > 0 ? fontPoolSize : Runtime.getRuntime().availableProcessors();
+        this.fontPool = new ArrayBlockingQueue<>(poolSize);
+        if (koreanFontBytes != null) {
+            // 첫 요청이 파싱 비용을 떠안지 않도록 하나는 미리 만들어 둔다
+            TrueTypeFont warm = parseKoreanFont();
+            if (warm != null) {
+                fontPool.offer(warm);
+            }
+        }
+        this.headerContent = prebuild(this::drawStaticHeader);
+        this.footerContent = prebuild(this::drawStaticFooter);
+    }
+
     public byte[] generate(
             String sessionId,
             AiCheckRunResponse.LlmResult llmResult,
-            List<AiCheckRunResponse.DetectionItem> detections
+            List<DetectionItem> detections
     ) {
         PdfViewModel view = toLegacyView(llmResult, detections);
         return generateAnalyzeReport(sessionId, view, detections);
     }
 
+    /**
+     * generate와 같은 리포트를 out에 바로 쓴다. 실패하면 IOException을 던지며, out은 닫지 않는다.
+     */
+    public void write(
+            String sessionId,
+            AiCheckRunResponse.LlmResult llmResult,
+            List<DetectionItem> detections,
+            OutputStream out
+    ) throws IOException {
+        PdfViewModel view = toLegacyView(llmResult, detections);
+        writeAnalyzeReport(sessionId, view, detections, out);
+    }
+
     public byte[] generateAnalyzeReport(String sessionId, PdfViewModel viewModel) {
         return generateAnalyzeReport(sessionId, viewModel, List.of());
     }
@@ -56,13 +159,33 @@ public class PdfReportService {
     public byte[] generateAnalyzeReport(
             String sessionId,
             PdfViewModel viewModel,
-            List<AiCheckRunResponse.DetectionItem> detections
+            List<DetectionItem> detections
     ) {
-        try (PDDocument document = new PDDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+        try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            writeAnalyzeReport(sessionId, viewModel, detections, out);
+            return out.toByteArray();
+        } catch (Exception e) {
+            log.error("Failed to generate analyze PDF report", e);
+            return new byte[0];
+        }
+    }
+
+    /**
+     * 리포트를 out으로 바로 저장한다. 중간 byte[]를 만들지 않으므로 파일이나 업로드 스트림에 그대로 연결할 수 있다.
+     * 실패하면 IOException을 던지며, out은 닫지 않는다.
+     */
+    public void writeAnalyzeReport(
+            String sessionId,
+            PdfViewModel viewModel,
+            List<DetectionItem> detections,
+            OutputStream out
+    ) throws IOException {
+        TrueTypeFont koreanFont = borrowKoreanFont();
+        try (PDDocument document = new PDDocument()) {
             PDPage page = new PDPage(PDRectangle.A4);
             document.addPage(page);
 
-            PDFont bodyFont = resolveKoreanFont(document);
+            PDFont bodyFont = resolveKoreanFont(document, koreanFont);
             PDFont boldFont = bodyFont;
             PDFont fallbackBold = new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD);
 
@@ -71,36 +194,52 @@ public class PdfReportService {
             float y = page.getMediaBox().getHeight() - PAGE_MARGIN;
 
             try (PDPageContentStream content = new PDPageContentStream(document, page)) {
-                y = drawHeader(content, boldFont, bodyFont, fallbackBold, sessionId, contentWidth, y);
+                y = drawHeader(document, content, boldFont, bodyFont, fallbackBold, sessionId, contentWidth, y);
                 y -= SECTION_GAP;
 
-                y = drawRiskSummary(content, boldFont, bodyFont, fallbackBold, viewModel, contentWidth, y);
-                y -= SECTION_GAP;
+                y = drawBody(content, boldFont, bodyFont, fallbackBold, viewModel, detections, contentWidth, y);
 
-                y = drawDetectionTable(content, boldFont, bodyFont, fallbackBold, detections, contentWidth, y);
-                y -= SECTION_GAP;
+                drawFooter(document, content, y);
+            }
 
-                y = drawProblemSection(content, boldFont, bodyFont, fallbackBold, viewModel, contentWidth, y);
-                y -= SECTION_GAP;
+            document.save(out);
+        } finally {
+            releaseKoreanFont(koreanFont);
+        }
+    }
 
-                y = drawActionSection(content, boldFont, bodyFont, fallbackBold, viewModel, contentWidth, y);
-                y -= SECTION_GAP;
+    /**
+     * 머리글과 바닥글 사이의 본문(위험도 요약 ~ 내원 권고)을 그리고 다음 y를 돌려준다.
+     * PdfReportBenchmark 의 기준 변형이 같은 본문을 그리도록 패키지 범위로 연다.
+     */
+    float drawBody(
+            PDPageContentStream content,
+            PDFont boldFont,
+            PDFont bodyFont,
+            PDFont fallbackBold,
+            PdfViewModel viewModel,
+            List<DetectionItem> detections,
+            float contentWidth,
+            float y
+    ) throws IOException {
+        y = drawRiskSummary(content, boldFont, bodyFont, fallbackBold, viewModel, contentWidth, y);
+        y -= SECTION_GAP;
 
-                y = drawVisitSection(content, boldFont, bodyFont, fallbackBold, viewModel, contentWidth, y);
-                y -= SECTION_GAP;
+        y = drawDetectionTable(content, boldFont, bodyFont, fallbackBold, detections, contentWidth, y);
+        y -= SECTION_GAP;
 
-                drawFooter(content, bodyFont, fallbackBold, y, contentWidth);
-            }
+        y = drawProblemSection(content, boldFont, bodyFont, fallbackBold, viewModel, contentWidth, y);
+        y -= SECTION_GAP;
 
-            document.save(out);
-            return out.toByteArray();
-        } catch (Exception e) {
-            log.error("Failed to generate analyze PDF report", e);
-            return new byte[0];
-        }
+        y = drawActionSection(content, boldFont, bodyFont, fallbackBold, viewModel, contentWidth, y);
+        y -= SECTION_GAP;
+
+        y = drawVisitSection(content, boldFont, bodyFont, fallbackBold, viewModel, contentWidth, y);
+        return y - SECTION_GAP;
     }
 
     private float drawHeader(
+            PDDocument document,
             PDPageContentStream content,
             PDFont boldFont,
             PDFont bodyFont,
@@ -108,11 +247,10 @@ public class PdfReportService {
             String sessionId,
             float contentWidth,
             float y
-    ) throws Exception {
-        float cardHeight = 78f;
-        drawRect(content, PAGE_MARGIN, y - cardHeight, contentWidth, cardHeight, COLOR_HEADER_BG, null);
-
-        y = writeLine(content, boldFont, fallbackBold, 18f, "DentiCheck AI Dental Report", PAGE_MARGIN + 14f, y - 26f, Color.WHITE);
+    ) throws IOException {
+        // 배경과 제목은 미리 그려 둔 것을 붙이고, 생성 시각과 세션 id만 그린다
+        content.drawForm(staticForm(document, headerContent, headerBox()));
+        y -= 26f;
 
         String generatedAt = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
         y = writeLine(content, bodyFont, fallbackBold, BODY_FONT_SIZE, "Generated: " + generatedAt, PAGE_MARGIN + 14f, y - 8f, new Color(231, 237, 247));
@@ -130,10 +268,10 @@ public class PdfReportService {
             PdfViewModel viewModel,
             float contentWidth,
             float y
-    ) throws Exception {
+    ) throws IOException {
         String riskLevel = valueOrDefault(viewModel, v -> v.getRiskSummary() == null ? null : v.getRiskSummary().getLevelText(), "LOW");
         String oneLineSummary = valueOrDefault(viewModel, v -> v.getRiskSummary() == null ? null : v.getRiskSummary().getOneLineSummary(),
-                "No critical finding detected. Maintain regular oral care and periodic checkups.");
+                DEFAULT_SUMMARY);
 
         float cardHeight = 96f;
         drawRect(content, PAGE_MARGIN, y - cardHeight, contentWidth, cardHeight, COLOR_PANEL_BG, COLOR_BORDER);
@@ -153,10 +291,10 @@ public class PdfReportService {
             PDFont boldFont,
             PDFont bodyFont,
             PDFont fallbackBold,
-            List<AiCheckRunResponse.DetectionItem> detections,
+            List<DetectionItem> detections,
             float contentWidth,
             float y
-    ) throws Exception {
+    ) throws IOException {
         float tableTop = y;
         float headerHeight = 20f;
         float rowHeight = 18f;
@@ -174,7 +312,7 @@ public class PdfReportService {
         writeLine(content, boldFont, fallbackBold, 10f, "BBox (x,y,w,h)", xBbox + 8f, y - 14f, COLOR_TEXT);
         y -= headerHeight;
 
-        List<AiCheckRunResponse.DetectionItem> rows = detections == null ? List.of() : detections;
+        List<DetectionItem> rows = detections == null ? List.of() : detections;
         if (rows.isEmpty()) {
             drawRect(content, PAGE_MARGIN, y - rowHeight, contentWidth, rowHeight, Color.WHITE, COLOR_BORDER);
             writeLine(content, bodyFont, fallbackBold, BODY_FONT_SIZE, "No detected objects", PAGE_MARGIN + 8f, y - 13f, COLOR_MUTED);
@@ -182,7 +320,7 @@ public class PdfReportService {
         } else {
             int maxRows = Math.min(rows.size(), 6);
             for (int i = 0; i < maxRows; i++) {
-                AiCheckRunResponse.DetectionItem row = rows.get(i);
+                DetectionItem row = rows.get(i);
                 Color rowBg = i % 2 == 0 ? Color.WHITE : new Color(250, 251, 253);
                 drawRect(content, PAGE_MARGIN, y - rowHeight, contentWidth, rowHeight, rowBg, COLOR_BORDER);
 
@@ -215,7 +353,7 @@ public class PdfReportService {
             PdfViewModel viewModel,
             float contentWidth,
             float y
-    ) throws Exception {
+    ) throws IOException {
         writeLine(content, boldFont, fallbackBold, 13f, "Key Findings", PAGE_MARGIN, y - 2f, COLOR_TEXT);
         y -= 18f;
 
@@ -223,7 +361,7 @@ public class PdfReportService {
         if (problems.isEmpty()) {
             drawRect(content, PAGE_MARGIN, y - 42f, contentWidth, 42f, COLOR_PANEL_BG, COLOR_BORDER);
             return writeWrapped(content, bodyFont, fallbackBold, BODY_FONT_SIZE,
-                    "No major issue summary was provided.", PAGE_MARGIN + 10f, y - 16f, contentWidth - 20f, COLOR_MUTED);
+                    NO_PROBLEM_TEXT, PAGE_MARGIN + 10f, y - 16f, contentWidth - 20f, COLOR_MUTED);
         }
 
         int maxRows = Math.min(problems.size(), 3);
@@ -250,14 +388,14 @@ public class PdfReportService {
             PdfViewModel viewModel,
             float contentWidth,
             float y
-    ) throws Exception {
+    ) throws IOException {
         writeLine(content, boldFont, fallbackBold, 13f, "Recommended Care", PAGE_MARGIN, y - 2f, COLOR_TEXT);
         y -= 18f;
 
         List<String> actions = viewModel == null || viewModel.getActions() == null ? List.of() : viewModel.getActions();
         if (actions.isEmpty()) {
             return writeWrapped(content, bodyFont, fallbackBold, BODY_FONT_SIZE,
-                    "Maintain daily oral care and schedule regular checkups.", PAGE_MARGIN, y - 2f, contentWidth, COLOR_MUTED);
+                    DEFAULT_ACTION_TEXT, PAGE_MARGIN, y - 2f, contentWidth, COLOR_MUTED);
         }
 
         int maxRows = Math.min(actions.size(), 4);
@@ -276,10 +414,10 @@ public class PdfReportService {
             PdfViewModel viewModel,
             float contentWidth,
             float y
-    ) throws Exception {
+    ) throws IOException {
         String visitLevel = valueOrDefault(viewModel, v -> v.getVisit() == null ? null : v.getVisit().getLevel(), "Observe");
         String visitReason = valueOrDefault(viewModel, v -> v.getVisit() == null ? null : v.getVisit().getReason(),
-                "If symptoms persist or worsen, consult a dentist promptly.");
+                DEFAULT_VISIT_REASON);
 
         float cardHeight = 58f;
         drawRect(content, PAGE_MARGIN, y - cardHeight, contentWidth, cardHeight, COLOR_PANEL_BG, COLOR_BORDER);
@@ -290,18 +428,94 @@ public class PdfReportService {
                 "Reason: " + visitReason, PAGE_MARGIN + 10f, y - 46f, contentWidth - 20f, COLOR_MUTED);
     }
 
-    private void drawFooter(
-            PDPageContentStream content,
-            PDFont bodyFont,
-            PDFont fallbackBold,
-            float y,
-            float contentWidth
-    ) throws Exception {
+    /** 바닥글은 본문 길이에 따라 높이가 달라지므로 미리 그려 둔 것을 footerY 로 옮겨 붙인다. */
+    private void drawFooter(PDDocument document, PDPageContentStream content, float y) throws IOException {
         float footerY = Math.max(y, PAGE_MARGIN + 30f);
-        drawRect(content, PAGE_MARGIN, footerY - 26f, contentWidth, 26f, new Color(250, 250, 250), COLOR_BORDER);
-        writeLine(content, bodyFont, fallbackBold, 9f,
-                "This report is for guidance only and does not replace professional diagnosis.",
-                PAGE_MARGIN + 8f, footerY - 16f, COLOR_MUTED);
+        content.saveGraphicsState();
+        content.transform(Matrix.getTranslateInstance(0, footerY));
+        content.drawForm(staticForm(document, footerContent, footerBox()));
+        content.restoreGraphicsState();
+    }
+
+    /** 머리글 배경과 제목. 페이지 좌표 그대로 그린다. */
+    private void drawStaticHeader(PDPageContentStream content, PDFont font, PDFont boldFont)
+            throws IOException {
+        float top = PDRectangle.A4.getHeight() - PAGE_MARGIN;
+        float contentWidth = PDRectangle.A4.getWidth() - (PAGE_MARGIN * 2);
+        drawRect(content, PAGE_MARGIN, top - HEADER_HEIGHT, contentWidth, HEADER_HEIGHT, COLOR_HEADER_BG, null);
+        writeLine(content, boldFont, null, 18f, REPORT_TITLE,
+                PAGE_MARGIN + 14f, top - 26f, Color.WHITE);
+    }
+
+    /** 바닥글 상자와 안내 문구. 윗변을 y=0 에 두고 그린다. */
+    private void drawStaticFooter(PDPageContentStream content, PDFont font, PDFont boldFont)
+            throws IOException {
+        float contentWidth = PDRectangle.A4.getWidth() - (PAGE_MARGIN * 2);
+        drawRect(content, PAGE_MARGIN, -FOOTER_HEIGHT, contentWidth, FOOTER_HEIGHT, new Color(250, 250, 250),
+                COLOR_BORDER);
+        writeLine(content, font, null, 9f, FOOTER_DISCLAIMER,
+                PAGE_MARGIN + 8f, -16f, COLOR_MUTED);
+    }
+
+    private static PDRectangle headerBox() {
+        float top = PDRectangle.A4.getHeight() - PAGE_MARGIN;
+        return new PDRectangle(PAGE_MARGIN, top - HEADER_HEIGHT, PDRectangle.A4.getWidth() - (PAGE_MARGIN * 2),
+                HEADER_HEIGHT);
+    }
+
+    private static PDRectangle footerBox() {
+        return new PDRectangle(PAGE_MARGIN, -FOOTER_HEIGHT, PDRectangle.A4.getWidth() - (PAGE_MARGIN * 2),
+                FOOTER_HEIGHT);
+    }
+
+    @FunctionalInterface
+    private interface StaticDrawing {
+        void draw(PDPageContentStream content, PDFont font, PDFont boldFont) throws IOException;
+    }
+
+    /**
+     * 빈 문서의 페이지에 한 번 그려 보고 그 내용 스트림 바이트만 남긴다. 좌표는 Form XObject 의 BBox 와 같은 공간이다.
+     * 리소스에 미리 넣어 둔 폰트 객체로 그려야 내용 스트림의 폰트 이름이 F1/F2 로 고정된다.
+     */
+    private byte[] prebuild(StaticDrawing drawing) {
+        try (PDDocument scratch = new PDDocument()) {
+            PDFont font = staticFont(Standard14Fonts.FontName.HELVETICA);
+            PDFont boldFont = staticFont(Standard14Fonts.FontName.HELVETICA_BOLD);
+            PDPage page = new PDPage(PDRectangle.A4);
+            page.setResources(staticResources(font, boldFont));
+            scratch.addPage(page);
+            try (PDPageContentStream content = new PDPageContentStream(scratch, page)) {
+                drawing.draw(content, font, boldFont);
+            }
+            try (InputStream in = page.getContents()) {
+                return in.readAllBytes();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to prebuild static report content", e);
+        }
+    }
+
+    /** 미리 그려 둔 내용으로 이 문서의 Form XObject 를 만든다. 바이트만 복사하므로 다시 그리지 않는다. */
+    private PDFormXObject staticForm(PDDocument document, byte[] prebuilt, PDRectangle box) throws IOException {
+        PDFormXObject form = new PDFormXObject(document);
+        try (OutputStream out = form.getContentStream().createOutputStream()) {
+            out.write(prebuilt);
+        }
+        form.setBBox(box);
+        form.setResources(staticResources(staticFont(Standard14Fonts.FontName.HELVETICA),
+                staticFont(Standard14Fonts.FontName.HELVETICA_BOLD)));
+        return form;
+    }
+
+    private PDResources staticResources(PDFont font, PDFont boldFont) {
+        PDResources resources = new PDResources();
+        resources.put(STATIC_FONT, font);
+        resources.put(STATIC_BOLD_FONT, boldFont);
+        return resources;
+    }
+
+    private PDFont staticFont(Standard14Fonts.FontName name) {
+        return new PDType1Font(name);
     }
 
     private void drawRect(
@@ -312,7 +526,7 @@ public class PdfReportService {
             float height,
             Color fill,
             Color stroke
-    ) throws Exception {
+    ) throws IOException {
         if (fill != null) {
             content.setNonStrokingColor(fill);
             content.addRect(x, y, width, height);
@@ -334,7 +548,7 @@ public class PdfReportService {
             float x,
             float y,
             Color color
-    ) throws Exception {
+    ) throws IOException {
         content.beginText();
         content.setFont(font == null ? fallbackFont : font, fontSize);
         content.setNonStrokingColor(color == null ? COLOR_TEXT : color);
@@ -354,8 +568,8 @@ public class PdfReportService {
             float y,
             float maxWidth,
             Color color
-    ) throws Exception {
-        List<String> lines = wrapLines(font, fontSize, nullToEmpty(text), maxWidth);
+    ) throws IOException {
+        List<String> lines = layoutLines(font, fontSize, nullToEmpty(text), maxWidth);
         float currentY = y;
         if (lines.isEmpty()) {
             return currentY - BODY_LEADING;
@@ -372,7 +586,20 @@ public class PdfReportService {
         return currentY;
     }
 
-    private List<String> wrapLines(PDFont font, float fontSize, String text, float maxWidth) throws Exception {
+    private List<String> layoutLines(PDFont font, float fontSize, String text, float maxWidth) throws IOException {
+        if (!STATIC_TEXTS.contains(text)) {
+            return wrapLines(font, fontSize, text, maxWidth);
+        }
+        String key = font.getName() + '|' + fontSize + '|' + maxWidth + '|' + text;
+        List<String> cached = staticLayout.get(key);
+        if (cached == null) {
+            cached = List.copyOf(wrapLines(font, fontSize, text, maxWidth));
+            staticLayout.putIfAbsent(key, cached);
+        }
+        return cached;
+    }
+
+    private List<String> wrapLines(PDFont font, float fontSize, String text, float maxWidth) throws IOException {
         List<String> lines = new ArrayList<>();
         if (text == null || text.isBlank()) {
             return lines;
@@ -408,7 +635,7 @@ public class PdfReportService {
         return lines;
     }
 
-    private List<String> splitLongWord(PDFont font, float fontSize, String word, float maxWidth) throws Exception {
+    private List<String> splitLongWord(PDFont font, float fontSize, String word, float maxWidth) throws IOException {
         List<String> out = new ArrayList<>();
         StringBuilder chunk = new StringBuilder();
         for (char c : word.toCharArray()) {
@@ -452,16 +679,16 @@ public class PdfReportService {
         return "LOW";
     }
 
-    private String formatBbox(AiCheckRunResponse.BBox bbox) {
+    private String formatBbox(BBox bbox) {
         if (bbox == null) {
             return "-";
         }
         return String.format(Locale.ROOT, "%.2f, %.2f, %.2f, %.2f", bbox.getX(), bbox.getY(), bbox.getW(), bbox.getH());
     }
 
-    private PdfViewModel toLegacyView(AiCheckRunResponse.LlmResult llmResult, List<AiCheckRunResponse.DetectionItem> detections) {
+    private PdfViewModel toLegacyView(AiCheckRunResponse.LlmResult llmResult, List<DetectionItem> detections) {
         String riskLevel = "LOW";
-        String summary = "No critical finding detected. Maintain regular oral care and periodic checkups.";
+        String summary = DEFAULT_SUMMARY;
 
         if (llmResult != null && llmResult.getOverall() != null) {
             String level = llmResult.getOverall().getLevel();
@@ -483,8 +710,8 @@ public class PdfReportService {
                 }
                 problems.add(PdfViewModel.Problem.builder()
                         .title(nullToEmpty(finding.getTitle()))
-                        .reason("A detailed review is recommended for this finding.")
-                        .action("Visit a dental clinic for precise assessment and guidance.")
+                        .reason(LEGACY_PROBLEM_REASON)
+                        .action(LEGACY_PROBLEM_ACTION)
                         .build());
                 if (problems.size() >= 3) {
                     break;
@@ -492,45 +719,90 @@ public class PdfReportService {
             }
         }
 
-        List<String> actions = List.of(
-                "Brush gently for 2 minutes, 2-3 times per day.",
-                "Use interdental cleaners or floss once daily.",
-                "Limit sugary snacks and rinse with water after meals.",
-                "Book a routine dental checkup within 1-2 weeks."
-        );
-
         return PdfViewModel.builder()
                 .riskSummary(PdfViewModel.RiskSummary.builder()
                         .levelText(riskLevel)
                         .oneLineSummary(summary)
                         .build())
                 .problems(problems)
-                .actions(actions)
+                .actions(LEGACY_ACTIONS)
                 .visit(PdfViewModel.Visit.builder()
                         .level("Recommended")
-                        .reason("Professional confirmation is recommended when symptoms continue.")
+                        .reason(LEGACY_VISIT_REASON)
                         .build())
                 .build();
     }
 
-    private PDFont resolveKoreanFont(PDDocument document) {
+    private PDFont resolveKoreanFont(PDDocument document, TrueTypeFont koreanFont) {
+        if (koreanFont != null) {
+            try {
+                // 파싱된 폰트를 공유하고, 문서에는 실제로 쓴 글리프만 서브셋으로 임베딩한다
+                return PDType0Font.load(document, koreanFont, true);
+            } catch (Exception e) {
+                log.warn("Korean font embedding failed. Fallback font will be used", e);
+            }
+        }
+        return new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+    }
+
+    private TrueTypeFont borrowKoreanFont() {
+        if (koreanFontBytes == null) {
+            return null;
+        }
+        TrueTypeFont font = fontPool.poll();
+        return font != null ? font : parseKoreanFont();
+    }
+
+    private void releaseKoreanFont(TrueTypeFont font) {
+        if (font != null && !fontPool.offer(font)) {
+            closeQuietly(font);
+        }
+    }
+
+    private TrueTypeFont parseKoreanFont() {
         try {
+            return new TTFParser().parse(new RandomAccessReadBuffer(koreanFontBytes));
+        } catch (IOException e) {
+            log.warn("Korean font parsing failed. Fallback font will be used", e);
+            return null;
+        }
+    }
+
+    private byte[] loadKoreanFontBytes(String fontPath) {
+        try {
+            if (fontPath != null && !fontPath.isBlank()) {
+                Path configured = Paths.get(fontPath);
+                if (Files.isReadable(configured)) {
+                    return Files.readAllBytes(configured);
+                }
+                log.warn("Configured report font {} is not readable", fontPath);
+            }
+
             ClassPathResource resource = new ClassPathResource("fonts/malgun.ttf");
             if (resource.exists()) {
                 try (InputStream input = resource.getInputStream()) {
-                    return PDType0Font.load(document, input, true);
+                    return input.readAllBytes();
                 }
             }
 
-            File windowsFont = new File("C:/Windows/Fonts/malgun.ttf");
-            if (windowsFont.exists()) {
-                return PDType0Font.load(document, windowsFont);
+            Path windowsFont = Paths.get("C:/Windows/Fonts/malgun.ttf");
+            if (Files.isReadable(windowsFont)) {
+                return Files.readAllBytes(windowsFont);
             }
         } catch (Exception e) {
             log.warn("Korean font loading failed. Fallback font will be used", e);
         }
 
-        return new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+        log.warn("Korean font not found. PDF reports will use Helvetica");
+        return null;
+    }
+
+    private void closeQuietly(TrueTypeFont font) {
+        try {
+            font.close();
+        } catch (IOException e) {
+            log.debug("Failed to close pooled font", e);
+        }
     }
 
     private String nullToEmpty(String value) {
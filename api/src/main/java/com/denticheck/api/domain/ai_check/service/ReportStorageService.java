@@ -1,24 +1,45 @@
 package com.denticheck.api.domain.ai_check.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.minio.GetPresignedObjectUrlArgs;
 import io.minio.MinioClient;
-import io.minio.PutObjectArgs;
+import io.minio.StatObjectArgs;
+import io.minio.errors.ErrorResponseException;
 import io.minio.http.Method;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
-import java.io.ByteArrayInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class ReportStorageService {
 
+    @Qualifier("reportMinioClient")
+    private final MinioClient reportMinioClient;
+    private final ReportUploader reportUploader;
+    private final MeterRegistry meterRegistry;
+
     @Value("${report.storage.type:local}")
     private String storageType;
 
@@ -28,78 +49,192 @@ public class ReportStorageService {
     @Value("${report.storage.base-url:http://localhost:19091/reports}")
     private String baseUrl;
 
-    @Value("${minio.endpoint:http://localhost:9000}")
-    private String minioEndpoint;
-
-    @Value("${minio.access-key:minioadmin}")
-    private String minioAccessKey;
-
-    @Value("${minio.secret-key:minioadmin}")
-    private String minioSecretKey;
-
     @Value("${minio.bucket:denticheck}")
     private String minioBucket;
 
     @Value("${minio.report-prefix:reports}")
     private String minioReportPrefix;
 
-    public String uploadPdf(String sessionId, byte[] pdfBytes) {
-        if (pdfBytes == null || pdfBytes.length == 0) {
-            return "";
-        }
-        String fileStem = buildFileStem(sessionId);
-
-        if ("minio".equalsIgnoreCase(storageType)) {
-            return uploadToMinio(fileStem, pdfBytes);
-        }
-        return uploadToLocal(fileStem, pdfBytes);
-    }
+    @Value("${minio.presign.expiry:7d}")
+    private Duration presignExpiry;
 
-    private String uploadToLocal(String fileStem, byte[] pdfBytes) {
-        try {
-            Path dir = Paths.get(localDir).toAbsolutePath().normalize();
-            Files.createDirectories(dir);
+    @Value("${minio.presign.refresh-before:1d}")
+    private Duration presignRefreshBefore;
 
-            String fileName = fileStem + ".pdf";
-            Path path = dir.resolve(fileName);
-            Files.write(path, pdfBytes);
+    @Value("${minio.presign.cache-size:10000}")
+    private int presignCacheSize;
 
-            return baseUrl.endsWith("/") ? baseUrl + fileName : baseUrl + "/" + fileName;
+    /**
+     * object 이름별 presigned URL. 만료 refresh-before 전까지는 같은 URL을 돌려주며,
+     * 리포트 객체는 지워지지 않으므로 캐시에 있으면 statObject 없이 저장된 것으로 본다.
+     */
+    private final Map<String, PresignedUrl> presignedUrls = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, PresignedUrl> eldest) {
+            return size() > presignCacheSize;
+        }
+    };
+
+    /**
+     * writer가 쓰는 PDF를 중간 byte[] 없이 로컬 디렉터리에 바로 쓰고 접근 URL을 돌려준다.
+     * MinIO 모드에서는 이 디렉터리가 스풀이 되어, 파일은 ReportUploader 가 백그라운드로 올리고
+     * 업로드 전까지는 로컬 URL(/reports/**)로 내려준다. 렌더링이나 쓰기가 실패하면 빈 문자열을 반환한다.
+     */
+    public String storePdf(String sessionId, PdfWriter writer) {
+        // 세션마다 파일 하나. 지연 생성 리포트가 같은 이름으로 저장 여부를 확인한다
+        String fileName = sessionId + ".pdf";
+        boolean minio = isMinio();
+
+        long startedAt = System.nanoTime();
+        String url = "";
+        try {
+            Path stored = writeLocal(fileName, writer);
+            if (minio) {
+                reportUploader.enqueue(stored, objectName(fileName));
+            }
+            url = localUrl(fileName);
         } catch (Exception e) {
-            log.error("Failed to store PDF on local filesystem", e);
-            return "";
+            log.error("Failed to write PDF to {}", minio ? "spool" : "local storage", e);
         }
+        Timer.builder("report.storage.write")
+                .description("Report PDF render and local write latency")
+                .tag("storage", minio ? "spool" : "local")
+                .tag("outcome", url.isEmpty() ? "error" : "success")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry)
+                .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        return url;
     }
 
-    private String uploadToMinio(String fileStem, byte[] pdfBytes) {
-        String objectName = minioReportPrefix + "/" + fileStem + ".pdf";
-        try {
-            MinioClient client = MinioClient.builder()
-                    .endpoint(minioEndpoint)
-                    .credentials(minioAccessKey, minioSecretKey)
-                    .build();
+    /**
+     * 이미 저장된 세션 리포트의 접근 URL. 없으면 비어 있다.
+     */
+    public Optional<String> findPdf(String sessionId) {
+        String fileName = sessionId + ".pdf";
+        if (isMinio()) {
+            return findInMinio(fileName);
+        }
+        return Files.isRegularFile(localPath(fileName)) ? Optional.of(localUrl(fileName)) : Optional.empty();
+    }
 
-            client.putObject(PutObjectArgs.builder()
-                    .bucket(minioBucket)
-                    .object(objectName)
-                    .stream(new ByteArrayInputStream(pdfBytes), pdfBytes.length, -1)
-                    .contentType("application/pdf")
-                    .build());
+    /** 재기동 전에 올리지 못한 스풀 파일을 다시 업로드 대기열에 올린다. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeSpool() {
+        Path dir = localPath("");
+        if (!isMinio() || !Files.isDirectory(dir)) {
+            return;
+        }
+        try (DirectoryStream<Path> spooled = Files.newDirectoryStream(dir, "*.pdf")) {
+            for (Path file : spooled) {
+                reportUploader.enqueue(file, objectName(file.getFileName().toString()));
+            }
+        } catch (IOException e) {
+            log.warn("Failed to scan report spool {}", dir, e);
+        }
+    }
 
-            return client.getPresignedObjectUrl(io.minio.GetPresignedObjectUrlArgs.builder()
+    private Optional<String> findInMinio(String fileName) {
+        String objectName = objectName(fileName);
+        String cached = cachedPresignedUrl(objectName);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        // 아직 업로드 전이면 스풀 파일을 그대로 내려준다
+        if (Files.isRegularFile(localPath(fileName))) {
+            return Optional.of(localUrl(fileName));
+        }
+        try {
+            reportMinioClient.statObject(StatObjectArgs.builder()
                     .bucket(minioBucket)
                     .object(objectName)
-                    .method(Method.GET)
-                    .expiry(7, TimeUnit.DAYS)
                     .build());
+            return Optional.of(presignedUrl(objectName));
         } catch (Exception e) {
-            log.error("Failed to upload PDF to MinIO", e);
-            return "";
+            boolean missing = e instanceof ErrorResponseException ere && "NoSuchKey".equals(ere.errorResponse().code());
+            if (!missing) {
+                log.error("Failed to look up PDF in MinIO", e);
+            }
+            return Optional.empty();
+        }
+    }
+
+    private Path writeLocal(String fileName, PdfWriter writer) throws IOException {
+        Path target = localPath(fileName);
+        Files.createDirectories(target.getParent());
+        Path partial = target.resolveSibling(fileName + ".part");
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(partial))) {
+                writer.writeTo(out);
+            }
+            // 다 쓴 파일만 보이도록 완성된 뒤에 이름을 바꾼다
+            Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE);
+            return target;
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(partial);
+            throw e;
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete partial PDF {}", path, e);
+        }
+    }
+
+    private String presignedUrl(String objectName) throws Exception {
+        String cached = cachedPresignedUrl(objectName);
+        if (cached != null) {
+            return cached;
+        }
+        Instant issuedAt = Instant.now();
+        String url = reportMinioClient.getPresignedObjectUrl(GetPresignedObjectUrlArgs.builder()
+                .bucket(minioBucket)
+                .object(objectName)
+                .method(Method.GET)
+                .expiry((int) presignExpiry.toSeconds(), TimeUnit.SECONDS)
+                .build());
+        synchronized (presignedUrls) {
+            presignedUrls.put(objectName, new PresignedUrl(url, issuedAt.plus(presignExpiry).minus(presignRefreshBefore)));
+        }
+        return url;
+    }
+
+    private String cachedPresignedUrl(String objectName) {
+        PresignedUrl cached;
+        synchronized (presignedUrls) {
+            cached = presignedUrls.get(objectName);
         }
+        boolean hit = cached != null && Instant.now().isBefore(cached.refreshAt());
+        meterRegistry.counter("report.storage.presign.cache", "result", hit ? "hit" : "miss").increment();
+        return hit ? cached.url() : null;
+    }
+
+    private boolean isMinio() {
+        return "minio".equalsIgnoreCase(storageType);
+    }
+
+    private String objectName(String fileName) {
+        return minioReportPrefix + "/" + fileName;
+    }
+
+    private Path localPath(String fileName) {
+        return Paths.get(localDir).toAbsolutePath().normalize().resolve(fileName);
+    }
+
+    private String localUrl(String fileName) {
+        return baseUrl.endsWith("/") ? baseUrl + fileName : baseUrl + "/" + fileName;
+    }
+
+    private record PresignedUrl(String url, Instant refreshAt) {
     }
 
-    private String buildFileStem(String sessionId) {
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
-        return sessionId + "-" + timestamp;
+    /**
+     * 저장소 스트림에 PDF를 쓰는 콜백. out은 저장소가 닫으므로 구현은 닫지 않는다.
+     */
+    @FunctionalInterface
+    public interface PdfWriter {
+        void writeTo(OutputStream out) throws IOException;
     }
 }
@@ -0,0 +1,152 @@
+package com.denticheck.api.domain.ai_check.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.minio.MinioClient;
+import io.minio.UploadObjectArgs;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 로컬 스풀에 먼저 저장된 리포트 PDF를 MinIO로 옮기는 백그라운드 업로더.
+ * 동시 업로드 수는 reportUploadExecutor 크기로 제한하고, 실패하면 지수 백오프로 max-attempts 까지 다시 시도한다.
+ * 업로드가 끝난 파일은 스풀에서 지우며, 끝내 실패한 파일은 스풀에 남아 다음 기동 때 다시 올라간다.
+ * 대기 건수는 report.storage.spool.depth, 처리량은 report.storage.spool.uploaded, 실패는 report.storage.spool.failed 로 센다.
+ */
+@Slf4j
+@Component
+public class ReportUploader {
+
+    private final MinioClient reportMinioClient;
+    private final ThreadPoolTaskExecutor reportUploadExecutor;
+    private final TaskScheduler taskScheduler;
+    private final MeterRegistry meterRegistry;
+    private final AiCheckTimings aiCheckTimings;
+    private final String bucket;
+    private final DataSize partSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    private final Counter uploaded;
+    private final Counter failed;
+    private final Counter abandoned;
+
+    public ReportUploader(
+            @Qualifier("reportMinioClient") MinioClient reportMinioClient,
+            @Qualifier("reportUploadExecutor") ThreadPoolTaskExecutor reportUploadExecutor,
+            TaskScheduler taskScheduler,
+            MeterRegistry meterRegistry,
+            AiCheckTimings aiCheckTimings,
+            @Value("${minio.bucket:denticheck}") String bucket,
+            @Value("${minio.part-size:5MB}") DataSize partSize,
+            @Value("${report.storage.upload.max-attempts:8}") int maxAttempts,
+            @Value("${report.storage.upload.initial-backoff:2s}") Duration initialBackoff,
+            @Value("${report.storage.upload.max-backoff:5m}") Duration maxBackoff) {
+        this.reportMinioClient = reportMinioClient;
+        this.reportUploadExecutor = reportUploadExecutor;
+        this.taskScheduler = taskScheduler;
+        this.meterRegistry = meterRegistry;
+        this.aiCheckTimings = aiCheckTimings;
+        this.bucket = bucket;
+        this.partSize = partSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.uploaded = meterRegistry.counter("report.storage.spool.uploaded");
+        this.failed = meterRegistry.counter("report.storage.spool.failed");
+        this.abandoned = meterRegistry.counter("report.storage.spool.abandoned");
+        meterRegistry.gauge("report.storage.spool.depth", pending, Set::size);
+    }
+
+    /** 스풀 파일을 업로드 대기열에 올린다. 이미 대기 중인 객체면 무시한다. */
+    public void enqueue(Path file, String objectName) {
+        if (pending.add(objectName)) {
+            submit(file, objectName, 1);
+        }
+    }
+
+    private void submit(Path file, String objectName, int attempt) {
+        try {
+            reportUploadExecutor.execute(() -> upload(file, objectName, attempt));
+        } catch (TaskRejectedException e) {
+            retryLater(file, objectName, attempt, e);
+        }
+    }
+
+    private void upload(Path file, String objectName, int attempt) {
+        long startedAt = System.nanoTime();
+        try {
+            reportMinioClient.uploadObject(UploadObjectArgs.builder()
+                    .bucket(bucket)
+                    .object(objectName)
+                    .filename(file.toString(), Math.max(UploadObjectArgs.MIN_MULTIPART_SIZE, partSize.toBytes()))
+                    .contentType("application/pdf")
+                    .build());
+            long elapsed = System.nanoTime() - startedAt;
+            uploadTimer("success").record(elapsed, TimeUnit.NANOSECONDS);
+            aiCheckTimings.record("report", AiCheckTimings.STORAGE_UPLOAD, AiCheckTimings.DONE, elapsed);
+            uploaded.increment();
+            pending.remove(objectName);
+            deleteSpooled(file);
+        } catch (Exception e) {
+            long elapsed = System.nanoTime() - startedAt;
+            uploadTimer("error").record(elapsed, TimeUnit.NANOSECONDS);
+            aiCheckTimings.record("report", AiCheckTimings.STORAGE_UPLOAD, AiCheckTimings.ERROR, elapsed);
+            failed.increment();
+            retryLater(file, objectName, attempt, e);
+        }
+    }
+
+    private void retryLater(Path file, String objectName, int attempt, Exception cause) {
+        if (attempt >= maxAttempts) {
+            pending.remove(objectName);
+            abandoned.increment();
+            log.error("Giving up uploading {} after {} attempts. It stays in the spool until restart", objectName,
+                    attempt, cause);
+            return;
+        }
+        Duration delay = backoff(attempt);
+        log.warn("Upload of {} failed (attempt {}). Retrying in {}", objectName, attempt, delay, cause);
+        taskScheduler.schedule(() -> submit(file, objectName, attempt + 1), Instant.now().plus(delay));
+    }
+
+    private Duration backoff(int attempt) {
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempt - 1, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private void deleteSpooled(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete uploaded spool file {}", file, e);
+        }
+    }
+
+    private Timer uploadTimer(String outcome) {
+        return Timer.builder("report.storage.upload")
+                .description("Report PDF upload latency to MinIO")
+                .tag("storage", "minio")
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+}
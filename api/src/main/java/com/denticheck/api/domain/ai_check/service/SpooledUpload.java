@@ -0,0 +1,83 @@
+package com.denticheck.api.domain.ai_check.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * 한 번만 디스크에 내려받은 업로드 이미지.
+ * AI 서버로 보내는 모든 호출이 같은 파일을 스트리밍하므로 요청마다 byte[] 복사가 생기지 않는다.
+ */
+@Slf4j
+public class SpooledUpload implements AutoCloseable {
+
+    private final Path path;
+    private final String filename;
+    private final String contentType;
+    private final long size;
+    private final String sha256;
+    private final ImageTransform transform;
+
+    SpooledUpload(Path path, String filename, String contentType, long size, String sha256) {
+        this(path, filename, contentType, size, sha256, null);
+    }
+
+    SpooledUpload(Path path, String filename, String contentType, long size, String sha256,
+            ImageTransform transform) {
+        this.path = path;
+        this.filename = filename;
+        this.contentType = contentType;
+        this.size = size;
+        this.sha256 = sha256;
+        this.transform = transform;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public String getFilename() {
+        return filename;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    /** 업로드 원본의 SHA-256 (hex 64자). ai_images.image_hash 와 같은 형식이다. */
+    public String getSha256() {
+        return sha256;
+    }
+
+    /** AiImagePreprocessor 가 줄인 이미지라면 원본과의 관계. 원본을 그대로 보낼 때는 null */
+    public ImageTransform getTransform() {
+        return transform;
+    }
+
+    /** multipart part 본문으로 쓸 리소스. 원본 파일명을 그대로 유지한다. */
+    public Resource asResource() {
+        return new FileSystemResource(path) {
+            @Override
+            public String getFilename() {
+                return filename;
+            }
+        };
+    }
+
+    @Override
+    public void close() {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete spooled upload {}", path, e);
+        }
+    }
+}
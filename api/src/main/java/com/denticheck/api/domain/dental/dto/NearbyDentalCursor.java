@@ -0,0 +1,76 @@
+package com.denticheck.api.domain.dental.dto;
+
+import com.denticheck.api.common.exception.dental.DentalErrorCode;
+import com.denticheck.api.common.exception.dental.DentalException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * 주변 치과 커서 페이지의 위치. 앞 페이지 마지막 치과의 (거리, id) 이며 다음 페이지는 그보다 뒤에서 시작한다.
+ * 거리는 두 경로 모두 cube 의 <-> 값(직선 거리, m)이지만, 메모리 인덱스는 Java(DentalGrid.Hit.chordMeters)로,
+ * SQL 은 Postgres 로 계산하므로 같은 치과라도 마지막 자리(ULP)가 다를 수 있다. 그러면 경계의 치과가 빠지거나
+ * 두 번 나오므로 커서에 만든 경로(source)를 남겨 다음 페이지도 같은 경로로 읽는다.
+ * 클라이언트에는 "경로:거리:id" 를 Base64(URL) 로 감싼 문자열로 내려준다.
+ */
+public record NearbyDentalCursor(Source source, double distance, UUID id) {
+
+    /** 첫 페이지. 어떤 (거리, id) 보다도 앞이며 경로를 정하지 않는다. */
+    public static final NearbyDentalCursor FIRST = new NearbyDentalCursor(null, -1, new UUID(0, 0));
+
+    /** 커서를 만든 검색 경로 */
+    public enum Source {
+        MEMORY("m"),
+        SQL("s");
+
+        private final String code;
+
+        Source(String code) {
+            this.code = code;
+        }
+
+        static Source fromCode(String code) {
+            for (Source source : values()) {
+                if (source.code.equals(code)) {
+                    return source;
+                }
+            }
+            throw new IllegalArgumentException("unknown cursor source: " + code);
+        }
+    }
+
+    public static NearbyDentalCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return FIRST;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", 3);
+            if (parts.length != 3) {
+                throw new DentalException(DentalErrorCode.INVALID_CURSOR);
+            }
+            return new NearbyDentalCursor(Source.fromCode(parts[0]), Double.parseDouble(parts[1]),
+                    UUID.fromString(parts[2]));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new DentalException(DentalErrorCode.INVALID_CURSOR);
+        }
+    }
+
+    public String encode() {
+        String raw = source.code + ":" + distance + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** (distance, id) 인 치과가 이 커서보다 뒤에 있는지. id 는 Postgres uuid 정렬처럼 부호 없이 비교한다. */
+    public boolean isBefore(double otherDistance, UUID otherId) {
+        int c = Double.compare(distance, otherDistance);
+        if (c == 0) {
+            c = Long.compareUnsigned(id.getMostSignificantBits(), otherId.getMostSignificantBits());
+        }
+        if (c == 0) {
+            c = Long.compareUnsigned(id.getLeastSignificantBits(), otherId.getLeastSignificantBits());
+        }
+        return c < 0;
+    }
+}
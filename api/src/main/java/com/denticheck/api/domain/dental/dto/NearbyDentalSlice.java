@@ -0,0 +1,14 @@
+package com.denticheck.api.domain.dental.dto;
+
+import com.denticheck.api.domain.dental.entity.DentalEntity;
+
+import java.util.List;
+
+/**
+ * 주변 치과 커서 페이지 한 장.
+ *
+ * @param nextCursor       다음 페이지 커서. 마지막 페이지면 null
+ * @param approximateTotal 반경 안 치과 수. 메모리 공간 인덱스로 검색할 때만 있고, 인덱스가 DB 보다 조금 늦을 수 있어 근삿값이다
+ */
+public record NearbyDentalSlice(List<DentalEntity> content, String nextCursor, Integer approximateTotal) {
+}
@@ -95,18 +95,4 @@ public class DentalEntity {
     @UpdateTimestamp
     @Column(name = "updated_at", nullable = false)
     private ZonedDateTime updatedAt;
-
-    public void updateRating(int newRating, int oldRatingCount, BigDecimal oldRatingAvg) {
-        BigDecimal avg = oldRatingAvg != null ? oldRatingAvg : BigDecimal.ZERO;
-        int count = oldRatingCount;
-
-        // Calculate new average
-        // (oldAvg * oldCount + newRating) / (oldCount + 1)
-        BigDecimal total = avg.multiply(BigDecimal.valueOf(count));
-        total = total.add(BigDecimal.valueOf(newRating));
-
-        int newCount = count + 1;
-        this.ratingCount = newCount;
-        this.ratingAvg = total.divide(BigDecimal.valueOf(newCount), 2, java.math.RoundingMode.HALF_UP);
-    }
 }
@@ -2,10 +2,18 @@ package com.denticheck.api.domain.dental.repository;
 
 import com.denticheck.api.domain.dental.entity.DentalLikeEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 public interface DentalLikeRepository extends JpaRepository<DentalLikeEntity, DentalLikeEntity.DentalLikeId> {
     List<DentalLikeEntity> findByUserId(UUID userId);
+
+    /** dentalIds 중 username 사용자가 좋아요한 치과 id. 사용자 조회까지 한 쿼리로 처리한다. */
+    @Query("SELECT l.dentalId FROM DentalLikeEntity l WHERE l.user.username = :username AND l.dentalId IN :dentalIds")
+    List<UUID> findLikedDentalIds(@Param("username") String username,
+            @Param("dentalIds") Collection<UUID> dentalIds);
 }
@@ -4,33 +4,72 @@ import com.denticheck.api.domain.dental.entity.DentalEntity;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.UUID;
 
 public interface DentalRepository extends JpaRepository<DentalEntity, UUID> {
 
-        // Haversine formula for lat/lng columns in dentals table
-        String HAVERSINE_FORMULA = "(6371 * acos(cos(radians(:latitude)) * cos(radians(d.lat)) *"
-                        + " cos(radians(d.lng) - radians(:longitude)) + sin(radians(:latitude)) * sin(radians(d.lat))))";
+        // earthdistance 좌표. V29 의 GiST 표현식 인덱스(idx_dentals_earth_point)와 같은 식이어야 인덱스를 탄다
+        String EARTH_POINT = "ll_to_earth(CAST(d.lat AS float8), CAST(d.lng AS float8))";
+        String SEARCH_CENTER = "ll_to_earth(:latitude, :longitude)";
 
-        @Query(value = "SELECT * FROM dentals d WHERE d.lat BETWEEN :minLat AND :maxLat AND d.lng BETWEEN :minLng AND :maxLng AND "
-                        + HAVERSINE_FORMULA + " < :radius ORDER BY "
-                        + HAVERSINE_FORMULA, countQuery = "SELECT count(*) FROM dentals d WHERE d.lat BETWEEN :minLat AND :maxLat AND d.lng BETWEEN :minLng AND :maxLng AND "
-                                        + HAVERSINE_FORMULA
-                                        + " < :radius", nativeQuery = true)
+        // 반경(km)을 감싸는 상자로 인덱스에서 후보를 고른 뒤, 상자 모서리에 걸친 것만 실제 거리로 한 번 더 거른다
+        String WITHIN_RADIUS = "earth_box(" + SEARCH_CENTER + ", :radius * 1000) @> " + EARTH_POINT
+                        + " AND earth_distance(" + SEARCH_CENTER + ", " + EARTH_POINT + ") < :radius * 1000";
+
+        /** 반경 안의 치과를 가까운 순으로. 정렬은 GiST KNN(<->)이라 페이지 크기만큼만 읽는다. */
+        @Query(value = "SELECT * FROM dentals d WHERE " + WITHIN_RADIUS
+                        + " ORDER BY " + EARTH_POINT + " <-> " + SEARCH_CENTER,
+                        countQuery = "SELECT count(*) FROM dentals d WHERE " + WITHIN_RADIUS,
+                        nativeQuery = true)
         Page<DentalEntity> findNearbyDentals(
                         @Param("latitude") double latitude,
                         @Param("longitude") double longitude,
                         @Param("radius") double radius,
-                        @Param("minLat") double minLat,
-                        @Param("maxLat") double maxLat,
-                        @Param("minLng") double minLng,
-                        @Param("maxLng") double maxLng,
                         Pageable pageable);
 
+        /** 커서 페이지용 한 줄. distance 는 <-> 값(직선 거리, m)이다. */
+        interface NearbyDentalRow {
+                UUID getId();
+
+                double getDistance();
+        }
+
+        /**
+         * 반경 안의 치과를 (거리, id) 순으로, 커서 (afterDistance, afterId) 다음부터 limit 건.
+         * count 쿼리가 없고, 거리순 읽기는 GiST KNN 이 맡으며 같은 거리의 id 순서만 증분 정렬로 맞춘다.
+         */
+        @Query(value = "SELECT d.id AS id, " + EARTH_POINT + " <-> " + SEARCH_CENTER + " AS distance"
+                        + " FROM dentals d WHERE " + WITHIN_RADIUS
+                        + " AND (" + EARTH_POINT + " <-> " + SEARCH_CENTER + ", d.id) > (:afterDistance, :afterId)"
+                        + " ORDER BY " + EARTH_POINT + " <-> " + SEARCH_CENTER + ", d.id LIMIT :limit",
+                        nativeQuery = true)
+        List<NearbyDentalRow> findNearbyDentalsAfter(
+                        @Param("latitude") double latitude,
+                        @Param("longitude") double longitude,
+                        @Param("radius") double radius,
+                        @Param("afterDistance") double afterDistance,
+                        @Param("afterId") UUID afterId,
+                        @Param("limit") int limit);
+
+        /** 메모리 공간 인덱스(DentalSpatialIndex)를 채울 때 쓰는 좌표만의 조회. */
+        interface DentalPoint {
+                UUID getId();
+
+                BigDecimal getLat();
+
+                BigDecimal getLng();
+        }
+
+        @Query("SELECT d.id AS id, d.lat AS lat, d.lng AS lng FROM DentalEntity d"
+                        + " WHERE d.lat IS NOT NULL AND d.lng IS NOT NULL")
+        List<DentalPoint> findAllPoints();
+
         List<DentalEntity> findByNameContainingIgnoreCaseOrderByNameAsc(String name, Pageable pageable);
 
         List<DentalEntity> findAllByOrderByNameAsc(Pageable pageable);
@@ -42,4 +81,33 @@ public interface DentalRepository extends JpaRepository<DentalEntity, UUID> {
         List<DentalEntity> findByAddressContaining(String address);
 
         List<DentalEntity> findByNameContainingOrAddressContaining(String name, String address);
+
+        /**
+         * 리뷰 한 건을 평점 집계에 더한다. 읽고-계산하고-쓰는 대신 한 UPDATE 안에서 현재 값으로 계산하므로
+         * 동시에 리뷰가 달려도 집계가 덮어써지지 않는다.
+         */
+        @Modifying
+        @Query(value = "UPDATE dentals SET rating_avg = round((rating_avg * rating_count + :rating) / (rating_count + 1), 2),"
+                        + " rating_count = rating_count + 1 WHERE id = :dentalId", nativeQuery = true)
+        int addRating(@Param("dentalId") UUID dentalId, @Param("rating") int rating);
+
+        /** 리뷰 한 건을 평점 집계에서 뺀다. 마지막 리뷰면 0으로 돌아간다. */
+        @Modifying
+        @Query(value = "UPDATE dentals SET rating_avg = CASE WHEN rating_count <= 1 THEN 0"
+                        + " ELSE round((rating_avg * rating_count - :rating) / (rating_count - 1), 2) END,"
+                        + " rating_count = greatest(rating_count - 1, 0) WHERE id = :dentalId", nativeQuery = true)
+        int removeRating(@Param("dentalId") UUID dentalId, @Param("rating") int rating);
+
+        /**
+         * 저장된 평점 집계를 dental_reviews 기준으로 다시 맞춘다. 증분 갱신의 반올림 오차나 누락으로 값이 어긋난 치과만 고친다.
+         * 고친 치과 수를 돌려준다.
+         */
+        @Modifying
+        @Query(value = "UPDATE dentals d SET rating_count = coalesce(r.review_count, 0), rating_avg = coalesce(r.review_avg, 0)"
+                        + " FROM dentals t LEFT JOIN (SELECT dental_id, count(*) AS review_count,"
+                        + " round(avg(rating), 2) AS review_avg FROM dental_reviews GROUP BY dental_id) r"
+                        + " ON r.dental_id = t.id"
+                        + " WHERE d.id = t.id AND (d.rating_count <> coalesce(r.review_count, 0)"
+                        + " OR d.rating_avg <> coalesce(r.review_avg, 0))", nativeQuery = true)
+        int reconcileRatings();
 }
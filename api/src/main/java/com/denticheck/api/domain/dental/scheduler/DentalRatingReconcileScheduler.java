@@ -0,0 +1,31 @@
+package com.denticheck.api.domain.dental.scheduler;
+
+import com.denticheck.api.domain.dental.repository.DentalRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DentalRatingReconcileScheduler {
+
+    private final DentalRepository dentalRepository;
+
+    /**
+     * 리뷰 작성/삭제 시 SQL 증분으로 갱신한 치과 평점 집계(rating_avg, rating_count)를
+     * 매일 새벽 dental_reviews 기준으로 한 번에 다시 맞춥니다. 어긋난 치과만 갱신합니다.
+     */
+    @Scheduled(cron = "${dental.rating.reconcile-cron:0 30 4 * * *}")
+    @Transactional
+    public void reconcileRatings() {
+        int fixed = dentalRepository.reconcileRatings();
+        if (fixed > 0) {
+            log.warn("Reconciled rating aggregates for {} dentals", fixed);
+        } else {
+            log.info("Dental rating aggregates are in sync");
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.denticheck.api.domain.dental.scheduler;
+
+import com.denticheck.api.domain.dental.service.DentalSpatialIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class DentalSpatialIndexScheduler {
+
+    private final DentalSpatialIndex dentalSpatialIndex;
+
+    /**
+     * 메모리 공간 인덱스를 DB 기준으로 다시 채웁니다.
+     * 관리자 화면을 거치지 않은 변경(데이터 적재 등)과 재적재 중에 놓친 증분을 맞추기 위함입니다.
+     */
+    @Scheduled(cron = "${dental.search.grid.refresh-cron:0 0 5 * * *}")
+    public void refresh() {
+        if (dentalSpatialIndex.isEnabled()) {
+            dentalSpatialIndex.rebuild();
+        }
+    }
+}
@@ -0,0 +1,362 @@
+package com.denticheck.api.domain.dental.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 치과 좌표의 메모리 격자 인덱스.
+ * 위경도를 cellDegrees 크기의 칸으로 나누고, 칸마다 좌표와 id 를 원시 배열(double[], long[])로 들고 있어 객체 없이 훑는다.
+ * 반경 검색은 반경을 감싸는 칸만, 최근접 k 개는 중심 칸에서 고리 모양으로 넓혀 가며 찾는다.
+ * 거리는 earthdistance 의 earth_distance 와 같은 구 반지름으로 계산해 SQL 경로와 경계가 같다.
+ * 날짜변경선을 넘는 검색은 다루지 않는다 (국내 좌표 전제).
+ */
+public final class DentalGrid {
+
+    /** earthdistance 확장의 earth() 값(6378168 m)과 같은 반지름. */
+    private static final double EARTH_RADIUS_KM = 6378.168;
+    private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180;
+
+    // 거리가 같으면 id 순. Postgres uuid 정렬(바이트 단위 부호 없는 비교)과 같다
+    private static final Comparator<Candidate> NEAREST_FIRST = Comparator.comparingDouble(Candidate::hav)
+            .thenComparing((a, b) -> Long.compareUnsigned(a.msb(), b.msb()))
+            .thenComparing((a, b) -> Long.compareUnsigned(a.lsb(), b.lsb()));
+
+    private final double cellDegrees;
+    private final Map<Long, Cell> cells = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private int size;
+
+    // 점이 들어온 적이 있는 칸 번호 범위와 최대 |위도|. 검색 범위를 자르는 데만 쓰므로 삭제해도 줄이지 않는다
+    private int minRow = Integer.MAX_VALUE;
+    private int maxRow = Integer.MIN_VALUE;
+    private int minCol = Integer.MAX_VALUE;
+    private int maxCol = Integer.MIN_VALUE;
+    private double maxAbsLat;
+
+    public DentalGrid(double cellDegrees) {
+        if (!(cellDegrees > 0)) {
+            throw new IllegalArgumentException("cellDegrees must be positive: " + cellDegrees);
+        }
+        this.cellDegrees = cellDegrees;
+    }
+
+    public record Hit(UUID id, double distanceKm) {
+
+        /** 두 점을 잇는 직선(현) 거리(m). cube 의 <-> 값과 같아 SQL 경로와 같은 커서 값을 쓴다. */
+        public double chordMeters() {
+            return 2000 * EARTH_RADIUS_KM * Math.sin(distanceKm / (2 * EARTH_RADIUS_KM));
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** 중복 검사 없이 넣는다. 처음 채울 때만 쓴다. */
+    public void add(UUID id, double lat, double lng) {
+        lock.writeLock().lock();
+        try {
+            addLocked(id.getMostSignificantBits(), id.getLeastSignificantBits(), lat, lng);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** 치과를 넣는다. 이미 있으면 새 좌표로 옮긴다. */
+    public void put(UUID id, double lat, double lng) {
+        long msb = id.getMostSignificantBits();
+        long lsb = id.getLeastSignificantBits();
+        lock.writeLock().lock();
+        try {
+            removeLocked(msb, lsb);
+            addLocked(msb, lsb, lat, lng);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 치과를 뺀다. id 별로 칸을 따로 기억하지 않아(그만큼 메모리를 아낀다) 전체를 훑는다.
+     * 관리자 수정 때만 불리므로 100만 건에서도 몇 ms 면 충분하다.
+     */
+    public boolean remove(UUID id) {
+        lock.writeLock().lock();
+        try {
+            return removeLocked(id.getMostSignificantBits(), id.getLeastSignificantBits());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** 중심에서 radiusKm 안의 치과를 가까운 순으로. */
+    public List<Hit> within(double lat, double lng, double radiusKm) {
+        Center center = new Center(lat, lng);
+        double limit = haversine(radiusKm);
+        double latSpan = radiusKm / KM_PER_DEGREE;
+        double lngSpan = latSpan / Math.max(Math.cos(Math.toRadians(Math.min(90, Math.abs(lat) + latSpan))), 1e-9);
+        List<Candidate> found = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            int row0 = Math.max(row(lat - latSpan), minRow);
+            int row1 = Math.min(row(lat + latSpan), maxRow);
+            int col0 = Math.max(col(lng - lngSpan), minCol);
+            int col1 = Math.min(col(lng + lngSpan), maxCol);
+            if (row0 > row1 || col0 > col1) {
+                return List.of();
+            }
+            // 반경이 넓어 훑을 칸 번호가 실제 칸 수보다 많으면 칸을 직접 돈다
+            if ((long) (row1 - row0 + 1) * (col1 - col0 + 1) > cells.size()) {
+                for (Cell cell : cells.values()) {
+                    cell.collect(center, limit, found);
+                }
+            } else {
+                for (int row = row0; row <= row1; row++) {
+                    for (int col = col0; col <= col1; col++) {
+                        Cell cell = cells.get(key(row, col));
+                        if (cell != null) {
+                            cell.collect(center, limit, found);
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        found.sort(NEAREST_FIRST);
+        return toHits(found);
+    }
+
+    /** 중심에서 가장 가까운 치과 k 개를 가까운 순으로. */
+    public List<Hit> nearest(double lat, double lng, int k) {
+        if (k <= 0) {
+            return List.of();
+        }
+        Center center = new Center(lat, lng);
+        PriorityQueue<Candidate> best = new PriorityQueue<>(k, NEAREST_FIRST.reversed());
+
+        lock.readLock().lock();
+        try {
+            if (size == 0) {
+                return List.of();
+            }
+            int row = row(lat);
+            int col = col(lng);
+            // 중심이 점이 있는 범위 밖이면 그 범위에 처음 닿는 고리부터 본다
+            int firstRing = Math.max(0, Math.max(Math.max(minRow - row, row - maxRow),
+                    Math.max(minCol - col, col - maxCol)));
+            int lastRing = Math.max(Math.max(Math.abs(row - minRow), Math.abs(row - maxRow)),
+                    Math.max(Math.abs(col - minCol), Math.abs(col - maxCol)));
+            double cosBound = Math.cos(Math.toRadians(Math.min(90, Math.max(maxAbsLat, Math.abs(lat)))));
+            double cellRadians = Math.toRadians(cellDegrees);
+
+            for (int ring = firstRing; ring <= lastRing; ring++) {
+                visitRing(row, col, ring, center, k, best);
+                // 다음 고리부터의 점은 위도나 경도로 적어도 ring 칸 떨어져 있어, 하버사인 값이 이 아래로 내려갈 수 없다
+                double sin = Math.sin(ring * cellRadians / 2);
+                double nextRingHav = cosBound * cosBound * sin * sin;
+                if (best.size() == k && best.peek().hav() <= nextRingHav) {
+                    break;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Candidate> found = new ArrayList<>(best);
+        found.sort(NEAREST_FIRST);
+        return toHits(found);
+    }
+
+    /** 고리 중 점이 있는 범위 [minRow..maxRow]×[minCol..maxCol] 에 걸친 칸만 찾아본다. */
+    private void visitRing(int row, int col, int ring, Center center, int k, PriorityQueue<Candidate> best) {
+        if (ring == 0) {
+            offer(cells.get(key(row, col)), center, k, best);
+            return;
+        }
+        int col0 = Math.max(col - ring, minCol);
+        int col1 = Math.min(col + ring, maxCol);
+        if (row - ring >= minRow && row - ring <= maxRow) {
+            for (int c = col0; c <= col1; c++) {
+                offer(cells.get(key(row - ring, c)), center, k, best);
+            }
+        }
+        if (row + ring >= minRow && row + ring <= maxRow) {
+            for (int c = col0; c <= col1; c++) {
+                offer(cells.get(key(row + ring, c)), center, k, best);
+            }
+        }
+        int row0 = Math.max(row - ring + 1, minRow);
+        int row1 = Math.min(row + ring - 1, maxRow);
+        if (col - ring >= minCol && col - ring <= maxCol) {
+            for (int r = row0; r <= row1; r++) {
+                offer(cells.get(key(r, col - ring)), center, k, best);
+            }
+        }
+        if (col + ring >= minCol && col + ring <= maxCol) {
+            for (int r = row0; r <= row1; r++) {
+                offer(cells.get(key(r, col + ring)), center, k, best);
+            }
+        }
+    }
+
+    private static void offer(Cell cell, Center center, int k, PriorityQueue<Candidate> best) {
+        if (cell == null) {
+            return;
+        }
+        for (int i = 0; i < cell.size; i++) {
+            double hav = center.hav(cell.latRad[i], cell.cosLat[i], cell.lngRad[i]);
+            if (best.size() < k) {
+                best.add(new Candidate(hav, cell.msb[i], cell.lsb[i]));
+            } else if (hav < best.peek().hav()) {
+                // k 번째와 거리가 같은 점은 id 와 상관없이 먼저 들어온 쪽이 남는다
+                best.poll();
+                best.add(new Candidate(hav, cell.msb[i], cell.lsb[i]));
+            }
+        }
+    }
+
+    private void addLocked(long msb, long lsb, double lat, double lng) {
+        int row = row(lat);
+        int col = col(lng);
+        cells.computeIfAbsent(key(row, col), key -> new Cell()).add(msb, lsb, lat, lng);
+        size++;
+        minRow = Math.min(minRow, row);
+        maxRow = Math.max(maxRow, row);
+        minCol = Math.min(minCol, col);
+        maxCol = Math.max(maxCol, col);
+        maxAbsLat = Math.max(maxAbsLat, Math.abs(lat));
+    }
+
+    private boolean removeLocked(long msb, long lsb) {
+        Iterator<Cell> it = cells.values().iterator();
+        while (it.hasNext()) {
+            Cell cell = it.next();
+            if (cell.remove(msb, lsb)) {
+                if (cell.size == 0) {
+                    it.remove();
+                }
+                size--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int row(double lat) {
+        return (int) Math.floor(lat / cellDegrees);
+    }
+
+    private int col(double lng) {
+        return (int) Math.floor(lng / cellDegrees);
+    }
+
+    private static long key(int row, int col) {
+        return ((long) row << 32) | (col & 0xffffffffL);
+    }
+
+    /** 거리(km)를 하버사인 값 sin²(d/2R) 로. 거리와 단조 관계라 비교와 정렬은 이 값으로 한다. */
+    private static double haversine(double km) {
+        double sin = Math.sin(Math.min(km / EARTH_RADIUS_KM, Math.PI) / 2);
+        return sin * sin;
+    }
+
+    private static List<Hit> toHits(List<Candidate> sorted) {
+        List<Hit> hits = new ArrayList<>(sorted.size());
+        for (Candidate c : sorted) {
+            hits.add(new Hit(new UUID(c.msb(), c.lsb()), 2 * EARTH_RADIUS_KM * Math.asin(Math.sqrt(c.hav()))));
+        }
+        return hits;
+    }
+
+    private record Candidate(double hav, long msb, long lsb) {
+    }
+
+    private static final class Center {
+
+        private final double latRad;
+        private final double lngRad;
+        private final double cosLat;
+
+        private Center(double lat, double lng) {
+            this.latRad = Math.toRadians(lat);
+            this.lngRad = Math.toRadians(lng);
+            this.cosLat = Math.cos(latRad);
+        }
+
+        private double hav(double otherLatRad, double otherCosLat, double otherLngRad) {
+            double sinLat = Math.sin((otherLatRad - latRad) / 2);
+            double sinLng = Math.sin((otherLngRad - lngRad) / 2);
+            return sinLat * sinLat + cosLat * otherCosLat * sinLng * sinLng;
+        }
+    }
+
+    /** 한 칸의 점들. 위경도는 라디안, cos(위도)는 거리 계산마다 다시 구하지 않도록 함께 둔다. */
+    private static final class Cell {
+
+        private double[] latRad = new double[4];
+        private double[] lngRad = new double[4];
+        private double[] cosLat = new double[4];
+        private long[] msb = new long[4];
+        private long[] lsb = new long[4];
+        private int size;
+
+        private void add(long idMsb, long idLsb, double lat, double lng) {
+            if (size == msb.length) {
+                int capacity = size * 2;
+                latRad = Arrays.copyOf(latRad, capacity);
+                lngRad = Arrays.copyOf(lngRad, capacity);
+                cosLat = Arrays.copyOf(cosLat, capacity);
+                msb = Arrays.copyOf(msb, capacity);
+                lsb = Arrays.copyOf(lsb, capacity);
+            }
+            latRad[size] = Math.toRadians(lat);
+            lngRad[size] = Math.toRadians(lng);
+            cosLat[size] = Math.cos(latRad[size]);
+            msb[size] = idMsb;
+            lsb[size] = idLsb;
+            size++;
+        }
+
+        /** 마지막 점을 빈자리로 옮겨 채운다. 칸 안 순서는 의미가 없다. */
+        private boolean remove(long idMsb, long idLsb) {
+            for (int i = 0; i < size; i++) {
+                if (msb[i] == idMsb && lsb[i] == idLsb) {
+                    int last = --size;
+                    latRad[i] = latRad[last];
+                    lngRad[i] = lngRad[last];
+                    cosLat[i] = cosLat[last];
+                    msb[i] = msb[last];
+                    lsb[i] = lsb[last];
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void collect(Center center, double limit, List<Candidate> out) {
+            for (int i = 0; i < size; i++) {
+                double hav = center.hav(latRad[i], cosLat[i], lngRad[i]);
+                if (hav < limit) {
+                    out.add(new Candidate(hav, msb[i], lsb[i]));
+                }
+            }
+        }
+    }
+}
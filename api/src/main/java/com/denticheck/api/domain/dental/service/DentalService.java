@@ -12,6 +12,13 @@ public interface DentalService {
                         double radiusKm,
                         org.springframework.data.domain.Pageable pageable);
 
+        /**
+         * 반경 안의 치과를 가까운 순으로 커서(after) 다음부터 size 건. 전체 건수를 세지 않는다.
+         * after 가 비어 있으면 첫 페이지다.
+         */
+        com.denticheck.api.domain.dental.dto.NearbyDentalSlice getNearbyDentalsAfter(double latitude, double longitude,
+                        double radiusKm, String after, int size);
+
         List<DentalEntity> getMyFavoriteDentals(String username);
 
         List<DentalEntity> searchDentals(String name, int limit);
@@ -22,6 +29,13 @@ public interface DentalService {
 
         List<com.denticheck.api.domain.dental.entity.DentalReviewEntity> getReviews(java.util.UUID dentalId);
 
+        /** 여러 치과의 리뷰를 한 번에 조회한다. 리뷰가 없는 치과는 결과에 없다. */
+        java.util.Map<java.util.UUID, List<com.denticheck.api.domain.dental.entity.DentalReviewEntity>> getReviewsByDentalIds(
+                        java.util.Collection<java.util.UUID> dentalIds);
+
+        /** dentalIds 중 사용자가 좋아요한 치과 id. */
+        java.util.Set<java.util.UUID> getLikedDentalIds(String username, java.util.Collection<java.util.UUID> dentalIds);
+
         com.denticheck.api.domain.dental.entity.DentalReviewEntity createReview(java.util.UUID dentalId,
                         String username,
                         int rating, String content, java.util.List<String> tags, boolean isAnonymous);
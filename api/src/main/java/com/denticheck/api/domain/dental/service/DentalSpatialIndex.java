@@ -0,0 +1,108 @@
+package com.denticheck.api.domain.dental.service;
+
+import com.denticheck.api.domain.dental.repository.DentalRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 주변 치과 검색용 메모리 공간 인덱스.
+ * dental.search.strategy=memory 일 때만 켜지며, 기동 후 전체 좌표를 DentalGrid 로 읽어 들이고
+ * 관리자 화면의 치과 생성/수정/삭제는 커밋 뒤에 한 건씩 반영한다.
+ * 적재가 끝나기 전이거나 꺼져 있으면 isReady() 가 false 이고 검색은 SQL(GiST) 경로로 간다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DentalSpatialIndex {
+
+    public static final String STRATEGY_MEMORY = "memory";
+
+    private final DentalRepository dentalRepository;
+
+    /** sql(기본): Postgres GiST 인덱스로 검색, memory: 이 인덱스로 검색 */
+    @Value("${dental.search.strategy:sql}")
+    private String strategy;
+
+    @Value("${dental.search.grid.cell-degrees:0.01}")
+    private double cellDegrees;
+
+    private volatile DentalGrid grid;
+
+    public boolean isEnabled() {
+        return STRATEGY_MEMORY.equalsIgnoreCase(strategy);
+    }
+
+    public boolean isReady() {
+        return grid != null;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (isEnabled()) {
+            rebuild();
+        }
+    }
+
+    /**
+     * 전체 좌표로 새 격자를 만들어 통째로 바꾼다. 만드는 동안의 검색은 이전 격자가 받는다.
+     * 만드는 사이에 커밋된 관리자 수정은 이전 격자에만 들어가므로 다음 재적재(DentalSpatialIndexScheduler)에서 맞춰진다.
+     */
+    public void rebuild() {
+        long startedAt = System.nanoTime();
+        List<DentalRepository.DentalPoint> points = dentalRepository.findAllPoints();
+        DentalGrid fresh = new DentalGrid(cellDegrees);
+        for (DentalRepository.DentalPoint point : points) {
+            fresh.add(point.getId(), point.getLat().doubleValue(), point.getLng().doubleValue());
+        }
+        grid = fresh;
+        log.info("Dental spatial index loaded: {} dentals in {} ms", fresh.size(),
+                (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    /** 중심에서 radiusKm 안의 치과를 가까운 순으로. isReady() 일 때만 부른다. */
+    public List<DentalGrid.Hit> within(double latitude, double longitude, double radiusKm) {
+        return grid.within(latitude, longitude, radiusKm);
+    }
+
+    /** 치과가 생기거나 좌표가 바뀌었을 때. 좌표가 비면 검색 대상에서 뺀다. */
+    public void onSaved(UUID dentalId, BigDecimal lat, BigDecimal lng) {
+        afterCommit(() -> {
+            if (lat == null || lng == null) {
+                grid.remove(dentalId);
+            } else {
+                grid.put(dentalId, lat.doubleValue(), lng.doubleValue());
+            }
+        });
+    }
+
+    public void onDeleted(UUID dentalId) {
+        afterCommit(() -> grid.remove(dentalId));
+    }
+
+    // 롤백된 변경이 인덱스에 남지 않도록 트랜잭션 안이면 커밋 뒤에 반영한다
+    private void afterCommit(Runnable change) {
+        if (!isReady()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+}
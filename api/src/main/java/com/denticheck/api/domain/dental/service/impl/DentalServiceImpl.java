@@ -1,10 +1,14 @@
 package com.denticheck.api.domain.dental.service.impl;
 
+import com.denticheck.api.domain.dental.dto.NearbyDentalCursor;
+import com.denticheck.api.domain.dental.dto.NearbyDentalSlice;
 import com.denticheck.api.domain.dental.entity.DentalEntity;
 import com.denticheck.api.domain.dental.entity.DentalLikeEntity;
 import com.denticheck.api.domain.dental.repository.DentalLikeRepository;
 import com.denticheck.api.domain.dental.repository.DentalRepository;
+import com.denticheck.api.domain.dental.service.DentalGrid;
 import com.denticheck.api.domain.dental.service.DentalService;
+import com.denticheck.api.domain.dental.service.DentalSpatialIndex;
 import com.denticheck.api.domain.user.entity.UserEntity;
 import com.denticheck.api.domain.user.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
@@ -28,6 +32,7 @@ public class DentalServiceImpl implements DentalService {
     private final com.denticheck.api.domain.dental.repository.DentalVisitRepository dentalVisitRepository;
     private final com.denticheck.api.domain.dental.repository.DentalReviewRepository dentalReviewRepository;
     private final com.fasterxml.jackson.databind.ObjectMapper objectMapper;
+    private final DentalSpatialIndex dentalSpatialIndex;
 
     @PostConstruct
     public void init() {
@@ -44,19 +49,63 @@ public class DentalServiceImpl implements DentalService {
     @Transactional(readOnly = true)
     public org.springframework.data.domain.Page<DentalEntity> getNearbyDentals(double latitude, double longitude,
             double radiusKm, org.springframework.data.domain.Pageable pageable) {
-        // Calculate Bounding Box
-        // 1 degree of latitude is approximately 111.32 km
-        double latChange = radiusKm / 111.32;
-        double minLat = latitude - latChange;
-        double maxLat = latitude + latChange;
-
-        // 1 degree of longitude is approximately 111.32 * cos(latitude) km
-        double lngChange = radiusKm / (111.32 * Math.cos(Math.toRadians(latitude)));
-        double minLng = longitude - lngChange;
-        double maxLng = longitude + lngChange;
-
-        return dentalRepository.findNearbyDentals(latitude, longitude, radiusKm, minLat, maxLat, minLng, maxLng,
-                pageable);
+        if (dentalSpatialIndex.isReady()) {
+            return findNearbyInMemory(latitude, longitude, radiusKm, pageable);
+        }
+        // 반경 필터와 거리순 정렬은 earthdistance GiST 인덱스가 처리한다 (V29)
+        return dentalRepository.findNearbyDentals(latitude, longitude, radiusKm, pageable);
+    }
+
+    // 메모리 인덱스로 반경 검색과 정렬을 하고, DB 에서는 해당 페이지의 치과만 id 로 읽는다
+    private org.springframework.data.domain.Page<DentalEntity> findNearbyInMemory(double latitude, double longitude,
+            double radiusKm, org.springframework.data.domain.Pageable pageable) {
+        List<DentalGrid.Hit> hits = dentalSpatialIndex.within(latitude, longitude, radiusKm);
+        int from = (int) Math.min(pageable.getOffset(), hits.size());
+        int to = Math.min(from + pageable.getPageSize(), hits.size());
+        List<java.util.UUID> pageIds = hits.subList(from, to).stream().map(DentalGrid.Hit::id).toList();
+        return new org.springframework.data.domain.PageImpl<>(findAllInOrder(pageIds), pageable, hits.size());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public NearbyDentalSlice getNearbyDentalsAfter(double latitude, double longitude, double radiusKm, String after,
+            int size) {
+        NearbyDentalCursor cursor = NearbyDentalCursor.decode(after);
+        // SQL 로 시작한 목록은 인덱스가 그 사이 준비돼도 SQL 로 이어 간다. 메모리 커서는 인덱스가 없을 때(재적재 전)만
+        // SQL 로 넘어가며, 그때는 경계 치과의 거리가 ULP 만큼 달라 한 건이 빠지거나 겹칠 수 있다
+        if (dentalSpatialIndex.isReady() && cursor.source() != NearbyDentalCursor.Source.SQL) {
+            List<DentalGrid.Hit> hits = dentalSpatialIndex.within(latitude, longitude, radiusKm);
+            List<NearbyDentalCursor> rows = hits.stream()
+                    .map(hit -> new NearbyDentalCursor(NearbyDentalCursor.Source.MEMORY, hit.chordMeters(),
+                            hit.id()))
+                    .filter(row -> cursor.isBefore(row.distance(), row.id()))
+                    .limit(size + 1L)
+                    .toList();
+            return toSlice(rows, size, hits.size());
+        }
+        // 다음 페이지가 있는지는 한 건 더 읽어서 본다
+        List<NearbyDentalCursor> rows = dentalRepository.findNearbyDentalsAfter(latitude, longitude, radiusKm,
+                cursor.distance(), cursor.id(), size + 1).stream()
+                .map(row -> new NearbyDentalCursor(NearbyDentalCursor.Source.SQL, row.getDistance(), row.getId()))
+                .toList();
+        return toSlice(rows, size, null);
+    }
+
+    private NearbyDentalSlice toSlice(List<NearbyDentalCursor> rows, int size, Integer approximateTotal) {
+        List<NearbyDentalCursor> page = rows.subList(0, Math.min(size, rows.size()));
+        String nextCursor = rows.size() > size ? page.get(page.size() - 1).encode() : null;
+        List<DentalEntity> content = findAllInOrder(page.stream().map(NearbyDentalCursor::id).toList());
+        return new NearbyDentalSlice(content, nextCursor, approximateTotal);
+    }
+
+    // findAllById 는 순서를 지키지 않으므로 ids 순서대로 다시 늘어놓는다
+    private List<DentalEntity> findAllInOrder(List<java.util.UUID> ids) {
+        java.util.Map<java.util.UUID, DentalEntity> byId = dentalRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(DentalEntity::getId, dental -> dental));
+        return ids.stream()
+                .map(byId::get)
+                .filter(java.util.Objects::nonNull)
+                .toList();
     }
 
     @Override
@@ -76,6 +125,27 @@ public class DentalServiceImpl implements DentalService {
         return dentalReviewRepository.findByDentalId(dentalId);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public java.util.Map<java.util.UUID, List<com.denticheck.api.domain.dental.entity.DentalReviewEntity>> getReviewsByDentalIds(
+            java.util.Collection<java.util.UUID> dentalIds) {
+        if (dentalIds.isEmpty()) {
+            return java.util.Map.of();
+        }
+        return dentalReviewRepository.findByDentalIdIn(dentalIds).stream()
+                .collect(Collectors.groupingBy(review -> review.getDental().getId()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public java.util.Set<java.util.UUID> getLikedDentalIds(String username,
+            java.util.Collection<java.util.UUID> dentalIds) {
+        if (dentalIds.isEmpty()) {
+            return java.util.Set.of();
+        }
+        return new java.util.HashSet<>(dentalLikeRepository.findLikedDentalIds(username, dentalIds));
+    }
+
     @Override
     @Transactional
     public com.denticheck.api.domain.dental.entity.DentalReviewEntity createReview(java.util.UUID dentalId,
@@ -158,15 +228,8 @@ public class DentalServiceImpl implements DentalService {
             throw e;
         }
 
-        // Update Dental Rating
-        Integer currentCount = dental.getRatingCount() != null ? dental.getRatingCount() : 0;
-        java.math.BigDecimal currentAvg = dental.getRatingAvg() != null ? dental.getRatingAvg()
-                : java.math.BigDecimal.ZERO;
-
-        dental.updateRating(rating, currentCount, currentAvg);
-        dentalRepository.saveAndFlush(dental);
-
-        log.info("DEBUG: Updated Rating - Count: {}, Avg: {}", dental.getRatingCount(), dental.getRatingAvg());
+        // Update Dental Rating (SQL 증분 갱신. 어긋난 값은 DentalRatingReconcileScheduler 가 맞춘다)
+        dentalRepository.addRating(dentalId, rating);
 
         return review;
     }
@@ -232,6 +295,7 @@ public class DentalServiceImpl implements DentalService {
         }
 
         java.util.UUID dentalId = review.getDental().getId();
+        int rating = review.getRating().intValue();
 
         // Save visit ID before deleting the review (to avoid lazy loading issues)
         java.util.UUID visitId = review.getVisit() != null ? review.getVisit().getId() : null;
@@ -245,19 +309,7 @@ public class DentalServiceImpl implements DentalService {
             dentalVisitRepository.deleteById(visitId);
         }
 
-        // Recalculate denormalized rating on dental entity
-        DentalEntity dental = dentalRepository.findById(dentalId)
-                .orElseThrow(() -> new IllegalArgumentException("Dental not found: " + dentalId));
-        List<com.denticheck.api.domain.dental.entity.DentalReviewEntity> remaining = dentalReviewRepository
-                .findByDentalId(dentalId);
-        if (remaining.isEmpty()) {
-            dental.setRatingAvg(java.math.BigDecimal.ZERO);
-            dental.setRatingCount(0);
-        } else {
-            double avg = remaining.stream().mapToInt(r -> r.getRating().intValue()).average().orElse(0.0);
-            dental.setRatingAvg(java.math.BigDecimal.valueOf(avg).setScale(2, java.math.RoundingMode.HALF_UP));
-            dental.setRatingCount(remaining.size());
-        }
-        dentalRepository.save(dental);
+        // Update denormalized rating on dental entity
+        dentalRepository.removeRating(dentalId, rating);
     }
 }
@@ -0,0 +1,31 @@
+package com.denticheck.api.graphql.resolver;
+
+import com.denticheck.api.common.util.UserRoleOnly;
+import com.denticheck.api.domain.ai_check.dto.AiCheckJobResponse;
+import com.denticheck.api.domain.ai_check.service.AiCheckJobService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.method.annotation.SubscriptionMapping;
+import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Flux;
+
+import java.util.UUID;
+
+@Controller
+@UserRoleOnly
+@RequiredArgsConstructor
+public class AiCheckJobResolver {
+
+    private final AiCheckJobService aiCheckJobService;
+
+    @QueryMapping
+    public AiCheckJobResponse aiCheckJob(@Argument("sessionId") UUID sessionId) {
+        return aiCheckJobService.getJob(sessionId);
+    }
+
+    @SubscriptionMapping
+    public Flux<AiCheckJobResponse> aiCheckJobProgress(@Argument("sessionId") UUID sessionId) {
+        return aiCheckJobService.watch(sessionId);
+    }
+}
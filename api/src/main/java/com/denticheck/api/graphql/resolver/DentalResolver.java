@@ -1,10 +1,12 @@
 package com.denticheck.api.graphql.resolver;
 
+import com.denticheck.api.domain.dental.dto.NearbyDentalSlice;
 import com.denticheck.api.domain.dental.entity.DentalEntity;
 import com.denticheck.api.domain.dental.repository.DentalRepository;
 import com.denticheck.api.domain.dental.service.DentalService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
 import org.springframework.graphql.data.method.annotation.SchemaMapping;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
@@ -16,8 +18,15 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
+/**
+ * Dental 의 reviews / isLiked 는 목록(searchDentals 등)의 치과마다 따로 조회하지 않고
+ * 한 요청에서 모인 치과들을 IN 쿼리 한 번으로 함께 읽는다.
+ * ratingAvg / ratingCount 는 dentals 테이블에 저장된 집계(rating_avg, rating_count)를 그대로 쓴다.
+ */
 @Controller
 @RequiredArgsConstructor
 public class DentalResolver {
@@ -55,6 +64,21 @@ public class DentalResolver {
         return new DentalPage(dentalPage);
     }
 
+    /**
+     * searchDentals 의 커서 버전. 전체 건수(count 쿼리)를 세지 않고 OFFSET 도 쓰지 않는다.
+     * 그래도 깊은 페이지가 첫 페이지만큼 싸지는 않다. SQL 경로는 GiST 거리순 스캔이 커서 앞의 행을 다시 지나가므로
+     * 페이지가 깊을수록 느려지고, 메모리 경로는 페이지마다 반경 안 치과를 모두 모아 정렬한 뒤 커서 뒤만 남긴다.
+     * 커서는 만든 검색 경로(메모리/SQL)에 묶이며 자세한 내용은 NearbyDentalCursor 에 있다.
+     */
+    @QueryMapping
+    public DentalCursorPage searchDentalsByCursor(@Argument Double latitude, @Argument Double longitude,
+            @Argument Double radius, @Argument Integer first, @Argument String after) {
+
+        double searchRadius = (radius != null) ? radius : 5.0;
+        int size = (first != null && first > 0 && first <= 100) ? first : 10;
+        return new DentalCursorPage(dentalService.getNearbyDentalsAfter(latitude, longitude, searchRadius, after, size));
+    }
+
     @lombok.Data
     public static class DentalPage {
         private List<DentalEntity> content;
@@ -66,6 +90,21 @@ public class DentalResolver {
         }
     }
 
+    @lombok.Data
+    public static class DentalCursorPage {
+        private List<DentalEntity> content;
+        private String nextCursor;
+        private boolean hasNext;
+        private Integer approximateTotal;
+
+        public DentalCursorPage(NearbyDentalSlice slice) {
+            this.content = slice.content();
+            this.nextCursor = slice.nextCursor();
+            this.hasNext = slice.nextCursor() != null;
+            this.approximateTotal = slice.approximateTotal();
+        }
+    }
+
     @lombok.Data
     @lombok.AllArgsConstructor
     public static class PageInfo {
@@ -74,39 +113,44 @@ public class DentalResolver {
         private int totalElements;
     }
 
-    @SchemaMapping(typeName = "Dental", field = "reviews")
-    public List<com.denticheck.api.domain.dental.entity.DentalReviewEntity> reviews(DentalEntity dental) {
-        return dentalService.getReviews(dental.getId());
+    @BatchMapping(typeName = "Dental", field = "reviews")
+    public List<List<com.denticheck.api.domain.dental.entity.DentalReviewEntity>> reviews(List<DentalEntity> dentals) {
+        Map<UUID, List<com.denticheck.api.domain.dental.entity.DentalReviewEntity>> reviews = dentalService
+                .getReviewsByDentalIds(dentalIds(dentals));
+        return dentals.stream()
+                .map(dental -> reviews.getOrDefault(dental.getId(), List.of()))
+                .toList();
     }
 
     @SchemaMapping(typeName = "Dental", field = "ratingAvg")
     public Double ratingAvg(DentalEntity dental) {
-        List<com.denticheck.api.domain.dental.entity.DentalReviewEntity> reviews = dentalService
-                .getReviews(dental.getId());
-        if (reviews == null || reviews.isEmpty())
-            return 0.0;
-        double sum = reviews.stream().mapToInt(r -> r.getRating().intValue()).sum();
-        return Math.round(sum / reviews.size() * 10.0) / 10.0;
+        return Math.round(dental.getRatingAvgDouble() * 10.0) / 10.0;
     }
 
     @SchemaMapping(typeName = "Dental", field = "ratingCount")
     public Integer ratingCount(DentalEntity dental) {
-        List<com.denticheck.api.domain.dental.entity.DentalReviewEntity> reviews = dentalService
-                .getReviews(dental.getId());
-        return reviews != null ? reviews.size() : 0;
+        return dental.getRatingCountInt();
     }
 
-    @SchemaMapping(typeName = "Dental", field = "isLiked")
-    public Boolean isLiked(DentalEntity dental) {
+    @BatchMapping(typeName = "Dental", field = "isLiked")
+    public List<Boolean> isLiked(List<DentalEntity> dentals) {
+        Set<UUID> liked = Set.of();
         try {
             String username = SecurityContextHolder.getContext().getAuthentication().getName();
-            if (username == null || username.equals("anonymousUser")) {
-                return false;
+            if (username != null && !username.equals("anonymousUser")) {
+                liked = dentalService.getLikedDentalIds(username, dentalIds(dentals));
             }
-            return dentalService.isLiked(username, dental.getId());
         } catch (Exception e) {
-            return false;
+            // 좋아요 여부를 알 수 없으면 목록 조회는 그대로 두고 false 로 내려준다
         }
+        Set<UUID> likedIds = liked;
+        return dentals.stream()
+                .map(dental -> likedIds.contains(dental.getId()))
+                .toList();
+    }
+
+    private List<UUID> dentalIds(List<DentalEntity> dentals) {
+        return dentals.stream().map(DentalEntity::getId).distinct().toList();
     }
 
     @MutationMapping
@@ -0,0 +1,66 @@
+package com.denticheck.api.infrastructure.external.ai;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+
+/**
+ * 관측한 지연 시간으로 동시 호출 수 상한을 조정하는 AIMD 리미터.
+ * 호출이 latency-target 안에 성공하고 상한까지 쓰이고 있으면 상한을 한 윈도우에 1씩 늘리고,
+ * 실패하거나 목표를 넘기면 backoff-ratio 배로 줄인다.
+ * 자리가 없으면 기다리지 않고 바로 false 를 돌려주므로 호출 측은 즉시 대체 경로로 넘어갈 수 있다.
+ * {name}.limit / {name}.inflight 게이지와 {name}.rejected 카운터를 노출한다.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyTargetNanos;
+    private final double backoffRatio;
+    private final Counter rejected;
+
+    private double limit;
+    private int inFlight;
+
+    public AdaptiveConcurrencyLimiter(String name, int minLimit, int initialLimit, int maxLimit,
+            Duration latencyTarget, double backoffRatio, MeterRegistry meterRegistry) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+        this.latencyTargetNanos = latencyTarget.toNanos();
+        this.backoffRatio = backoffRatio;
+        this.rejected = meterRegistry.counter(name + ".rejected");
+        Gauge.builder(name + ".limit", this, AdaptiveConcurrencyLimiter::getLimit).register(meterRegistry);
+        Gauge.builder(name + ".inflight", this, AdaptiveConcurrencyLimiter::getInFlight).register(meterRegistry);
+    }
+
+    /** 자리가 있으면 차지하고 true. 성공했다면 반드시 release 를 호출해야 한다. */
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            rejected.increment();
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    public synchronized void release(long latencyNanos, boolean success) {
+        boolean saturated = inFlight >= (int) limit;
+        inFlight--;
+        if (!success || latencyNanos > latencyTargetNanos) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+        } else if (saturated) {
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        }
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+}
@@ -0,0 +1,82 @@
+package com.denticheck.api.infrastructure.external.ai;
+
+import org.apache.hc.core5.concurrent.Cancellable;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 하나의 AI 검진 작업이 보낸 외부 HTTP 요청(AI 서버, Ollama)을 묶는 취소 단위.
+ * 작업이 타임아웃되면 cancel()로 진행 중인 요청을 모두 끊어, 버려진 작업이 AI 서버를 계속 점유하지 않게 한다.
+ * fork()로 만든 하위 scope 는 따로 끊을 수 있고, 상위 scope 가 취소되면 함께 취소된다.
+ */
+public final class AiCallScope implements Cancellable {
+
+    private static final ThreadLocal<AiCallScope> CURRENT = new ThreadLocal<>();
+
+    private final Set<Cancellable> inFlight = ConcurrentHashMap.newKeySet();
+    private volatile boolean cancelled;
+
+    public static AiCallScope current() {
+        return CURRENT.get();
+    }
+
+    public static boolean isCurrentCancelled() {
+        AiCallScope scope = CURRENT.get();
+        return scope != null && scope.cancelled;
+    }
+
+    /** 현재 스레드의 scope 아래에 하위 scope 를 만든다. 현재 scope 가 없으면 독립된 scope 다. */
+    public static AiCallScope fork() {
+        AiCallScope child = new AiCallScope();
+        AiCallScope parent = CURRENT.get();
+        if (parent != null) {
+            parent.register(child);
+        }
+        return child;
+    }
+
+    /** 현재 스레드의 scope를 다른 스레드에서 실행될 작업에 이어 붙인다. */
+    public static <T> Supplier<T> propagate(Supplier<T> task) {
+        AiCallScope scope = CURRENT.get();
+        return scope == null ? task : () -> scope.call(task);
+    }
+
+    public <T> T call(Supplier<T> task) {
+        AiCallScope previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return task.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    public void register(Cancellable request) {
+        if (cancelled) {
+            request.cancel();
+            return;
+        }
+        inFlight.add(request);
+        if (cancelled) {
+            request.cancel();
+        }
+    }
+
+    @Override
+    public boolean cancel() {
+        cancelled = true;
+        inFlight.forEach(Cancellable::cancel);
+        inFlight.clear();
+        return true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
@@ -0,0 +1,72 @@
+package com.denticheck.api.infrastructure.external.ai;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * AI 서버 엔드포인트와 Ollama 별 서킷 브레이커 모음. 모든 브레이커는 ai.circuit.* 설정을 함께 쓴다.
+ * 4xx 응답은 서버가 살아 있다는 뜻이므로 실패로 세지 않고, 작업 취소(AiCallScope)로 끊긴 호출은 결과로 세지 않는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class AiCircuitBreakers {
+
+    public static final String AI_QUALITY = "ai.quality";
+    public static final String AI_DETECT = "ai.detect";
+    public static final String AI_INSPECT = "ai.inspect";
+    public static final String AI_INSPECT_BATCH = "ai.inspect_batch";
+    public static final String AI_CHAT = "ai.chat";
+    public static final String OLLAMA = "ollama";
+
+    @Value("${ai.circuit.window-size:20}")
+    private int windowSize;
+
+    @Value("${ai.circuit.minimum-calls:10}")
+    private int minimumCalls;
+
+    @Value("${ai.circuit.failure-rate-threshold:0.5}")
+    private double failureRateThreshold;
+
+    @Value("${ai.circuit.open-duration:30s}")
+    private Duration openDuration;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    public CircuitBreaker get(String name) {
+        return breakers.computeIfAbsent(name, key -> new CircuitBreaker(key, windowSize, minimumCalls,
+                failureRateThreshold, openDuration, meterRegistry));
+    }
+
+    /** 서킷이 열려 있으면 호출하지 않고 CircuitOpenException 을 던진다. */
+    public <T> T execute(String name, Supplier<T> call) {
+        CircuitBreaker breaker = get(name);
+        if (!breaker.tryAcquire()) {
+            throw new CircuitOpenException(name);
+        }
+        try {
+            T result = call.get();
+            breaker.onSuccess();
+            return result;
+        } catch (HttpClientErrorException e) {
+            breaker.onSuccess();
+            throw e;
+        } catch (RuntimeException | Error e) {
+            if (AiCallScope.isCurrentCancelled()) {
+                breaker.onIgnored();
+            } else {
+                breaker.onFailure();
+            }
+            throw e;
+        }
+    }
+}
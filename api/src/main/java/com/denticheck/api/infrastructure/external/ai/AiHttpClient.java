@@ -17,33 +17,37 @@ import org.springframework.web.client.RestClient;
 public class AiHttpClient implements AiClient {
 
     private final RestClient restClient;
+    private final AiCircuitBreakers aiCircuitBreakers;
 
-    public AiHttpClient(@Value("${ai.client.url}") String aiUrl, RestClient.Builder builder) {
+    public AiHttpClient(@Value("${ai.client.url}") String aiUrl, RestClient.Builder builder,
+            AiCircuitBreakers aiCircuitBreakers) {
         this.restClient = builder.baseUrl(aiUrl).build();
+        this.aiCircuitBreakers = aiCircuitBreakers;
     }
 
     @Override
     public AiQualityResponse checkQuality(AiQualityRequest request) {
         log.debug("checkQuality() 실행");
         log.info("AI 서비스의 checkQuality를 호출합니다. storageKey: {}", request.getStorageKey());
-        return restClient.post()
+        return aiCircuitBreakers.execute(AiCircuitBreakers.AI_QUALITY, () -> restClient.post()
                 .uri("/v1/quality")
                 .contentType(MediaType.APPLICATION_JSON)
                 .body(request)
                 .retrieve()
-                .body(AiQualityResponse.class);
+                .body(AiQualityResponse.class));
     }
 
     @Override
     public String askChat(AiChatAskRequest request) {
         log.debug("askChat() 실행");
-        ResponseEntity<AiChatAskResponse> entity = restClient.post()
-                .uri("/v1/chat/ask")
-                .contentType(MediaType.APPLICATION_JSON)
-                .accept(MediaType.APPLICATION_JSON)
-                .body(request)
-                .retrieve()
-                .toEntity(AiChatAskResponse.class);
+        ResponseEntity<AiChatAskResponse> entity = aiCircuitBreakers.execute(AiCircuitBreakers.AI_CHAT,
+                () -> restClient.post()
+                        .uri("/v1/chat/ask")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .body(request)
+                        .retrieve()
+                        .toEntity(AiChatAskResponse.class));
 
         return entity.getBody() != null ? entity.getBody().getAnswer() : null;
     }
@@ -0,0 +1,146 @@
+package com.denticheck.api.infrastructure.external.ai;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+
+/**
+ * 외부 의존성 하나에 대한 서킷 브레이커.
+ * 최근 windowSize 건 중 실패 비율이 failureRateThreshold 이상이면 OPEN 으로 바뀌어 openDuration 동안 호출을 바로 거절한다.
+ * 그 뒤 HALF_OPEN 에서는 한 건만 시험 호출로 통과시키고, 성공하면 CLOSED, 실패하면 다시 OPEN 으로 돌아간다.
+ * ai.circuit.state{name} 게이지(0=closed, 1=open, 2=half_open)와 ai.circuit.calls{name,outcome} 카운터를 노출한다.
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openDurationNanos;
+    private final MeterRegistry meterRegistry;
+
+    /** 최근 호출 결과의 링 버퍼. true 가 실패다. */
+    private final boolean[] window;
+    private int windowIndex;
+    private int windowCount;
+    private int windowFailures;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    public CircuitBreaker(String name, int windowSize, int minimumCalls, double failureRateThreshold,
+            Duration openDuration, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.window = new boolean[Math.max(1, windowSize)];
+        this.minimumCalls = Math.max(1, Math.min(minimumCalls, window.length));
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDurationNanos = openDuration.toNanos();
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("ai.circuit.state", this, breaker -> breaker.getState().ordinal())
+                .tags(Tags.of("name", name))
+                .register(meterRegistry);
+    }
+
+    /** 호출해도 되면 true. true 를 받았다면 onSuccess / onFailure / onIgnored 중 하나를 반드시 호출해야 한다. */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN && System.nanoTime() - openedAt >= openDurationNanos) {
+            transition(State.HALF_OPEN);
+        }
+        if (state == State.CLOSED) {
+            return true;
+        }
+        if (state == State.HALF_OPEN && !probeInFlight) {
+            probeInFlight = true;
+            return true;
+        }
+        count("rejected");
+        return false;
+    }
+
+    public synchronized void onSuccess() {
+        count("success");
+        if (state == State.HALF_OPEN) {
+            probeInFlight = false;
+            resetWindow();
+            transition(State.CLOSED);
+            return;
+        }
+        record(false);
+    }
+
+    public synchronized void onFailure() {
+        count("failure");
+        if (state == State.HALF_OPEN) {
+            probeInFlight = false;
+            open();
+            return;
+        }
+        record(true);
+        if (state == State.CLOSED && windowCount >= minimumCalls
+                && (double) windowFailures / windowCount >= failureRateThreshold) {
+            open();
+        }
+    }
+
+    /** 호출이 의존성 상태와 무관한 이유(작업 취소, 다른 제한)로 끝났을 때. 결과로 세지 않는다. */
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN) {
+            probeInFlight = false;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private void record(boolean failure) {
+        if (windowCount == window.length) {
+            if (window[windowIndex]) {
+                windowFailures--;
+            }
+        } else {
+            windowCount++;
+        }
+        window[windowIndex] = failure;
+        if (failure) {
+            windowFailures++;
+        }
+        windowIndex = (windowIndex + 1) % window.length;
+    }
+
+    private void open() {
+        openedAt = System.nanoTime();
+        resetWindow();
+        transition(State.OPEN);
+    }
+
+    private void resetWindow() {
+        windowIndex = 0;
+        windowCount = 0;
+        windowFailures = 0;
+    }
+
+    private void transition(State next) {
+        if (state == next) {
+            return;
+        }
+        log.warn("Circuit {} {} -> {}", name, state, next);
+        state = next;
+    }
+
+    private void count(String outcome) {
+        meterRegistry.counter("ai.circuit.calls", "name", name, "outcome", outcome).increment();
+    }
+}
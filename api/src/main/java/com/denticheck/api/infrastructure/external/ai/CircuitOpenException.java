@@ -0,0 +1,11 @@
+package com.denticheck.api.infrastructure.external.ai;
+
+/**
+ * 서킷이 열려 있어 외부 호출을 보내지 않고 바로 거절했음을 알린다.
+ */
+public class CircuitOpenException extends RuntimeException {
+
+    public CircuitOpenException(String name) {
+        super("Circuit " + name + " is open");
+    }
+}
@@ -0,0 +1,27 @@
+package com.denticheck.api.infrastructure.external.ai.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * AI 서버 /v1/detect 응답. bbox 는 이미지 크기에 대한 상대 좌표(중심 x/y, 너비/높이)다.
+ * summary 는 라벨별 통계로 형태가 정해져 있지 않아 맵으로 받는다.
+ */
+public record AiDetectResponse(List<Detection> detections, Map<String, Object> summary) {
+
+    public static final AiDetectResponse EMPTY = new AiDetectResponse(List.of(), Map.of());
+
+    public List<Detection> detections() {
+        return detections == null ? List.of() : detections;
+    }
+
+    public Map<String, Object> summary() {
+        return summary == null ? Map.of() : summary;
+    }
+
+    public record Detection(String label, double confidence, Box bbox) {
+    }
+
+    public record Box(double x, double y, double w, double h) {
+    }
+}
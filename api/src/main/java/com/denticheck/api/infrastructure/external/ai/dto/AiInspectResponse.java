@@ -0,0 +1,16 @@
+package com.denticheck.api.infrastructure.external.ai.dto;
+
+import java.util.List;
+
+/**
+ * AI 서버 /v1/inspect(quality + detect 한 번에) 응답. 배치(/v1/inspect/batch)는 사진 순서대로 results 에 담긴다.
+ */
+public record AiInspectResponse(AiQualityResponse quality, AiDetectResponse detect) {
+
+    public record Batch(List<AiInspectResponse> results) {
+
+        public List<AiInspectResponse> results() {
+            return results == null ? List.of() : results;
+        }
+    }
+}
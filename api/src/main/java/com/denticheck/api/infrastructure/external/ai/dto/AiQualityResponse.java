@@ -1,5 +1,6 @@
 package com.denticheck.api.infrastructure.external.ai.dto;
 
+import com.fasterxml.jackson.annotation.JsonAlias;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -11,6 +12,8 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 public class AiQualityResponse {
+    /** AI 서버(pydantic)는 pass_ 로 내보낸다 */
+    @JsonAlias("pass_")
     private boolean pass;
     private List<String> reasons;
     private Double score;
@@ -0,0 +1,2 @@
+-- 같은 사진 재업로드 시 이전 검진 결과를 찾기 위한 인덱스
+CREATE INDEX idx_ai_images_image_hash ON ai_images (image_hash);
@@ -0,0 +1,5 @@
+-- 비동기 AI 검진 작업: /api/ai-check 는 비로그인 요청도 받으므로 세션의 사용자는 선택값
+ALTER TABLE ai_check_sessions ALTER COLUMN user_id DROP NOT NULL;
+
+CREATE INDEX idx_ai_images_session ON ai_images (session_id);
+CREATE INDEX idx_ai_detections_session ON ai_detections (session_id);
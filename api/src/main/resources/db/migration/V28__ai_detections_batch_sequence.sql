@@ -0,0 +1,2 @@
+-- ai_detections 를 JDBC batch INSERT 하기 위해 Hibernate pooled 시퀀스(allocationSize = 50)와 증가폭을 맞춘다
+ALTER TABLE ai_detections ALTER COLUMN id SET INCREMENT BY 50;
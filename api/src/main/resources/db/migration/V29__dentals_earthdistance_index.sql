@@ -0,0 +1,12 @@
+-- 반경 검색(findNearbyDentals)용 공간 인덱스.
+-- 로컬/운영 이미지(postgres:15-alpine)에는 PostGIS 가 없으므로 contrib 의 cube + earthdistance 를 쓴다.
+-- ll_to_earth(lat, lng) 는 지구 중심 기준 3차원 좌표(cube)이며, GiST 인덱스로
+--   * earth_box(center, r) @> point  : 반경을 감싸는 상자 검색 (인덱스 범위 스캔)
+--   * point <-> center                : 가까운 순 KNN 정렬 (인덱스 순서로 읽음)
+-- 을 처리한다. 컬럼을 추가하지 않고 표현식 인덱스로 두어 엔티티 매핑은 그대로다.
+CREATE EXTENSION IF NOT EXISTS cube;
+CREATE EXTENSION IF NOT EXISTS earthdistance;
+
+CREATE INDEX idx_dentals_earth_point ON dentals USING gist (ll_to_earth(lat::float8, lng::float8));
+
+ANALYZE dentals;
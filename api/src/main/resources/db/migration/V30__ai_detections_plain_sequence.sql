@@ -0,0 +1,7 @@
+-- identity 컬럼이 소유한 시퀀스는 information_schema.sequences 에 보이지 않아 Hibernate 스키마 검증(ddl-auto=validate)이
+-- ai_detections_id_seq 를 찾지 못한다. identity 를 일반 시퀀스(증가폭 50, pooled 할당과 같은 단위)로 바꾼다
+ALTER TABLE ai_detections ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE ai_detections_id_seq INCREMENT BY 50 OWNED BY ai_detections.id;
+-- pooled 할당은 nextval 값에서 49 를 뺀 값부터 쓰므로, 기존 id 와 겹치지 않도록 한 블록 위에서 시작한다
+SELECT setval('ai_detections_id_seq', COALESCE((SELECT MAX(id) FROM ai_detections), 0) + 50, false);
+ALTER TABLE ai_detections ALTER COLUMN id SET DEFAULT nextval('ai_detections_id_seq');
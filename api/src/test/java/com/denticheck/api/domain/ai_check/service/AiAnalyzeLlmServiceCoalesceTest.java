@@ -0,0 +1,159 @@
+package com.denticheck.api.domain.ai_check.service;
+
+import com.denticheck.api.domain.ai_check.dto.AnalyzeResponse;
+import com.denticheck.api.domain.ai_check.dto.DetectionItem;
+import com.denticheck.api.infrastructure.external.ai.AiCallScope;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class AiAnalyzeLlmServiceCoalesceTest {
+
+        /** 가짜 Ollama 가 응답을 보내지 않고 붙잡고 있는 최대 시간 */
+        private static final long HOLD_MS = 15_000;
+
+        private static final String RESPONSE = "{\"riskLevel\":\"YELLOW\",\"summary\":\"shared summary\","
+                        + "\"findings\":[{\"title\":\"Shared\",\"detail\":\"from ollama\",\"evidence\":[\"rag:0\"]}],"
+                        + "\"careGuide\":[\"Brush\"],\"disclaimer\":[\"Screening only\"]}";
+
+        private static final ObjectMapper MAPPER = new ObjectMapper();
+        private static final Semaphore REQUESTED = new Semaphore(0);
+        private static final ExecutorService REQUESTS = Executors.newCachedThreadPool();
+        private static volatile CountDownLatch release = new CountDownLatch(1);
+        private static HttpServer ollama;
+
+        @Autowired
+        private AiAnalyzeLlmService aiAnalyzeLlmService;
+
+        @Autowired
+        private MeterRegistry meterRegistry;
+
+        @DynamicPropertySource
+        static void ollamaProperties(DynamicPropertyRegistry registry) throws IOException {
+                ollama = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+                ollama.setExecutor(Executors.newCachedThreadPool(runnable -> {
+                        Thread thread = new Thread(runnable, "fake-ollama");
+                        thread.setDaemon(true);
+                        return thread;
+                }));
+                ollama.createContext("/api/generate", exchange -> {
+                        exchange.getRequestBody().readAllBytes();
+                        exchange.getResponseHeaders().add("Content-Type", "application/x-ndjson");
+                        exchange.sendResponseHeaders(200, 0);
+                        REQUESTED.release();
+                        try (OutputStream out = exchange.getResponseBody()) {
+                                release.await(HOLD_MS, TimeUnit.MILLISECONDS);
+                                out.write(chunk(Map.of("response", RESPONSE, "done", false)));
+                                out.write(chunk(Map.of("response", "", "done", true)));
+                        } catch (IOException | InterruptedException e) {
+                                // 클라이언트가 먼저 끊은 경우
+                        }
+                });
+                ollama.start();
+
+                registry.add("ollama.enabled", () -> "true");
+                registry.add("ollama.base-url", () -> "http://127.0.0.1:" + ollama.getAddress().getPort());
+                registry.add("ollama.generate.stream", () -> "true");
+                registry.add("ollama.generate.timeout-ms", () -> "60000");
+                registry.add("ollama.generate.budget-ms", () -> "60000");
+                registry.add("ollama.hedge.slo", () -> "60s");
+                registry.add("ai.llm-memo.enabled", () -> "false");
+        }
+
+        @AfterAll
+        static void stopOllama() {
+                release.countDown();
+                ollama.stop(0);
+                REQUESTS.shutdownNow();
+        }
+
+        @Test
+        @DisplayName("A coalesced request still gets the LLM result when the request that started the call is cancelled")
+        void followerSurvivesLeaderCancel() throws Exception {
+                release = new CountDownLatch(1);
+                AiCallScope leaderScope = new AiCallScope();
+                AiCallScope followerScope = new AiCallScope();
+
+                CompletableFuture<AnalyzeResponse.LlmResult> leader = generateIn(leaderScope, "caries");
+                assertThat(REQUESTED.tryAcquire(10, TimeUnit.SECONDS)).isTrue();
+                double coalesced = coalescedCount();
+                CompletableFuture<AnalyzeResponse.LlmResult> follower = generateIn(followerScope, "caries");
+                awaitCoalesced(coalesced + 1);
+
+                leaderScope.cancel();
+                release.countDown();
+
+                assertThat(follower.get(10, TimeUnit.SECONDS).getSummary()).isEqualTo("shared summary");
+                assertThat(leader.get(10, TimeUnit.SECONDS)).isNotNull();
+        }
+
+        @Test
+        @DisplayName("The shared call is cut once every waiting request is cancelled")
+        void lastCancelAbortsSharedCall() throws Exception {
+                release = new CountDownLatch(1);
+                AiCallScope leaderScope = new AiCallScope();
+                AiCallScope followerScope = new AiCallScope();
+                long startedAt = System.nanoTime();
+
+                CompletableFuture<AnalyzeResponse.LlmResult> leader = generateIn(leaderScope, "tartar");
+                assertThat(REQUESTED.tryAcquire(10, TimeUnit.SECONDS)).isTrue();
+                double coalesced = coalescedCount();
+                CompletableFuture<AnalyzeResponse.LlmResult> follower = generateIn(followerScope, "tartar");
+                awaitCoalesced(coalesced + 1);
+
+                leaderScope.cancel();
+                followerScope.cancel();
+
+                // 가짜 Ollama 는 아직 응답을 붙잡고 있으므로, 빨리 돌아왔다면 호출이 끊긴 것이다
+                assertThat(follower.get(10, TimeUnit.SECONDS).getSummary()).isNotEqualTo("shared summary");
+                assertThat(leader.get(10, TimeUnit.SECONDS).getSummary()).isNotEqualTo("shared summary");
+                assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt)).isLessThan(HOLD_MS / 3);
+        }
+
+        private CompletableFuture<AnalyzeResponse.LlmResult> generateIn(AiCallScope scope, String label) {
+                return CompletableFuture.supplyAsync(() -> scope.call(() -> aiAnalyzeLlmService.generate(
+                                List.of(DetectionItem.builder().label(label).confidence(0.8).build()),
+                                Map.of("qualityPass", true),
+                                List.of())), REQUESTS);
+        }
+
+        private double coalescedCount() {
+                return meterRegistry.counter("ollama.generate.coalesced").count();
+        }
+
+        private void awaitCoalesced(double expected) throws InterruptedException {
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+                while (coalescedCount() < expected && System.nanoTime() < deadline) {
+                        Thread.sleep(10);
+                }
+                // 합류한 요청이 대기에 들어갈 시간을 조금 더 준다
+                Thread.sleep(100);
+        }
+
+        private static byte[] chunk(Map<String, Object> chunk) throws IOException {
+                return (MAPPER.writeValueAsString(chunk) + "\n").getBytes(StandardCharsets.UTF_8);
+        }
+}
@@ -0,0 +1,105 @@
+package com.denticheck.api.domain.ai_check.service;
+
+import com.denticheck.api.domain.ai_check.dto.AnalyzeResponse;
+import com.denticheck.api.domain.ai_check.dto.DetectionItem;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class AiAnalyzeLlmServiceStreamTest {
+
+        /** JSON 이 다 온 뒤 done 청크를 보내기까지 가짜 Ollama 가 스트림을 붙잡고 있는 시간 */
+        private static final long HOLD_MS = 15_000;
+
+        private static final List<String> PIECES = List.of(
+                        "{\"riskLevel\":\"YELLOW\",\"summary\":\"streamed summary\",",
+                        "\"findings\":[{\"title\":\"Streamed\",\"detail\":\"from stream\",\"evidence\":[\"rag:0\"]}],",
+                        "\"careGuide\":[\"Brush\"],\"disclaimer\":[\"Screening only\"]}");
+
+        private static final ObjectMapper MAPPER = new ObjectMapper();
+        private static final CountDownLatch RELEASE = new CountDownLatch(1);
+        private static HttpServer ollama;
+
+        @Autowired
+        private AiAnalyzeLlmService aiAnalyzeLlmService;
+
+        @DynamicPropertySource
+        static void ollamaProperties(DynamicPropertyRegistry registry) throws IOException {
+                ollama = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+                ollama.setExecutor(Executors.newCachedThreadPool(runnable -> {
+                        Thread thread = new Thread(runnable, "fake-ollama");
+                        thread.setDaemon(true);
+                        return thread;
+                }));
+                ollama.createContext("/api/generate", exchange -> {
+                        exchange.getRequestBody().readAllBytes();
+                        exchange.getResponseHeaders().add("Content-Type", "application/x-ndjson");
+                        exchange.sendResponseHeaders(200, 0);
+                        try (OutputStream out = exchange.getResponseBody()) {
+                                for (String piece : PIECES) {
+                                        out.write(chunk(Map.of("response", piece, "done", false)));
+                                        out.flush();
+                                }
+                                // 생성이 아직 끝나지 않은 것처럼 done 청크를 늦게 보낸다
+                                RELEASE.await(HOLD_MS, TimeUnit.MILLISECONDS);
+                                out.write(chunk(Map.of("response", "", "done", true)));
+                        } catch (IOException | InterruptedException e) {
+                                // 클라이언트가 먼저 끊은 경우
+                        }
+                });
+                ollama.start();
+
+                registry.add("ollama.enabled", () -> "true");
+                registry.add("ollama.base-url", () -> "http://127.0.0.1:" + ollama.getAddress().getPort());
+                registry.add("ollama.generate.stream", () -> "true");
+                registry.add("ollama.generate.timeout-ms", () -> "60000");
+                registry.add("ollama.generate.budget-ms", () -> "60000");
+                registry.add("ollama.hedge.slo", () -> "60s");
+                registry.add("ai.llm-memo.enabled", () -> "false");
+        }
+
+        @AfterAll
+        static void stopOllama() {
+                RELEASE.countDown();
+                ollama.stop(0);
+        }
+
+        @Test
+        @DisplayName("Streaming call returns once the JSON closes, without draining the rest of the stream")
+        void returnsBeforeStreamEnds() {
+                long startedAt = System.nanoTime();
+
+                AnalyzeResponse.LlmResult result = aiAnalyzeLlmService.generate(
+                                List.of(DetectionItem.builder().label("caries").confidence(0.8).build()),
+                                Map.of("qualityPass", true),
+                                List.of());
+
+                long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+                // 규칙 기반 fallback 이 아니라 스트림에서 읽은 결과여야 한다
+                assertThat(result.getSummary()).isEqualTo("streamed summary");
+                assertThat(elapsedMs).isLessThan(HOLD_MS / 3);
+        }
+
+        private static byte[] chunk(Map<String, Object> chunk) throws IOException {
+                return (MAPPER.writeValueAsString(chunk) + "\n").getBytes(StandardCharsets.UTF_8);
+        }
+}
@@ -8,7 +8,9 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -63,13 +65,9 @@ class DentalRepositoryIntegrationTest {
 
                 // When: Search within 5km radius
                 double radius = 5.0;
-                double latChange = radius / 111.32;
-                double lngChange = radius / (111.32 * Math.cos(Math.toRadians(seoulStationLat)));
                 org.springframework.data.domain.Page<DentalEntity> nearbyDentalsPage = dentalRepository
                                 .findNearbyDentals(seoulStationLat, seoulStationLon,
                                                 radius,
-                                                seoulStationLat - latChange, seoulStationLat + latChange,
-                                                seoulStationLon - lngChange, seoulStationLon + lngChange,
                                                 org.springframework.data.domain.PageRequest.of(0, 10));
                 List<DentalEntity> nearbyDentals = nearbyDentalsPage.getContent();
 
@@ -79,14 +77,10 @@ class DentalRepositoryIntegrationTest {
 
                 // When: Search within 15km radius
                 radius = 15.0;
-                latChange = radius / 111.32;
-                lngChange = radius / (111.32 * Math.cos(Math.toRadians(seoulStationLat)));
 
                 org.springframework.data.domain.Page<DentalEntity> withinRegionPage = dentalRepository
                                 .findNearbyDentals(seoulStationLat, seoulStationLon,
                                                 radius,
-                                                seoulStationLat - latChange, seoulStationLat + latChange,
-                                                seoulStationLon - lngChange, seoulStationLon + lngChange,
                                                 org.springframework.data.domain.PageRequest.of(0, 10));
 
                 List<DentalEntity> withinRegion = withinRegionPage.getContent();
@@ -98,4 +92,53 @@ class DentalRepositoryIntegrationTest {
                 assertThat(withinRegion.get(0).getName()).isEqualTo("City Hall Dental");
                 assertThat(withinRegion.get(1).getName()).isEqualTo("Gangnam Dental");
         }
+
+        @Test
+        @DisplayName("Keyset pages cover every nearby dental once, nearest first")
+        void findNearbyDentalsAfter() {
+                // Given: 바다 한가운데 좌표 주변 7곳. 두 곳은 같은 좌표라 거리가 같고 id 로 순서가 갈린다
+                double centerLat = 33.2000;
+                double centerLng = 124.2000;
+                double[][] coords = {
+                                { 33.2010, 124.2000 }, { 33.2020, 124.2000 }, { 33.2020, 124.2000 },
+                                { 33.2000, 124.2050 }, { 33.1900, 124.2000 }, { 33.2100, 124.2100 },
+                                { 33.1800, 124.1800 } };
+                for (int i = 0; i < coords.length; i++) {
+                        dentalRepository.save(DentalEntity.builder()
+                                        .id(UUID.randomUUID())
+                                        .name("Keyset Dental " + i)
+                                        .address("Keyset Address " + i)
+                                        .source("source")
+                                        .sourceKey("keyset-" + UUID.randomUUID())
+                                        .lat(BigDecimal.valueOf(coords[i][0]))
+                                        .lng(BigDecimal.valueOf(coords[i][1]))
+                                        .build());
+                }
+                dentalRepository.flush();
+
+                // When: 3건씩 커서로 끝까지 넘긴다
+                List<DentalRepository.NearbyDentalRow> rows = new ArrayList<>();
+                double afterDistance = -1;
+                UUID afterId = new UUID(0, 0);
+                while (true) {
+                        List<DentalRepository.NearbyDentalRow> page = dentalRepository.findNearbyDentalsAfter(
+                                        centerLat, centerLng, 5.0, afterDistance, afterId, 3);
+                        rows.addAll(page);
+                        if (page.size() < 3) {
+                                break;
+                        }
+                        afterDistance = page.get(2).getDistance();
+                        afterId = page.get(2).getId();
+                }
+
+                // Then: 반경 안 7곳이 한 번씩, 가까운 순으로 나온다
+                assertThat(rows).extracting(DentalRepository.NearbyDentalRow::getId).doesNotHaveDuplicates().hasSize(7);
+                assertThat(rows).extracting(DentalRepository.NearbyDentalRow::getDistance).isSorted();
+                assertThat(rows).extracting(DentalRepository.NearbyDentalRow::getId)
+                                .containsExactlyInAnyOrderElementsOf(dentalRepository
+                                                .findNearbyDentals(centerLat, centerLng, 5.0,
+                                                                org.springframework.data.domain.PageRequest.of(0, 10))
+                                                .map(DentalEntity::getId)
+                                                .getContent());
+        }
 }
@@ -0,0 +1,138 @@
+package com.denticheck.api.domain.dental.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class DentalGridTest {
+
+        private static final double EARTH_RADIUS_KM = 6378.168;
+        private static final int POINTS = 50_000;
+        private static final int QUERIES = 200;
+
+        private final Random random = new Random(1);
+        private final UUID[] ids = new UUID[POINTS];
+        private final double[] lats = new double[POINTS];
+        private final double[] lngs = new double[POINTS];
+        private DentalGrid grid;
+
+        @BeforeEach
+        void setUp() {
+                // 전국 범위(위도 33.0~38.6, 경도 124.6~131.0)에 고르게 뿌린다
+                grid = new DentalGrid(0.01);
+                for (int i = 0; i < POINTS; i++) {
+                        ids[i] = UUID.randomUUID();
+                        lats[i] = 33.0 + random.nextDouble() * 5.6;
+                        lngs[i] = 124.6 + random.nextDouble() * 6.4;
+                        grid.add(ids[i], lats[i], lngs[i]);
+                }
+        }
+
+        @Test
+        @DisplayName("within returns exactly the points a brute-force scan finds, nearest first")
+        void withinMatchesBruteForce() {
+                for (int q = 0; q < QUERIES; q++) {
+                        double lat = 33.0 + random.nextDouble() * 5.6;
+                        double lng = 124.6 + random.nextDouble() * 6.4;
+                        double radiusKm = q % 3 == 0 ? 50 : 5;
+
+                        double[] expected = Arrays.stream(distancesFrom(lat, lng))
+                                        .filter(d -> d < radiusKm)
+                                        .sorted()
+                                        .toArray();
+                        List<DentalGrid.Hit> hits = grid.within(lat, lng, radiusKm);
+
+                        assertThat(hits).hasSize(expected.length);
+                        for (int i = 0; i < expected.length; i++) {
+                                assertThat(hits.get(i).distanceKm()).isCloseTo(expected[i], within(1e-9));
+                        }
+                }
+        }
+
+        @Test
+        @DisplayName("nearest returns the k closest points of a brute-force scan, nearest first")
+        void nearestMatchesBruteForce() {
+                int k = 20;
+                for (int q = 0; q < QUERIES; q++) {
+                        double lat = 33.0 + random.nextDouble() * 5.6;
+                        double lng = 124.6 + random.nextDouble() * 6.4;
+
+                        double[] expected = distancesFrom(lat, lng);
+                        Arrays.sort(expected);
+                        List<DentalGrid.Hit> hits = grid.nearest(lat, lng, k);
+
+                        assertThat(hits).hasSize(k);
+                        for (int i = 0; i < k; i++) {
+                                assertThat(hits.get(i).distanceKm()).isCloseTo(expected[i], within(1e-9));
+                        }
+                }
+        }
+
+        @Test
+        @Timeout(5)
+        @DisplayName("nearest from far outside the grid still reaches the closest points, walking only populated rings")
+        void nearestFromOutsideGrid() {
+                // (0,0) 은 점이 있는 범위에서 1만 칸 넘게 떨어져 있다. 범위 밖 고리를 다 돌면 제한 시간을 넘긴다
+                for (double[] center : new double[][] {{0, 0}, {36.0, 0}, {60.0, 128.0}}) {
+                        double[] expected = distancesFrom(center[0], center[1]);
+                        Arrays.sort(expected);
+
+                        List<DentalGrid.Hit> hits = grid.nearest(center[0], center[1], 3);
+
+                        assertThat(hits).hasSize(3);
+                        for (int i = 0; i < 3; i++) {
+                                assertThat(hits.get(i).distanceKm()).isCloseTo(expected[i], within(1e-9));
+                        }
+                }
+        }
+
+        @Test
+        @DisplayName("put moves an existing point and remove drops it")
+        void putAndRemove() {
+                grid.put(ids[0], 37.5, 127.0);
+
+                assertThat(grid.size()).isEqualTo(POINTS);
+                assertThat(grid.nearest(37.5, 127.0, 1).get(0).id()).isEqualTo(ids[0]);
+
+                assertThat(grid.remove(ids[0])).isTrue();
+                assertThat(grid.remove(ids[0])).isFalse();
+                assertThat(grid.size()).isEqualTo(POINTS - 1);
+                assertThat(grid.within(37.5, 127.0, 0.001)).extracting(DentalGrid.Hit::id).doesNotContain(ids[0]);
+        }
+
+        @Test
+        @DisplayName("an empty grid answers with no hits")
+        void emptyGrid() {
+                DentalGrid empty = new DentalGrid(0.01);
+
+                assertThat(empty.within(37.5, 127.0, 5)).isEmpty();
+                assertThat(empty.nearest(37.5, 127.0, 5)).isEmpty();
+                assertThat(grid.nearest(37.5, 127.0, 0)).isEmpty();
+        }
+
+        private double[] distancesFrom(double lat, double lng) {
+                double[] distances = new double[POINTS];
+                for (int i = 0; i < POINTS; i++) {
+                        distances[i] = haversineKm(lat, lng, lats[i], lngs[i]);
+                }
+                return distances;
+        }
+
+        private static double haversineKm(double lat1, double lng1, double lat2, double lng2) {
+                double phi1 = Math.toRadians(lat1);
+                double phi2 = Math.toRadians(lat2);
+                double sinLat = Math.sin((phi2 - phi1) / 2);
+                double sinLng = Math.sin(Math.toRadians(lng2 - lng1) / 2);
+                double h = sinLat * sinLat + Math.cos(phi1) * Math.cos(phi2) * sinLng * sinLng;
+                return 2 * EARTH_RADIUS_KM * Math.asin(Math.sqrt(h));
+        }
+}
@@ -0,0 +1,157 @@
+package com.denticheck.api.graphql.resolver;
+
+import com.denticheck.api.domain.dental.entity.DentalEntity;
+import com.denticheck.api.domain.dental.entity.DentalLikeEntity;
+import com.denticheck.api.domain.dental.entity.DentalReviewEntity;
+import com.denticheck.api.domain.dental.entity.DentalVisitEntity;
+import com.denticheck.api.domain.user.entity.UserEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.graphql.ExecutionGraphQlService;
+import org.springframework.graphql.test.tester.ExecutionGraphQlServiceTester;
+import org.springframework.graphql.test.tester.GraphQlTester;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class DentalResolverQueryCountTest {
+
+        private static final String USERNAME = "test_user_batch";
+        private static final double CENTER_LAT = 33.1000;
+        private static final double CENTER_LNG = 124.1000;
+        private static final int DENTAL_COUNT = 30;
+
+        private static final String SEARCH_DENTALS = """
+                        query($lat: Float!, $lng: Float!, $size: Int) {
+                          searchDentals(latitude: $lat, longitude: $lng, radius: 3.0, page: 0, size: $size) {
+                            content { id ratingAvg ratingCount isLiked reviews { id rating } }
+                          }
+                        }
+                        """;
+
+        @Autowired
+        private ExecutionGraphQlService graphQlService;
+
+        @Autowired
+        private EntityManager entityManager;
+
+        @Autowired
+        private EntityManagerFactory entityManagerFactory;
+
+        private ExecutionGraphQlServiceTester graphQlTester;
+
+        @BeforeEach
+        void setUp() {
+                graphQlTester = ExecutionGraphQlServiceTester.create(graphQlService);
+
+                UserEntity user = UserEntity.builder()
+                                .username(USERNAME)
+                                .nickname("Batch User")
+                                .email("batch@example.com")
+                                .build();
+                entityManager.persist(user);
+
+                // 바다 한가운데 좌표 주변에 치과를 모아 두어 기존 데이터와 섞이지 않게 한다
+                for (int i = 0; i < DENTAL_COUNT; i++) {
+                        DentalEntity dental = DentalEntity.builder()
+                                        .id(UUID.randomUUID())
+                                        .name("Batch Dental " + i)
+                                        .address("Batch Address " + i)
+                                        .source("test")
+                                        .sourceKey("batch-" + UUID.randomUUID())
+                                        .lat(BigDecimal.valueOf(CENTER_LAT + i * 0.0001))
+                                        .lng(BigDecimal.valueOf(CENTER_LNG))
+                                        .ratingAvg(BigDecimal.valueOf(1 + i % 5))
+                                        .ratingCount(1)
+                                        .build();
+                        entityManager.persist(dental);
+
+                        DentalVisitEntity visit = DentalVisitEntity.builder()
+                                        .id(UUID.randomUUID())
+                                        .user(user)
+                                        .dental(dental)
+                                        .visitedAt(LocalDate.now())
+                                        .build();
+                        entityManager.persist(visit);
+
+                        entityManager.persist(DentalReviewEntity.builder()
+                                        .id(UUID.randomUUID())
+                                        .visit(visit)
+                                        .user(user)
+                                        .dental(dental)
+                                        .rating((short) (1 + i % 5))
+                                        .content("review " + i)
+                                        .build());
+
+                        if (i % 2 == 0) {
+                                entityManager.persist(DentalLikeEntity.builder()
+                                                .userId(user.getId())
+                                                .dentalId(dental.getId())
+                                                .build());
+                        }
+                }
+                entityManager.flush();
+                entityManager.clear();
+        }
+
+        @Test
+        @WithMockUser(username = USERNAME)
+        @DisplayName("Dental field resolvers run a fixed number of queries regardless of page size")
+        void queryCountDoesNotGrowWithPageSize() {
+                long smallPage = countStatements(5);
+                long largePage = countStatements(20);
+
+                // 검색(목록 + count) + 리뷰 + 좋아요 여부. 평점은 dentals 에 저장된 값을 쓴다
+                assertThat(largePage).isEqualTo(smallPage);
+                assertThat(largePage).isLessThanOrEqualTo(5);
+        }
+
+        @Test
+        @WithMockUser(username = USERNAME)
+        @DisplayName("Batched fields return per-dental values")
+        void batchedFieldsMatchDentals() {
+                GraphQlTester.Response response = search(20);
+
+                assertThat(response.path("searchDentals.content[*].ratingCount").entityList(Integer.class).get())
+                                .hasSize(20)
+                                .containsOnly(1);
+                assertThat(response.path("searchDentals.content[*].reviews[*].id").entityList(String.class).get())
+                                .hasSize(20);
+                assertThat(response.path("searchDentals.content[*].isLiked").entityList(Boolean.class).get())
+                                .contains(true, false);
+        }
+
+        private long countStatements(int size) {
+                entityManager.clear();
+                Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+                statistics.clear();
+
+                search(size).path("searchDentals.content").entityList(Object.class).hasSize(size);
+
+                return statistics.getPrepareStatementCount();
+        }
+
+        private GraphQlTester.Response search(int size) {
+                return graphQlTester.document(SEARCH_DENTALS)
+                                .variable("lat", CENTER_LAT)
+                                .variable("lng", CENTER_LNG)
+                                .variable("size", size)
+                                .execute();
+        }
+}